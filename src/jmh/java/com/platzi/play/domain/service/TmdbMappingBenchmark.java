@@ -0,0 +1,55 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.TmdbMovieDetailsDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de los detalles de TMDB a MovieDto, usada en cada película importada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TmdbMappingBenchmark {
+
+    private TmdbMovieDetailsDto details;
+
+    @Setup
+    public void setUp() {
+        TmdbMovieDetailsDto.Genre genre = new TmdbMovieDetailsDto.Genre();
+        genre.setId(878);
+        genre.setName("Ciencia ficción");
+        details = new TmdbMovieDetailsDto();
+        details.setId(603L);
+        details.setTitle("Matrix");
+        details.setOriginalTitle("The Matrix");
+        details.setOverview("Un hacker descubre la verdad sobre su realidad.");
+        details.setReleaseDate("1999-03-30");
+        details.setRuntime(136);
+        details.setVoteAverage(8.2);
+        details.setVoteCount(25000);
+        details.setPopularity(80.5);
+        details.setGenres(List.of(genre));
+        details.setPosterUrl("https://image.tmdb.org/t/p/w500/matrix.jpg");
+    }
+
+    @Benchmark
+    public MovieDto mapTmdbToMovieDto() {
+        return TmdbMovieMapper.toMovieDto(details);
+    }
+}
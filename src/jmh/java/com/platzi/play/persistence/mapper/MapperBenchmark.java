@@ -0,0 +1,120 @@
+package com.platzi.play.persistence.mapper;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.ReviewDto;
+import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.entity.ReviewEntity;
+import com.platzi.play.persistence.entity.UserEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeos entidad -> DTO que se ejecutan en cada listado de películas y reviews.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final String[] GENRES = {"ACCION", "COMEDIA", "DRAMA", "TERROR", "CIENCIA_FICCION", "SUSPENSO", "desconocido"};
+
+    private final MovieMapper movieMapper = new MovieMapperImpl();
+    private final ReviewMapper reviewMapper = new ReviewMapperImpl();
+    private final MovieEntity movie = movieEntity(0);
+    private int genreIndex;
+
+    /**
+     * Listados de entidades, parametrizados por tamaño
+     */
+    @State(Scope.Benchmark)
+    public static class Listing {
+
+        @Param({"100", "1000"})
+        private int size;
+
+        private List<MovieEntity> movies;
+        private List<ReviewEntity> reviews;
+
+        @Setup
+        public void setUp() {
+            movies = new ArrayList<>(size);
+            reviews = new ArrayList<>(size);
+            UserEntity user = new UserEntity();
+            user.setId(1L);
+            user.setUsername("johndoe");
+            for (int i = 0; i < size; i++) {
+                MovieEntity entity = movieEntity(i);
+                movies.add(entity);
+                ReviewEntity review = new ReviewEntity();
+                review.setId((long) i);
+                review.setUser(user);
+                review.setMovie(entity);
+                review.setRating(1 + i % 5);
+                review.setComment("Comentario de la review " + i);
+                review.setCreatedAt(LocalDateTime.now());
+                reviews.add(review);
+            }
+        }
+    }
+
+    @Benchmark
+    public MovieDto movieToDto() {
+        return movieMapper.toDto(movie);
+    }
+
+    @Benchmark
+    public List<MovieDto> movieToDtoList(Listing listing) {
+        return movieMapper.toDtoList(listing.movies);
+    }
+
+    @Benchmark
+    public List<ReviewDto> reviewToReviewDtos(Listing listing) {
+        return reviewMapper.toReviewDtos(listing.reviews);
+    }
+
+    @Benchmark
+    public Genre stringToGenre() {
+        genreIndex = (genreIndex + 1) % GENRES.length;
+        return GenreMapper.stringToGenre(GENRES[genreIndex]);
+    }
+
+    private static MovieEntity movieEntity(int i) {
+        MovieEntity entity = new MovieEntity();
+        entity.setId((long) i);
+        entity.setTitle("Movie " + i);
+        entity.setDuration(120);
+        entity.setGenre(GENRES[i % (GENRES.length - 1)]);
+        entity.setReleaseDate(LocalDate.of(2000 + i % 25, 1 + i % 12, 1));
+        entity.setRating(BigDecimal.valueOf(7.5));
+        entity.setStatus("D");
+        entity.setTmdbId((long) i + 1);
+        entity.setPosterUrl("https://image.tmdb.org/t/p/w500/poster" + i + ".jpg");
+        entity.setOverview("Sinopsis de la película " + i);
+        entity.setOriginalTitle("Original " + i);
+        entity.setVoteAverage(7.5);
+        entity.setVoteCount(1000 + i);
+        entity.setPopularity(10.0 + i);
+        entity.setOriginalLanguage("en");
+        return entity;
+    }
+}
@@ -0,0 +1,61 @@
+package com.platzi.play.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de listados de películas con la misma configuración de Jackson que usa
+ * Spring MVC (módulos de java.time registrados, fechas ISO).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieDtoSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<MovieDto> movies;
+
+    @Setup
+    public void setUp() {
+        movies = new ArrayList<>(size);
+        Genre[] genres = Genre.values();
+        for (int i = 0; i < size; i++) {
+            movies.add(new MovieDto((long) i, "Movie " + i, 120, genres[i % genres.length],
+                    LocalDate.of(2000 + i % 25, 1 + i % 12, 1), 7.5, true, 4.2, 15L, (long) i + 1,
+                    "https://image.tmdb.org/t/p/w500/poster" + i + ".jpg",
+                    "https://image.tmdb.org/t/p/original/backdrop" + i + ".jpg",
+                    "Sinopsis de la película " + i, "Original " + i, 7.5, 1000 + i, 10.0 + i, "en"));
+        }
+    }
+
+    @Benchmark
+    public void serializeMovieList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), movies);
+    }
+}
@@ -0,0 +1,16 @@
+package com.platzi.play.domain;
+
+/**
+ * Órdenes estables disponibles para recorrer el catálogo con paginación por cursor.
+ * Todos usan el id como desempate para que el orden sea total.
+ */
+public enum MovieSort {
+    /** Orden de inserción (id ascendente) */
+    ID,
+    /** Popularidad en TMDB descendente; las películas sin popularidad van al final */
+    POPULARITY,
+    /** Fecha de estreno descendente; las películas sin fecha van al final */
+    RELEASE_DATE,
+    /** Título ascendente */
+    TITLE
+}
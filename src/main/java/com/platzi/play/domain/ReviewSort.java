@@ -0,0 +1,16 @@
+package com.platzi.play.domain;
+
+/**
+ * Órdenes disponibles para recorrer las reseñas de una película o de un usuario con paginación por cursor.
+ * Todos usan el id como desempate para que el orden sea total.
+ */
+public enum ReviewSort {
+    /** Fecha de creación descendente (más recientes primero) */
+    NEWEST,
+    /** Fecha de creación ascendente (más antiguas primero) */
+    OLDEST,
+    /** Calificación descendente */
+    HIGHEST_RATING,
+    /** Calificación ascendente */
+    LOWEST_RATING
+}
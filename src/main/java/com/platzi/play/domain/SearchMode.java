@@ -0,0 +1,11 @@
+package com.platzi.play.domain;
+
+/**
+ * Modos de la búsqueda local del catálogo
+ */
+public enum SearchMode {
+    /** Búsqueda de texto completo (con raíces en español) en título, título original, sinopsis y reseñas */
+    FULL_TEXT,
+    /** Similitud por trigramas sobre el título y el título original; tolera errores de tipeo y palabras incompletas */
+    TYPO_TOLERANT
+}
@@ -0,0 +1,11 @@
+package com.platzi.play.domain;
+
+/**
+ * Listados de TMDB desde los que se pueden importar películas de forma masiva.
+ */
+public enum TmdbImportSource {
+    POPULAR,
+    TOP_RATED,
+    NOW_PLAYING,
+    UPCOMING
+}
@@ -0,0 +1,13 @@
+package com.platzi.play.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Película que no se pudo importar")
+public record BulkImportFailureDto(
+        @Schema(description = "ID de la película en TMDB", example = "603")
+        Long tmdbId,
+
+        @Schema(description = "Motivo del fallo", example = "La película no existe en TMDB")
+        String reason
+) {
+}
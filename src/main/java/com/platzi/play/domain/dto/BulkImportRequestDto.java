@@ -0,0 +1,20 @@
+package com.platzi.play.domain.dto;
+
+import com.platzi.play.domain.TmdbImportSource;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Solicitud de importación masiva de películas desde TMDB. " +
+        "Debe indicar una lista de IDs o un listado de TMDB con su cantidad de páginas.")
+public record BulkImportRequestDto(
+        @Schema(description = "IDs de las películas en TMDB", example = "[603, 550, 238]")
+        List<Long> tmdbIds,
+
+        @Schema(description = "Listado de TMDB a importar cuando no se envían IDs", example = "POPULAR")
+        TmdbImportSource source,
+
+        @Schema(description = "Cantidad de páginas del listado a importar (20 películas por página)", example = "5")
+        Integer pages
+) {
+}
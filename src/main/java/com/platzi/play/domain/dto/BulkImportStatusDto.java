@@ -0,0 +1,43 @@
+package com.platzi.play.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+@Schema(description = "Progreso de una importación masiva desde TMDB")
+public record BulkImportStatusDto(
+        @Schema(description = "Identificador de la importación", example = "5f0c1c9e-2a7b-4d43-9b7e-3f1f2c8a9d10")
+        String jobId,
+
+        @Schema(description = "Estado de la importación", example = "RUNNING")
+        State state,
+
+        @Schema(description = "Cantidad de IDs de TMDB a procesar", example = "100")
+        int total,
+
+        @Schema(description = "IDs ya procesados (importados, omitidos o fallidos)", example = "40")
+        int processed,
+
+        @Schema(description = "Películas nuevas guardadas", example = "35")
+        int imported,
+
+        @Schema(description = "Películas omitidas porque ya existían en el catálogo", example = "4")
+        int skipped,
+
+        @Schema(description = "Películas que no se pudieron importar", example = "1")
+        int failed,
+
+        @Schema(description = "Detalle de cada película que no se pudo importar")
+        List<BulkImportFailureDto> failures,
+
+        @Schema(description = "Inicio de la importación")
+        Instant startedAt,
+
+        @Schema(description = "Fin de la importación (null mientras sigue en curso)")
+        Instant finishedAt
+) {
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,9 @@
+package com.platzi.play.domain.dto;
+
+import java.time.Instant;
+
+/**
+ * Versión vigente de un catálogo (películas o reseñas) y el instante de su última escritura
+ */
+public record CatalogVersionDto(String catalog, long version, Instant updatedAt) {
+}
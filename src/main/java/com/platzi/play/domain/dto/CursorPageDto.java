@@ -0,0 +1,18 @@
+package com.platzi.play.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página de resultados con paginación por cursor")
+public record CursorPageDto<T>(
+        @Schema(description = "Elementos de la página actual")
+        List<T> items,
+
+        @Schema(description = "Cursor para solicitar la siguiente página (null si no hay más)", example = "SUQ6NDI6NDI")
+        String nextCursor,
+
+        @Schema(description = "Indica si existen más resultados después de esta página", example = "true")
+        boolean hasMore
+) {
+}
@@ -0,0 +1,22 @@
+package com.platzi.play.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Contadores de una región de la caché de segundo nivel de Hibernate")
+public record EntityCacheRegionStatsDto(
+        @Schema(description = "Nombre de la región", example = "users")
+        String region,
+
+        @Schema(description = "Lecturas resueltas desde la caché", example = "4200")
+        long hits,
+
+        @Schema(description = "Lecturas que tuvieron que ir a la base de datos", example = "310")
+        long misses,
+
+        @Schema(description = "Entradas agregadas a la caché", example = "310")
+        long puts,
+
+        @Schema(description = "Aciertos sobre el total de lecturas (0 a 1)", example = "0.93")
+        double hitRatio
+) {
+}
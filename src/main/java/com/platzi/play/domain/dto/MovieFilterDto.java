@@ -0,0 +1,20 @@
+package com.platzi.play.domain.dto;
+
+import com.platzi.play.domain.Genre;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Filtros opcionales para el listado paginado de películas")
+public record MovieFilterDto(
+        @Schema(description = "Género de la película", example = "DRAMA")
+        Genre genre,
+
+        @Schema(description = "Disponibilidad de la película", example = "true")
+        Boolean available,
+
+        @Schema(description = "Año de estreno", example = "1972")
+        Integer releaseYear,
+
+        @Schema(description = "Popularidad mínima en TMDB", example = "50.0")
+        Double minPopularity
+) {
+}
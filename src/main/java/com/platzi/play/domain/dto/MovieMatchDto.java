@@ -0,0 +1,26 @@
+package com.platzi.play.domain.dto;
+
+import com.platzi.play.domain.Genre;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Película del catálogo recuperada por similitud semántica")
+public record MovieMatchDto(
+        @Schema(description = "ID de la película", example = "1")
+        Long id,
+
+        @Schema(description = "Título de la película", example = "Matrix")
+        String title,
+
+        @Schema(description = "Género de la película", example = "SCI_FI")
+        Genre genre,
+
+        @Schema(description = "Año de estreno", example = "1999")
+        Integer releaseYear,
+
+        @Schema(description = "Sinopsis (recortada)", example = "Un hacker descubre que el mundo en el que vive es una simulación...")
+        String overview,
+
+        @Schema(description = "Similitud con la consulta (coseno, de -1 a 1)", example = "0.62")
+        double score
+) {
+}
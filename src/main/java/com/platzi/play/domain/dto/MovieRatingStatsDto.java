@@ -0,0 +1,21 @@
+package com.platzi.play.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Estadísticas de calificaciones de una película")
+public record MovieRatingStatsDto(
+        @Schema(description = "ID de la película", example = "1")
+        Long movieId,
+
+        @Schema(description = "Cantidad total de reviews", example = "150")
+        long reviewCount,
+
+        @Schema(description = "Calificación promedio (1-5), null si no hay reviews", example = "4.5")
+        Double averageRating,
+
+        @Schema(description = "Cantidad de reviews por calificación (1-5 estrellas)", example = "{\"1\": 3, \"2\": 7, \"3\": 20, \"4\": 50, \"5\": 70}")
+        Map<Integer, Long> distribution
+) {
+}
@@ -0,0 +1,31 @@
+package com.platzi.play.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Película encontrada por la búsqueda local del catálogo")
+public record MovieSearchHitDto(
+        @Schema(description = "ID de la película", example = "1")
+        Long id,
+
+        @Schema(description = "Título de la película", example = "El Padrino")
+        String title,
+
+        @Schema(description = "Título original", example = "The Godfather")
+        String originalTitle,
+
+        @Schema(description = "Año de estreno", example = "1972")
+        Integer releaseYear,
+
+        @Schema(description = "URL del póster", example = "https://image.tmdb.org/t/p/w500/poster.jpg")
+        String posterUrl,
+
+        @Schema(description = "Fragmento de la sinopsis con los términos encontrados resaltados entre <b> y </b>")
+        String snippet,
+
+        @Schema(description = "Cantidad de reseñas de la película que coinciden con la búsqueda", example = "2")
+        long matchingReviews,
+
+        @Schema(description = "Relevancia del resultado (mayor es más relevante)", example = "0.42")
+        float score
+) {
+}
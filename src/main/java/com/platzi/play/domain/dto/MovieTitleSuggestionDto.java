@@ -0,0 +1,22 @@
+package com.platzi.play.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Sugerencia de título para el autocompletado")
+public record MovieTitleSuggestionDto(
+        @Schema(description = "ID de la película", example = "1")
+        Long id,
+
+        @Schema(description = "Título de la película", example = "El Padrino")
+        String title,
+
+        @Schema(description = "Título original", example = "The Godfather")
+        String originalTitle,
+
+        @Schema(description = "Año de estreno", example = "1972")
+        Integer releaseYear,
+
+        @Schema(description = "URL del póster", example = "https://image.tmdb.org/t/p/w500/poster.jpg")
+        String posterUrl
+) {
+}
@@ -0,0 +1,31 @@
+package com.platzi.play.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Contadores de la caché de respuestas de TMDB")
+public record TmdbCacheStatsDto(
+        @Schema(description = "Peticiones servidas desde la caché (incluye respuestas vencidas)", example = "1200")
+        long hits,
+
+        @Schema(description = "Peticiones que tuvieron que ir a TMDB", example = "80")
+        long misses,
+
+        @Schema(description = "Respuestas vencidas servidas mientras se refrescaban en segundo plano", example = "15")
+        long staleHits,
+
+        @Schema(description = "Entradas expulsadas por tamaño o expiración", example = "4")
+        long evictions,
+
+        @Schema(description = "Refrescos en segundo plano completados", example = "15")
+        long refreshes,
+
+        @Schema(description = "Refrescos en segundo plano fallidos", example = "0")
+        long refreshFailures,
+
+        @Schema(description = "Entradas actualmente en caché", example = "60")
+        long entries,
+
+        @Schema(description = "Tamaño estimado de las entradas en bytes", example = "524288")
+        long estimatedBytes
+) {
+}
@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class BulkImportNotFoundException extends RuntimeException {
+    public BulkImportNotFoundException(String jobId) {
+        super("La importación con ID " + jobId + " no existe o ya expiró.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class InvalidBulkImportException extends RuntimeException {
+    public InvalidBulkImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.platzi.play.domain.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+        super("El cursor de paginación no es válido");
+    }
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
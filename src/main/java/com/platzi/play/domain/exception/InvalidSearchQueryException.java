@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class InvalidSearchQueryException extends RuntimeException {
+    public InvalidSearchQueryException(int minLength, int maxLength) {
+        super("El texto de búsqueda debe tener entre " + minLength + " y " + maxLength + " caracteres");
+    }
+}
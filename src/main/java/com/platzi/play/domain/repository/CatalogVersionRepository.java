@@ -0,0 +1,34 @@
+package com.platzi.play.domain.repository;
+
+import com.platzi.play.domain.dto.CatalogVersionDto;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface CatalogVersionRepository {
+
+    String MOVIES = "movies";
+    String REVIEWS = "reviews";
+
+    /**
+     * Crea con una versión inicial los catálogos que aún no tienen fila
+     */
+    void createMissing(Collection<String> catalogs);
+
+    /**
+     * Anota una escritura del catálogo en la transacción actual: se confirma o se descarta junto con ella
+     */
+    void recordChange(String catalog);
+
+    /**
+     * @return versión de cada catálogo, leída en una sola consulta
+     */
+    List<CatalogVersionDto> getAll();
+
+    /**
+     * Suma a la versión de cada catálogo las escrituras anotadas antes de {@code before} y las borra
+     * @return escrituras compactadas
+     */
+    int compact(Instant before);
+}
@@ -0,0 +1,13 @@
+package com.platzi.play.domain.repository;
+
+import com.platzi.play.domain.dto.EntityCacheRegionStatsDto;
+
+import java.util.List;
+
+public interface EntityCacheRepository {
+
+    /**
+     * Estadísticas por región de la caché de segundo nivel (vacío si las estadísticas están desactivadas)
+     */
+    List<EntityCacheRegionStatsDto> getRegionStats();
+}
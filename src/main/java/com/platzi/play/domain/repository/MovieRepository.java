@@ -1,14 +1,35 @@
 package com.platzi.play.domain.repository;
 
+import com.platzi.play.domain.MovieSort;
+import com.platzi.play.domain.SearchMode;
+import com.platzi.play.domain.dto.CursorPageDto;
 import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MovieFilterDto;
+import com.platzi.play.domain.dto.MovieSearchHitDto;
 import com.platzi.play.domain.dto.UpdateMovieDto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
 public interface MovieRepository {
     List<MovieDto> getAll();
+
+    /**
+     * Lee el siguiente bloque del catálogo en orden de id, en su propia transacción
+     * @param afterId último id del bloque anterior, o null para empezar
+     * @return películas con su promedio y cantidad de reseñas; vacío al terminar el catálogo
+     */
+    List<MovieDto> getExportChunk(Long afterId);
+    CursorPageDto<MovieDto> getPage(MovieFilterDto filter, MovieSort sort, String cursor, int size);
+
+    /**
+     * Busca en el catálogo local por título, título original, sinopsis y comentarios de reseñas
+     * @return películas ordenadas por relevancia, paginadas por cursor
+     */
+    CursorPageDto<MovieSearchHitDto> search(String text, SearchMode mode, String cursor, int size);
     MovieDto getById(Long id);
     MovieDto save(MovieDto movieDto);
     MovieDto update(Long id,UpdateMovieDto movieDto);
@@ -17,4 +38,13 @@ public interface MovieRepository {
     void delete(Long id);
     
     Optional<MovieDto> findByTmdbId(Long tmdbId);
+
+    Set<Long> findExistingTmdbIds(Collection<Long> tmdbIds);
+
+    /**
+     * Inserta películas importadas de TMDB en un solo lote, omitiendo las que ya existen
+     * por título o tmdbId
+     * @return películas efectivamente insertadas, con su id asignado
+     */
+    List<MovieDto> saveAll(List<MovieDto> movies);
 }
@@ -1,6 +1,9 @@
 package com.platzi.play.domain.repository;
 
+import com.platzi.play.domain.ReviewSort;
 import com.platzi.play.domain.dto.CreateReviewDto;
+import com.platzi.play.domain.dto.CursorPageDto;
+import com.platzi.play.domain.dto.MovieRatingStatsDto;
 import com.platzi.play.domain.dto.ReviewDto;
 import com.platzi.play.domain.dto.UpdateReviewDto;
 
@@ -19,6 +22,10 @@ public interface ReviewRepository {
     List<ReviewDto> getByMovieId(Long movieId);
     
     List<ReviewDto> getByUserId(Long userId);
+
+    CursorPageDto<ReviewDto> getPageByMovieId(Long movieId, ReviewSort sort, String cursor, int size);
+
+    CursorPageDto<ReviewDto> getPageByUserId(Long userId, ReviewSort sort, String cursor, int size);
     
     ReviewDto getByUserIdAndMovieId(Long userId, Long movieId);
     
@@ -27,5 +34,9 @@ public interface ReviewRepository {
     Double getAverageRatingByMovieId(Long movieId);
     
     long countByMovieId(Long movieId);
+    
+    MovieRatingStatsDto getRatingStatsByMovieId(Long movieId);
+    
+    int rebuildRatingStats();
 }
 
@@ -3,7 +3,9 @@ package com.platzi.play.domain.repository;
 import com.platzi.play.domain.dto.UserDto;
 import com.platzi.play.persistence.entity.UserEntity;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface UserRepository {
@@ -82,4 +84,17 @@ public interface UserRepository {
      * @return Entidad de usuario o null
      */
     UserEntity getEntityByUsernameOrEmail(String usernameOrEmail);
+    
+    /**
+     * Obtiene la versión de seguridad de la cuenta (cacheada en memoria)
+     * @param id ID del usuario
+     * @return versión de la cuenta o null si el usuario no existe
+     */
+    Long getAccountVersion(Long id);
+
+    /**
+     * Registra el último acceso de varios usuarios en un solo lote; nunca retrocede una fecha ya guardada
+     * @param lastAccessByUserId fecha de último acceso por ID de usuario
+     */
+    void updateLastAccess(Map<Long, LocalDateTime> lastAccessByUserId);
 }
@@ -5,7 +5,6 @@ import com.platzi.play.domain.dto.LoginDto;
 import com.platzi.play.domain.dto.RegisterDto;
 import com.platzi.play.domain.dto.UserDto;
 import com.platzi.play.domain.exception.UserAlreadyExistsException;
-import com.platzi.play.domain.exception.UserNotFoundException;
 import com.platzi.play.domain.repository.UserRepository;
 import com.platzi.play.persistence.crud.CrudUserEntity;
 import com.platzi.play.persistence.entity.UserEntity;
@@ -28,19 +27,22 @@ public class AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
+    private final LastAccessBuffer lastAccessBuffer;
 
     public AuthService(UserRepository userRepository, 
                       CrudUserEntity crudUserEntity,
                       PasswordEncoder passwordEncoder, 
                       JwtService jwtService,
                       AuthenticationManager authenticationManager,
-                      UserMapper userMapper) {
+                      UserMapper userMapper,
+                      LastAccessBuffer lastAccessBuffer) {
         this.userRepository = userRepository;
         this.crudUserEntity = crudUserEntity;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
         this.userMapper = userMapper;
+        this.lastAccessBuffer = lastAccessBuffer;
     }
 
     /**
@@ -72,6 +74,8 @@ public class AuthService {
         newUser.setRole(UserEntity.UserRole.USER);
         newUser.setActivo(true);
         newUser.setEmailVerificado(true); // Por simplicidad, asumimos que el email está verificado
+        // El registro cuenta como primer acceso: va en el mismo INSERT
+        newUser.setUltimoAcceso(LocalDateTime.now());
 
         // Guardar usuario directamente como entidad
         UserEntity savedEntity = crudUserEntity.save(newUser);
@@ -80,10 +84,6 @@ public class AuthService {
         // Generar token JWT
         String token = jwtService.generateToken(newUser);
 
-        // Actualizar último acceso
-        newUser.setUltimoAcceso(LocalDateTime.now());
-        userRepository.update(userMapper.toDto(newUser));
-
         return createAuthResponse(token, savedUser);
     }
 
@@ -102,20 +102,15 @@ public class AuthService {
                 )
             );
 
-            // Obtener usuario autenticado
+            // El principal ya es la entidad cargada por la autenticación: no se vuelve a consultar
             UserEntity user = (UserEntity) authentication.getPrincipal();
-            UserDto userDto = userRepository.getById(user.getId());
-
-            if (userDto == null) {
-                throw new UserNotFoundException("Usuario no encontrado");
-            }
+            UserDto userDto = userMapper.toDto(user);
 
             // Generar token JWT
             String token = jwtService.generateToken(user);
 
-            // Actualizar último acceso
-            user.setUltimoAcceso(LocalDateTime.now());
-            userRepository.update(userMapper.toDto(user));
+            // Último acceso con escritura diferida (se guarda en lote, ver LastAccessBuffer)
+            lastAccessBuffer.record(user.getId(), LocalDateTime.now());
 
             return createAuthResponse(token, userDto);
 
@@ -0,0 +1,133 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.dto.CatalogVersionDto;
+import com.platzi.play.domain.repository.CatalogVersionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Versiones del catálogo de películas y de las reseñas, compartidas por todas las instancias.
+ * <p>
+ * Los repositorios anotan cada escritura en {@link CatalogVersionRepository} dentro de la misma
+ * transacción que los datos, así que una versión nunca se asocia a datos sin confirmar. Las
+ * respuestas de lectura se etiquetan con la versión vigente antes de consultar los datos: si el
+ * cliente ya tiene esa versión, se le responde 304 sin ir a la base de datos. Cada instancia
+ * guarda la última lectura durante {@code catalog.versions.refresh-interval}: sus escrituras la
+ * descartan al confirmarse y las de otras instancias se notan, como mucho, tras ese intervalo.
+ * Cada {@code catalog.versions.compact-interval} se compactan las escrituras anotadas.
+ */
+@Slf4j
+@Component
+public class CatalogVersions {
+
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final long refreshNanos;
+    private final Duration compactInterval;
+    private final ScheduledExecutorService compactExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-versions-compact");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Snapshot snapshot;
+
+    public CatalogVersions(CatalogVersionRepository catalogVersionRepository,
+                           @Value("${catalog.versions.refresh-interval:1s}") Duration refreshInterval,
+                           @Value("${catalog.versions.compact-interval:1m}") Duration compactInterval) {
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.refreshNanos = refreshInterval.toNanos();
+        this.compactInterval = compactInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        catalogVersionRepository.createMissing(List.of(CatalogVersionRepository.MOVIES, CatalogVersionRepository.REVIEWS));
+        compactExecutor.scheduleWithFixedDelay(this::compact, compactInterval.toMillis(), compactInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        compactExecutor.shutdownNow();
+    }
+
+    /**
+     * Descarta la versión leída por esta instancia cuando se confirma la transacción actual
+     * (o de inmediato, fuera de una). La escritura ya quedó anotada por su repositorio.
+     */
+    public void changed() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshot = null;
+                }
+            });
+        } else {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * ETag de las lecturas de películas y reseñas: cubre ambas porque las películas incluyen
+     * las estadísticas de sus reseñas y las reseñas el título de su película
+     */
+    public String etag() {
+        return current().etag();
+    }
+
+    /**
+     * Instante (epoch millis) de la última escritura registrada en cualquiera de los dos catálogos
+     */
+    public long lastModified() {
+        return current().lastModified();
+    }
+
+    // Solo escrituras con más de un intervalo de antigüedad: sus transacciones ya terminaron
+    void compact() {
+        try {
+            catalogVersionRepository.compact(Instant.now().minus(compactInterval));
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron compactar las versiones del catálogo: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null || System.nanoTime() - current.readAtNanos() > refreshNanos) {
+            current = load();
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        long readAt = System.nanoTime();
+        long movies = 0;
+        long reviews = 0;
+        long lastModified = 0;
+        for (CatalogVersionDto version : catalogVersionRepository.getAll()) {
+            if (CatalogVersionRepository.MOVIES.equals(version.catalog())) {
+                movies = version.version();
+            } else if (CatalogVersionRepository.REVIEWS.equals(version.catalog())) {
+                reviews = version.version();
+            }
+            lastModified = Math.max(lastModified, version.updatedAt().toEpochMilli());
+        }
+        return new Snapshot(Long.toString(movies, 36) + "-" + Long.toString(reviews, 36), lastModified, readAt);
+    }
+
+    private record Snapshot(String etag, long lastModified, long readAtNanos) {
+    }
+}
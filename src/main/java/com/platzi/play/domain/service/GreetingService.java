@@ -0,0 +1,97 @@
+package com.platzi.play.domain.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Saludos de bienvenida para el endpoint público /hello.
+ * <p>
+ * Los saludos se generan con IA en segundo plano y se renuevan cada cierto intervalo; las
+ * peticiones solo rotan entre los saludos ya generados en memoria, así que el tráfico de /hello
+ * no consume cuota del modelo. Mientras no haya saludos generados (arranque, modelo lento o
+ * caído) se responde con un saludo fijo, y si una renovación falla se conservan los anteriores.
+ */
+@Slf4j
+@Service
+public class GreetingService {
+
+    private final PlatziPlayAiService aiService;
+    private final String platform;
+    private final int poolSize;
+    private final Duration refreshInterval;
+    private final List<String> fallback;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "greeting-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile List<String> greetings;
+
+    public GreetingService(PlatziPlayAiService aiService,
+                           @Value("${spring.application.name}") String platform,
+                           @Value("${ai.greetings.pool-size:5}") int poolSize,
+                           @Value("${ai.greetings.refresh-interval:30m}") Duration refreshInterval,
+                           @Value("${ai.greetings.fallback:}") String fallback) {
+        this.aiService = aiService;
+        this.platform = platform;
+        this.poolSize = poolSize;
+        this.refreshInterval = refreshInterval;
+        this.fallback = List.of(fallback.isBlank()
+                ? "¡Bienvenido a " + platform + "! Descubre, califica y comparte tus películas favoritas."
+                : fallback);
+        this.greetings = this.fallback;
+    }
+
+    @PostConstruct
+    void start() {
+        refreshExecutor.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Devuelve el siguiente saludo del pool (o el saludo fijo si aún no hay saludos generados)
+     */
+    public String getGreeting() {
+        List<String> current = greetings;
+        return current.get(Math.floorMod(next.getAndIncrement(), current.size()));
+    }
+
+    /**
+     * Genera un nuevo pool de saludos; los saludos vigentes se reemplazan solo si se obtuvo al menos uno
+     */
+    void refresh() {
+        Set<String> generated = new LinkedHashSet<>();
+        for (int i = 0; i < poolSize; i++) {
+            try {
+                String greeting = aiService.generateGreeting(platform);
+                if (greeting != null && !greeting.isBlank()) {
+                    generated.add(greeting.strip());
+                }
+            } catch (RuntimeException e) {
+                log.warn("No se pudo generar un saludo: {}", e.getMessage());
+                break;
+            }
+        }
+        if (!generated.isEmpty()) {
+            greetings = List.copyOf(generated);
+        }
+    }
+}
@@ -1,37 +1,100 @@
 package com.platzi.play.domain.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.platzi.play.persistence.entity.UserEntity;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+    static final String ACCOUNT_VERSION_CLAIM = "ver";
+
     @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
     private String secretKey;
 
     @Value("${jwt.expiration:3600000}") // 1 hora por defecto
     private long jwtExpiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    private Key signInKey;
+    private JwtParser jwtParser;
+
+    // Claims ya verificados, indexados por el hash SHA-256 del token y expirados junto con el token
+    private Cache<String, Claims> verifiedClaims;
+
+    /**
+     * Precalcula la clave de firma, el parser y la caché de tokens verificados
+     */
+    @PostConstruct
+    void init() {
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts
+                .parser()
+                .setSigningKey(signInKey)
+                .build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     /**
      * Genera un token JWT para un usuario
      * @param userDetails detalles del usuario
      * @return token JWT
      */
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof UserEntity user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(ROLE_CLAIM, user.getRole().name());
+            claims.put(ACCOUNT_VERSION_CLAIM, Objects.requireNonNullElse(user.getAccountVersion(), 0L));
+        }
+        return generateToken(claims, userDetails);
     }
 
     /**
@@ -62,7 +125,7 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -93,49 +156,96 @@ public class JwtService {
      * @return true si es válido, false en caso contrario
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
     /**
-     * Verifica si el token ha expirado
-     * @param token token JWT
-     * @return true si ha expirado, false en caso contrario
+     * Verifica si los claims ya verificados corresponden al usuario y siguen vigentes
+     * @param claims claims del token
+     * @param userDetails detalles del usuario
+     * @return true si es válido, false en caso contrario
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     /**
-     * Extrae la fecha de expiración del token
+     * Extrae la versión de cuenta con la que se emitió el token
+     * @param claims claims del token
+     * @return versión de la cuenta, o null si el token no la incluye
+     */
+    public Long extractAccountVersion(Claims claims) {
+        return claims.get(ACCOUNT_VERSION_CLAIM, Long.class);
+    }
+
+    /**
+     * Construye el usuario autenticado a partir de los claims, sin consultar la base de datos
+     * @param claims claims del token
+     * @return usuario (no persistido) o null si el token no incluye id, rol y versión
+     */
+    public UserEntity extractPrincipal(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Long accountVersion = extractAccountVersion(claims);
+        if (userId == null || role == null || accountVersion == null) {
+            return null;
+        }
+
+        UserEntity user = new UserEntity();
+        user.setId(userId);
+        user.setUsername(claims.getSubject());
+        user.setRole(UserEntity.UserRole.valueOf(role));
+        user.setAccountVersion(accountVersion);
+        // Si la cuenta se desactiva cambia su versión, por lo que el token deja de ser vigente
+        user.setActivo(true);
+        user.setEmailVerificado(true);
+        return user;
+    }
+
+    /**
+     * Verifica la firma del token una sola vez y reutiliza el resultado en las siguientes peticiones
      * @param token token JWT
-     * @return fecha de expiración
+     * @return claims del token, o null si el token es inválido o expiró
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public Claims verifyToken(String token) {
+        try {
+            return extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
     /**
-     * Extrae todos los claims del token
+     * Extrae todos los claims del token, consultando primero la caché de tokens verificados
      * @param token token JWT
      * @return claims del token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(getSignInKey())
-                .build()
+        String digest = digest(token);
+        Claims cached = verifiedClaims.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = jwtParser
                 .parseClaimsJws(token)
                 .getBody();
+        verifiedClaims.put(digest, claims);
+        return claims;
     }
 
     /**
-     * Obtiene la clave de firma
-     * @return clave de firma
+     * Calcula el hash SHA-256 del token para usarlo como clave de la caché
+     * @param token token JWT
+     * @return hash del token en Base64
      */
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
     }
 
     /**
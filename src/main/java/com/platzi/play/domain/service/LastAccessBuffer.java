@@ -0,0 +1,86 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Último acceso de los usuarios con escritura diferida.
+ * <p>
+ * El login solo anota el acceso en memoria; varios logins del mismo usuario dentro de un
+ * intervalo se reducen a la fecha más reciente y cada {@code flush-interval} se guardan todos
+ * en un único lote. Si el lote falla, los accesos vuelven al buffer para el siguiente intento.
+ * Al detener la aplicación se guarda lo pendiente.
+ */
+@Slf4j
+@Service
+public class LastAccessBuffer {
+
+    private final UserRepository userRepository;
+    private final Duration flushInterval;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "last-access-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LastAccessBuffer(UserRepository userRepository,
+                            @Value("${users.last-access.flush-interval:30s}") Duration flushInterval) {
+        this.userRepository = userRepository;
+        this.flushInterval = flushInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        flushExecutor.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushExecutor.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Anota un acceso del usuario; se conserva el más reciente hasta el próximo guardado
+     */
+    public void record(Long userId, LocalDateTime accessedAt) {
+        pending.merge(userId, accessedAt, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    /**
+     * Guarda en un solo lote los accesos pendientes
+     */
+    void flush() {
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (Long userId : pending.keySet()) {
+            LocalDateTime accessedAt = pending.remove(userId);
+            if (accessedAt != null) {
+                batch.put(userId, accessedAt);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            userRepository.updateLastAccess(batch);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo guardar el último acceso de {} usuarios: {}", batch.size(), e.getMessage());
+            batch.forEach(this::record);
+        }
+    }
+}
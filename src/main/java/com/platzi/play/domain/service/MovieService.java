@@ -1,48 +1,148 @@
 package com.platzi.play.domain.service;
 
 import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.MovieSort;
+import com.platzi.play.domain.SearchMode;
+import com.platzi.play.domain.dto.CursorPageDto;
 import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MovieFilterDto;
+import com.platzi.play.domain.dto.MovieMatchDto;
+import com.platzi.play.domain.dto.MovieSearchHitDto;
+import com.platzi.play.domain.dto.MovieTitleSuggestionDto;
 import com.platzi.play.domain.dto.TmdbMovieDetailsDto;
 import com.platzi.play.domain.dto.UpdateMovieDto;
+import com.platzi.play.domain.exception.InvalidSearchQueryException;
 import com.platzi.play.domain.exception.MovieAlreadyException;
 import com.platzi.play.domain.repository.MovieRepository;
+import dev.langchain4j.agent.tool.P;
 import dev.langchain4j.agent.tool.Tool;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class MovieService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int SUGGESTION_TOOL_LIMIT = 25;
+    private static final int RETRIEVAL_TOOL_LIMIT = 8;
+    private static final int MIN_SEARCH_LENGTH = 2;
+    private static final int MAX_SEARCH_LENGTH = 200;
+    public static final int DEFAULT_TYPEAHEAD_LIMIT = 10;
+    private static final int MAX_TYPEAHEAD_LIMIT = 20;
+
     private final MovieRepository movieRepository;
     private final TmdbService tmdbService;
-
-    public MovieService(MovieRepository movieRepository, TmdbService tmdbService) {
+    private final MovieVectorIndex movieVectorIndex;
+    private final MovieSuggestionCache movieSuggestionCache;
+    private final MovieTitleIndex movieTitleIndex;
+    private final CatalogVersions catalogVersions;
+
+    public MovieService(MovieRepository movieRepository, TmdbService tmdbService,
+                        MovieVectorIndex movieVectorIndex, MovieSuggestionCache movieSuggestionCache,
+                        MovieTitleIndex movieTitleIndex, CatalogVersions catalogVersions) {
         this.movieRepository = movieRepository;
         this.tmdbService = tmdbService;
+        this.movieVectorIndex = movieVectorIndex;
+        this.movieSuggestionCache = movieSuggestionCache;
+        this.movieTitleIndex = movieTitleIndex;
+        this.catalogVersions = catalogVersions;
     }
 
-    @Tool("Busca todas las peliculas que existan dentro de la plataforma")
     public List<MovieDto> getAll(){
         return this.movieRepository.getAll();
     }
 
+    /**
+     * Entrega las películas de a una, para exportar catálogos que no conviene materializar.
+     * Se leen por bloques, cada uno en su transacción, y la acción se ejecuta fuera de ellas.
+     */
+    public void exportAll(Consumer<MovieDto> action){
+        List<MovieDto> chunk = this.movieRepository.getExportChunk(null);
+        while (!chunk.isEmpty()) {
+            chunk.forEach(action);
+            chunk = this.movieRepository.getExportChunk(chunk.get(chunk.size() - 1).id());
+        }
+    }
+
+    public CursorPageDto<MovieDto> getPage(MovieFilterDto filter, MovieSort sort, String cursor, Integer size){
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return this.movieRepository.getPage(filter, sort == null ? MovieSort.ID : sort, cursor, pageSize);
+    }
+
+    public CursorPageDto<MovieSearchHitDto> search(String query, SearchMode mode, String cursor, Integer size){
+        String text = query == null ? "" : query.strip();
+        if (text.length() < MIN_SEARCH_LENGTH || text.length() > MAX_SEARCH_LENGTH) {
+            throw new InvalidSearchQueryException(MIN_SEARCH_LENGTH, MAX_SEARCH_LENGTH);
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return this.movieRepository.search(text, mode == null ? SearchMode.FULL_TEXT : mode, cursor, pageSize);
+    }
+
+    public List<MovieTitleSuggestionDto> typeahead(String prefix, Integer limit){
+        int max = limit == null ? DEFAULT_TYPEAHEAD_LIMIT : Math.max(1, Math.min(limit, MAX_TYPEAHEAD_LIMIT));
+        return this.movieTitleIndex.suggest(prefix, max);
+    }
+
+    @Tool("Busca las peliculas mas populares de la plataforma, opcionalmente filtradas por genero, año de estreno y popularidad minima")
+    public List<MovieDto> searchMovies(
+            @P(value = "Genero de la pelicula", required = false) Genre genre,
+            @P(value = "Año de estreno", required = false) Integer releaseYear,
+            @P(value = "Popularidad minima en TMDB", required = false) Double minPopularity){
+        MovieFilterDto filter = new MovieFilterDto(genre, true, releaseYear, minPopularity);
+        return getPage(filter, MovieSort.POPULARITY, null, SUGGESTION_TOOL_LIMIT).items();
+    }
+
+    @Tool("Busca en la plataforma las peliculas mas parecidas a una descripcion de gustos, tematica o peliculas similares")
+    public List<MovieMatchDto> findSimilarMovies(
+            @P("Descripcion de lo que busca el usuario") String description){
+        return movieVectorIndex.search(description, RETRIEVAL_TOOL_LIMIT);
+    }
+
     public MovieDto getById(Long id){
         return this.movieRepository.getById(id);
     }
 
     public MovieDto save(MovieDto movieDto){
-        return this.movieRepository.save(movieDto);
+        MovieDto saved = this.movieRepository.save(movieDto);
+        this.movieVectorIndex.upsert(saved);
+        this.movieTitleIndex.upsert(saved);
+        this.movieSuggestionCache.invalidateAll();
+        this.catalogVersions.changed();
+        return saved;
+    }
+
+    /**
+     * Guarda un lote de películas (importación masiva), las agrega a los índices de sugerencias
+     * y autocompletado y descarta las sugerencias cacheadas
+     * @return películas efectivamente insertadas
+     */
+    public List<MovieDto> saveAll(List<MovieDto> movies){
+        List<MovieDto> saved = this.movieRepository.saveAll(movies);
+        this.movieVectorIndex.upsertAll(saved);
+        this.movieTitleIndex.upsertAll(saved);
+        this.movieSuggestionCache.invalidateAll();
+        this.catalogVersions.changed();
+        return saved;
     }
 
     public MovieDto update(Long id, UpdateMovieDto updateMovieDto){
-        return this.movieRepository.update(id,updateMovieDto);
+        MovieDto updated = this.movieRepository.update(id,updateMovieDto);
+        this.movieVectorIndex.upsert(updated);
+        this.movieTitleIndex.upsert(updated);
+        this.movieSuggestionCache.invalidateAll();
+        this.catalogVersions.changed();
+        return updated;
     }
 
     public void delete(Long id){
         this.movieRepository.delete(id);
+        this.movieVectorIndex.remove(id);
+        this.movieTitleIndex.remove(id);
+        this.movieSuggestionCache.invalidateAll();
+        this.catalogVersions.changed();
     }
 
     public MovieDto importFromTmdb(Long tmdbId) {
@@ -53,71 +153,12 @@ public class MovieService {
 
         TmdbMovieDetailsDto tmdbDetails = tmdbService.getMovieDetails(tmdbId);
 
-        MovieDto movieToSave = mapTmdbToMovieDto(tmdbDetails);
+        MovieDto movieToSave = TmdbMovieMapper.toMovieDto(tmdbDetails);
 
-        return this.movieRepository.save(movieToSave);
+        return save(movieToSave);
     }
 
     private Optional<MovieDto> findByTmdbId(Long tmdbId) {
         return this.movieRepository.findByTmdbId(tmdbId);
     }
-
-    private MovieDto mapTmdbToMovieDto(TmdbMovieDetailsDto tmdbDetails) {
-        Genre genre = Genre.OTHER;
-        if (tmdbDetails.getGenres() != null && !tmdbDetails.getGenres().isEmpty()) {
-            genre = mapTmdbGenreToOurGenre(tmdbDetails.getGenres().get(0).getName());
-        }
-
-        LocalDate releaseDate = null;
-        if (tmdbDetails.getReleaseDate() != null && !tmdbDetails.getReleaseDate().isEmpty()) {
-            try {
-                releaseDate = LocalDate.parse(tmdbDetails.getReleaseDate(), DateTimeFormatter.ISO_DATE);
-            } catch (Exception e) {
-            }
-        }
-
-        Double rating = tmdbDetails.getVoteAverage();
-
-        return new MovieDto(
-                null,
-                tmdbDetails.getTitle(),
-                tmdbDetails.getRuntime() != null ? tmdbDetails.getRuntime() : 0,
-                genre,
-                releaseDate,
-                rating,
-                true,
-                null,
-                0L,
-                tmdbDetails.getId(),
-                tmdbDetails.getPosterUrl(),
-                tmdbDetails.getBackdropUrl(),
-                tmdbDetails.getOverview(),
-                tmdbDetails.getOriginalTitle(),
-                tmdbDetails.getVoteAverage(),
-                tmdbDetails.getVoteCount(),
-                tmdbDetails.getPopularity(),
-                null
-        );
-    }
-
-    private Genre mapTmdbGenreToOurGenre(String tmdbGenre) {
-        if (tmdbGenre == null) return Genre.OTHER;
-
-        return switch (tmdbGenre.toLowerCase()) {
-            case "acción" -> Genre.ACTION;
-            case "comedia" -> Genre.COMEDY;
-            case "drama" -> Genre.DRAMA;
-            case "terror" -> Genre.HORROR;
-            case "ciencia ficción" -> Genre.SCI_FI;
-            case "suspense" -> Genre.THRILLER;
-            case "romance" -> Genre.ROMANCE;
-            case "animación" -> Genre.ANIMATED;
-            case "aventura" -> Genre.ADVENTURE;
-            case "fantasía" -> Genre.FANTASY;
-            case "misterio" -> Genre.MYSTERY;
-            case "crimen" -> Genre.CRIME;
-            case "documental" -> Genre.DOCUMENTARY;
-            default -> Genre.OTHER;
-        };
-    }
 }
@@ -0,0 +1,161 @@
+package com.platzi.play.domain.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché de las sugerencias de películas generadas con IA.
+ * <p>
+ * Se busca la preferencia normalizada (minúsculas, sin tildes ni signos de puntuación). La capa
+ * semántica es opcional: si está activa y la preferencia no está, se compara su embedding con el
+ * de las preferencias ya respondidas y se reutiliza la respuesta más parecida si supera el umbral
+ * de similitud. Viene desactivada porque el modelo de embeddings (all-MiniLM-L6-v2, entrenado en
+ * inglés) puntúa casi igual preferencias en español que piden cosas distintas ("de los 80" y
+ * "de los 90": 0.88) que paráfrasis reales ("de terror" y "de miedo": 0.58); ver
+ * SpanishPreferenceSimilarityTest. Las peticiones concurrentes con la
+ * misma preferencia esperan una sola llamada al modelo. Toda la caché se descarta cuando cambia
+ * el catálogo, porque las sugerencias se basan en las películas disponibles.
+ */
+@Component
+public class MovieSuggestionCache {
+
+    static final String METRIC = "ai.suggestions.cache";
+
+    /**
+     * Respuesta del modelo y embedding normalizado de la preferencia que la originó
+     * (null si la capa semántica está desactivada)
+     */
+    private record Entry(String suggestion, float[] vector) {
+    }
+
+    private final EmbeddingModel embeddingModel;
+    private final boolean semanticEnabled;
+    private final double similarityThreshold;
+    private final AsyncCache<String, Entry> cache;
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final Counter exactHits;
+    private final Counter semanticHits;
+    private final Counter misses;
+
+    public MovieSuggestionCache(EmbeddingModel embeddingModel,
+                                MeterRegistry meterRegistry,
+                                @Value("${ai.suggestions.cache.ttl:1h}") Duration ttl,
+                                @Value("${ai.suggestions.cache.max-size:1000}") long maxSize,
+                                @Value("${ai.suggestions.cache.semantic.enabled:false}") boolean semanticEnabled,
+                                @Value("${ai.suggestions.cache.similarity-threshold:0.92}") double similarityThreshold) {
+        this.embeddingModel = embeddingModel;
+        this.semanticEnabled = semanticEnabled;
+        this.similarityThreshold = similarityThreshold;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .buildAsync();
+        this.exactHits = meterRegistry.counter(METRIC, "result", "exact");
+        this.semanticHits = meterRegistry.counter(METRIC, "result", "semantic");
+        this.misses = meterRegistry.counter(METRIC, "result", "miss");
+    }
+
+    /**
+     * Obtiene la sugerencia cacheada para una preferencia o la genera con el modelo
+     * @param userPreferences preferencias tal como las escribió el usuario
+     * @param generator función que llama al modelo
+     * @return sugerencia (propia o de una preferencia equivalente)
+     */
+    public String get(String userPreferences, Function<String, String> generator) {
+        String key = TextNormalizer.normalize(userPreferences);
+        if (key.isEmpty()) {
+            return generator.apply(userPreferences);
+        }
+
+        CompletableFuture<Entry> pending = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = cache.asMap().putIfAbsent(key, pending);
+        if (existing != null) {
+            exactHits.increment();
+            return join(existing).suggestion();
+        }
+
+        long version = catalogVersion.get();
+        try {
+            pending.complete(load(key, userPreferences, generator));
+        } catch (RuntimeException e) {
+            // Caffeine descarta las entradas que terminan con error
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        if (version != catalogVersion.get()) {
+            // El catálogo cambió mientras se generaba: la respuesta se entrega pero no se guarda
+            cache.asMap().remove(key, pending);
+        }
+        return pending.join().suggestion();
+    }
+
+    /**
+     * Descarta todas las sugerencias; se llama cuando se crean, modifican o eliminan películas
+     */
+    public void invalidateAll() {
+        catalogVersion.incrementAndGet();
+        cache.synchronous().invalidateAll();
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    private Entry load(String key, String userPreferences, Function<String, String> generator) {
+        if (!semanticEnabled) {
+            misses.increment();
+            return new Entry(generator.apply(userPreferences), null);
+        }
+        float[] vector = MovieVectorIndex.normalize(embeddingModel.embed(key).content().vector());
+        Entry similar = findSimilar(vector);
+        if (similar != null) {
+            semanticHits.increment();
+            return new Entry(similar.suggestion(), vector);
+        }
+        misses.increment();
+        return new Entry(generator.apply(userPreferences), vector);
+    }
+
+    // Recorrido lineal: la caché está acotada y comparar vectores cuesta mucho menos que llamar al modelo
+    private Entry findSimilar(float[] vector) {
+        Entry best = null;
+        double bestScore = similarityThreshold;
+        for (CompletableFuture<Entry> future : cache.asMap().values()) {
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                continue;
+            }
+            Entry entry = future.join();
+            if (entry.vector() == null) {
+                continue;
+            }
+            double score = MovieVectorIndex.dot(vector, entry.vector());
+            if (score >= bestScore) {
+                best = entry;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static Entry join(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
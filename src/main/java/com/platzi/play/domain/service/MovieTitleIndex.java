@@ -0,0 +1,331 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MovieTitleSuggestionDto;
+import com.platzi.play.domain.repository.MovieRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice en memoria para el autocompletado de títulos.
+ * <p>
+ * Cada palabra del título y del título original normalizados es el inicio de una clave, de modo
+ * que "padr" encuentra "El Padrino". Las claves no se copian: se guardan como (texto, posición)
+ * en arreglos paralelos ordenados, y un prefijo se resuelve con una búsqueda binaria y un
+ * recorrido del rango que comparte ese prefijo. Las coincidencias se ordenan por popularidad en
+ * TMDB y cantidad de reseñas locales. Las búsquedas leen una instantánea inmutable; los cambios
+ * del catálogo generan una nueva fusionando las claves nuevas con las existentes.
+ * <p>
+ * Una reconstrucción carga el catálogo sin bloquear a los demás cambios: los que llegan mientras
+ * tanto se anotan y se vuelven a aplicar sobre el índice nuevo al reemplazar el anterior. Por eso
+ * las reseñas se anotan como cantidades absolutas y no como diferencias: una reseña confirmada
+ * justo antes de la consulta del catálogo ya viene contada y volver a sumarla la contaría dos veces.
+ */
+@Slf4j
+@Component
+public class MovieTitleIndex {
+
+    /**
+     * Película sugerible y los datos con los que se ordena
+     */
+    private record Candidate(MovieTitleSuggestionDto movie, double popularity, long reviewCount) {
+        double score() {
+            return Math.log1p(popularity) + Math.log1p(reviewCount);
+        }
+    }
+
+    /**
+     * Clave nueva pendiente de intercalar: {@code text.substring(offset)} apunta a la película
+     */
+    private record Key(String text, int offset, long movieId) {
+    }
+
+    /**
+     * Claves ordenadas: la clave i es {@code texts[i].substring(offsets[i])} y apunta a {@code movieIds[i]}
+     */
+    private record Keys(String[] texts, int[] offsets, long[] movieIds) {
+        int size() {
+            return texts.length;
+        }
+    }
+
+    private static final Keys NO_KEYS = new Keys(new String[0], new int[0], new long[0]);
+
+    private final MovieRepository movieRepository;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicLong reviewCountSequence = new AtomicLong();
+    // Secuencia de la última cantidad de reseñas aplicada a cada película; sobrevive a las reconstrucciones.
+    // Protegido por this
+    private final Map<Long, Long> appliedReviewCounts = new HashMap<>();
+    private volatile Map<Long, Candidate> candidates = new ConcurrentHashMap<>();
+    private volatile Keys keys = NO_KEYS;
+    // Cambios recibidos durante una reconstrucción en curso (null si no hay ninguna); protegido por this
+    private List<Runnable> pendingChanges;
+
+    public MovieTitleIndex(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruye el índice desde el catálogo completo (incluye la cantidad de reseñas de cada película).
+     * La consulta y la construcción ocurren fuera del monitor del índice; solo el reemplazo lo toma
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+            Map<Long, Candidate> rebuiltCandidates = new ConcurrentHashMap<>();
+            Keys rebuiltKeys;
+            try {
+                rebuiltKeys = upsertAll(rebuiltCandidates, NO_KEYS, movieRepository.getAll());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingChanges = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                candidates = rebuiltCandidates;
+                keys = rebuiltKeys;
+                pendingChanges.forEach(Runnable::run);
+                pendingChanges = null;
+            }
+            log.info("Índice de autocompletado construido: {} películas, {} claves en {} ms",
+                    candidates.size(), keys.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void upsert(MovieDto movie) {
+        upsertAll(List.of(movie));
+    }
+
+    /**
+     * Agrega o reemplaza películas; las no disponibles se quitan del índice.
+     * La cantidad de reseñas ya indexada se conserva, porque solo cambia con las reseñas
+     */
+    public synchronized void upsertAll(List<MovieDto> movies) {
+        apply(() -> keys = upsertAll(candidates, keys, movies));
+    }
+
+    public synchronized void remove(Long movieId) {
+        apply(() -> {
+            candidates.remove(movieId);
+            keys = merge(keys, Set.of(movieId), new ArrayList<>());
+        });
+    }
+
+    /**
+     * Fija la cantidad de reseñas de la película. Se llama dentro de la transacción que la cambió,
+     * después de actualizar sus estadísticas: el bloqueo de esa fila ordena las escrituras de una
+     * misma película, así que la secuencia tomada aquí sigue el orden de los commits. Dentro de una
+     * transacción se aplica después del commit, para no contar reseñas que terminan en rollback, y
+     * se descarta si ya se aplicó una cantidad posterior
+     */
+    public void updateReviewCount(Long movieId, long reviewCount) {
+        long sequence = reviewCountSequence.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyReviewCount(movieId, reviewCount, sequence);
+                }
+            });
+        } else {
+            applyReviewCount(movieId, reviewCount, sequence);
+        }
+    }
+
+    /**
+     * Sugiere títulos que tienen alguna palabra que empieza con el texto escrito
+     * @param prefix texto escrito por el usuario (sin distinguir mayúsculas ni tildes)
+     * @param limit cantidad máxima de sugerencias
+     * @return películas ordenadas por popularidad y cantidad de reseñas
+     */
+    public List<MovieTitleSuggestionDto> suggest(String prefix, int limit) {
+        String normalized = TextNormalizer.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Keys snapshot = keys;
+        Map<Long, Candidate> candidates = this.candidates;
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score));
+        Set<Long> seen = new HashSet<>();
+        for (int i = lowerBound(snapshot, normalized); i < snapshot.size()
+                && snapshot.texts()[i].startsWith(normalized, snapshot.offsets()[i]); i++) {
+            Candidate candidate = candidates.get(snapshot.movieIds()[i]);
+            if (candidate == null || !seen.add(snapshot.movieIds()[i])) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(candidate);
+            } else if (candidate.score() > best.peek().score()) {
+                best.poll();
+                best.add(candidate);
+            }
+        }
+        List<Candidate> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        return result.stream().map(Candidate::movie).toList();
+    }
+
+    public int size() {
+        return candidates.size();
+    }
+
+    private synchronized void applyReviewCount(Long movieId, long reviewCount, long sequence) {
+        Long applied = appliedReviewCounts.get(movieId);
+        if (applied != null && applied > sequence) {
+            return;
+        }
+        appliedReviewCounts.put(movieId, sequence);
+        apply(() -> candidates.computeIfPresent(movieId, (id, candidate) -> new Candidate(candidate.movie(),
+                candidate.popularity(), reviewCount)));
+    }
+
+    // Se llama con el monitor tomado; si hay una reconstrucción en curso el cambio se repite sobre el índice nuevo
+    private void apply(Runnable change) {
+        change.run();
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    private static Keys upsertAll(Map<Long, Candidate> candidates, Keys keys, List<MovieDto> movies) {
+        Set<Long> changed = new HashSet<>();
+        List<Key> added = new ArrayList<>();
+        for (MovieDto movie : movies) {
+            if (movie.id() == null) {
+                continue;
+            }
+            changed.add(movie.id());
+            if (!movie.available()) {
+                candidates.remove(movie.id());
+                continue;
+            }
+            Candidate previous = candidates.get(movie.id());
+            long reviewCount = previous != null ? previous.reviewCount()
+                    : movie.reviewCount() == null ? 0 : movie.reviewCount();
+            candidates.put(movie.id(), new Candidate(toSuggestion(movie),
+                    movie.popularity() == null ? 0 : movie.popularity(), reviewCount));
+            for (String text : texts(movie)) {
+                for (int offset : wordStarts(text)) {
+                    added.add(new Key(text, offset, movie.id()));
+                }
+            }
+        }
+        return changed.isEmpty() ? keys : merge(keys, changed, added);
+    }
+
+    // Copia las claves que siguen vigentes y les intercala las nuevas, ya ordenadas
+    private static Keys merge(Keys current, Set<Long> changed, List<Key> added) {
+        added.sort((a, b) -> compareKeys(a.text(), a.offset(), b.text(), b.offset()));
+        int capacity = current.size() + added.size();
+        String[] texts = new String[capacity];
+        int[] offsets = new int[capacity];
+        long[] movieIds = new long[capacity];
+        int size = 0;
+        int next = 0;
+        for (int i = 0; i < current.size(); i++) {
+            if (changed.contains(current.movieIds()[i])) {
+                continue;
+            }
+            while (next < added.size() && compareKeys(added.get(next).text(), added.get(next).offset(),
+                    current.texts()[i], current.offsets()[i]) < 0) {
+                Key key = added.get(next++);
+                texts[size] = key.text();
+                offsets[size] = key.offset();
+                movieIds[size++] = key.movieId();
+            }
+            texts[size] = current.texts()[i];
+            offsets[size] = current.offsets()[i];
+            movieIds[size++] = current.movieIds()[i];
+        }
+        while (next < added.size()) {
+            Key key = added.get(next++);
+            texts[size] = key.text();
+            offsets[size] = key.offset();
+            movieIds[size++] = key.movieId();
+        }
+        return new Keys(Arrays.copyOf(texts, size), Arrays.copyOf(offsets, size), Arrays.copyOf(movieIds, size));
+    }
+
+    // Primera clave mayor o igual al prefijo
+    private static int lowerBound(Keys keys, String prefix) {
+        int low = 0;
+        int high = keys.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareKeys(keys.texts()[mid], keys.offsets()[mid], prefix, 0) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Compara los sufijos a.substring(aOffset) y b.substring(bOffset) sin crearlos
+    private static int compareKeys(String a, int aOffset, String b, int bOffset) {
+        int aLength = a.length() - aOffset;
+        int bLength = b.length() - bOffset;
+        int common = Math.min(aLength, bLength);
+        for (int i = 0; i < common; i++) {
+            int diff = a.charAt(aOffset + i) - b.charAt(bOffset + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return aLength - bLength;
+    }
+
+    private static Set<String> texts(MovieDto movie) {
+        Set<String> texts = new LinkedHashSet<>();
+        texts.add(TextNormalizer.normalize(movie.title()));
+        texts.add(TextNormalizer.normalize(movie.originalTitle()));
+        texts.remove("");
+        return texts;
+    }
+
+    private static List<Integer> wordStarts(String text) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < text.length(); i++) {
+            if (i == 0 || text.charAt(i - 1) == ' ') {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    private static MovieTitleSuggestionDto toSuggestion(MovieDto movie) {
+        return new MovieTitleSuggestionDto(movie.id(), movie.title(), movie.originalTitle(),
+                movie.releaseDate() == null ? null : movie.releaseDate().getYear(), movie.posterUrl());
+    }
+}
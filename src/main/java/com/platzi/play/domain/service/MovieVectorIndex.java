@@ -0,0 +1,238 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MovieMatchDto;
+import com.platzi.play.domain.repository.MovieRepository;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Índice vectorial en memoria del catálogo para las sugerencias con IA.
+ * <p>
+ * Cada película disponible se representa con el embedding de su título, género, año y sinopsis,
+ * calculado por un modelo local (sin llamadas de red). La búsqueda devuelve las k películas más
+ * parecidas a una descripción, de modo que el prompt incluye siempre una cantidad acotada de
+ * películas sin importar el tamaño del catálogo. El índice se construye al arrancar y se
+ * actualiza película a película cuando se crean, modifican o eliminan.
+ */
+@Slf4j
+@Component
+public class MovieVectorIndex {
+
+    private static final int EMBEDDING_BATCH = 64;
+
+    /**
+     * Vector normalizado (la similitud coseno es el producto punto) y datos que se entregan al modelo
+     */
+    private record Entry(float[] vector, MovieMatchDto movie) {
+    }
+
+    private final EmbeddingModel embeddingModel;
+    private final MovieRepository movieRepository;
+    private final int overviewMaxLength;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Long> removedWhileBuilding = ConcurrentHashMap.newKeySet();
+    private final ExecutorService buildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "movie-vector-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean building;
+
+    public MovieVectorIndex(EmbeddingModel embeddingModel,
+                            MovieRepository movieRepository,
+                            @Value("${ai.retrieval.overview-max-length:300}") int overviewMaxLength) {
+        this.embeddingModel = embeddingModel;
+        this.movieRepository = movieRepository;
+        this.overviewMaxLength = overviewMaxLength;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void buildOnStartup() {
+        buildExecutor.execute(this::rebuild);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        buildExecutor.shutdownNow();
+    }
+
+    /**
+     * Indexa el catálogo completo; las películas que se actualizan mientras tanto conservan su versión más reciente
+     */
+    void rebuild() {
+        building = true;
+        long start = System.nanoTime();
+        try {
+            List<MovieDto> movies = movieRepository.getAll();
+            for (int from = 0; from < movies.size(); from += EMBEDDING_BATCH) {
+                List<MovieDto> batch = movies.subList(from, Math.min(from + EMBEDDING_BATCH, movies.size()));
+                List<Entry> batchEntries = embed(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    Long id = batch.get(i).id();
+                    if (batchEntries.get(i) != null && !removedWhileBuilding.contains(id)) {
+                        entries.putIfAbsent(id, batchEntries.get(i));
+                    }
+                }
+            }
+            log.info("Índice vectorial de películas construido: {} películas en {} ms",
+                    entries.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo construir el índice vectorial de películas: {}", e.getMessage());
+        } finally {
+            building = false;
+            removedWhileBuilding.clear();
+        }
+    }
+
+    /**
+     * Agrega o reemplaza una película; las películas no disponibles se quitan del índice
+     */
+    public void upsert(MovieDto movie) {
+        upsertAll(List.of(movie));
+    }
+
+    public void upsertAll(List<MovieDto> movies) {
+        if (movies.isEmpty()) {
+            return;
+        }
+        List<Entry> batchEntries = embed(movies);
+        for (int i = 0; i < movies.size(); i++) {
+            if (batchEntries.get(i) == null) {
+                remove(movies.get(i).id());
+            } else {
+                entries.put(movies.get(i).id(), batchEntries.get(i));
+            }
+        }
+    }
+
+    public void remove(Long movieId) {
+        if (building) {
+            removedWhileBuilding.add(movieId);
+        }
+        entries.remove(movieId);
+    }
+
+    /**
+     * Busca las películas más parecidas a una descripción
+     * @param query descripción libre (gustos, temática, películas similares)
+     * @param limit cantidad máxima de resultados
+     * @return películas ordenadas de mayor a menor similitud
+     */
+    public List<MovieMatchDto> search(String query, int limit) {
+        if (query == null || query.isBlank() || entries.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        float[] queryVector = normalize(embeddingModel.embed(query).content().vector());
+
+        // Recorrido lineal con un heap de tamaño k: el catálogo entra holgado en memoria
+        PriorityQueue<MovieMatchDto> best = new PriorityQueue<>(Comparator.comparingDouble(MovieMatchDto::score));
+        for (Entry entry : entries.values()) {
+            double score = dot(queryVector, entry.vector());
+            if (best.size() < limit) {
+                best.add(withScore(entry.movie(), score));
+            } else if (score > best.peek().score()) {
+                best.poll();
+                best.add(withScore(entry.movie(), score));
+            }
+        }
+        List<MovieMatchDto> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(MovieMatchDto::score).reversed());
+        return result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Un embedding por película disponible; null para las que no deben estar en el índice
+    private List<Entry> embed(List<MovieDto> movies) {
+        List<MovieDto> indexable = movies.stream().filter(this::isIndexable).toList();
+        List<float[]> vectors = indexable.isEmpty()
+                ? List.of()
+                : embeddingModel.embedAll(indexable.stream().map(movie -> TextSegment.from(document(movie))).toList())
+                        .content().stream()
+                        .map(embedding -> normalize(embedding.vector()))
+                        .toList();
+        List<Entry> result = new ArrayList<>(movies.size());
+        int next = 0;
+        for (MovieDto movie : movies) {
+            result.add(isIndexable(movie) ? new Entry(vectors.get(next++), toMatch(movie)) : null);
+        }
+        return result;
+    }
+
+    private boolean isIndexable(MovieDto movie) {
+        return movie.id() != null && !Boolean.FALSE.equals(movie.available());
+    }
+
+    private String document(MovieDto movie) {
+        StringBuilder text = new StringBuilder(movie.title());
+        if (movie.originalTitle() != null && !movie.originalTitle().equals(movie.title())) {
+            text.append(" (").append(movie.originalTitle()).append(')');
+        }
+        if (movie.genre() != null) {
+            text.append(". Género: ").append(movie.genre());
+        }
+        if (movie.releaseDate() != null) {
+            text.append(". Año: ").append(movie.releaseDate().getYear());
+        }
+        if (movie.overview() != null && !movie.overview().isBlank()) {
+            text.append(". ").append(movie.overview());
+        }
+        return text.toString();
+    }
+
+    private MovieMatchDto toMatch(MovieDto movie) {
+        String overview = movie.overview();
+        if (overview != null && overview.length() > overviewMaxLength) {
+            overview = overview.substring(0, overviewMaxLength) + "...";
+        }
+        return new MovieMatchDto(movie.id(), movie.title(), movie.genre(),
+                movie.releaseDate() == null ? null : movie.releaseDate().getYear(), overview, 0);
+    }
+
+    private static MovieMatchDto withScore(MovieMatchDto movie, double score) {
+        return new MovieMatchDto(movie.id(), movie.title(), movie.genre(), movie.releaseYear(), movie.overview(), score);
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+        float[] normalized = new float[vector.length];
+        if (norm == 0) {
+            return normalized;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = (float) (vector[i] / norm);
+        }
+        return normalized;
+    }
+
+    static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
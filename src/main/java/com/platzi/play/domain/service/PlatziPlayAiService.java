@@ -1,6 +1,7 @@
 package com.platzi.play.domain.service;
 
 import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.TokenStream;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.spring.AiService;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,6 +9,13 @@ import org.springframework.beans.factory.annotation.Value;
 @AiService
 public interface PlatziPlayAiService {
 
+    String MOVIE_SUGGESTION_SYSTEM_MESSAGE = """
+            Eres un experto en cine que recomeinda peliculas según los gustos del usuario.
+            Debes recomendar máximo 3 peliculas.
+            No incluyas películas que estén por fuera de la plataforma Play app 
+            que es la plataforma actual donde estamos.
+            """;
+
     @UserMessage("""
             Genera un saludo de bienvenida en español para una aplicación de
             gestor de peliculas {{plataform}}
@@ -16,11 +24,13 @@ public interface PlatziPlayAiService {
             """)
     String generateGreeting(String plataform );
 
-    @SystemMessage("""
-            Eres un experto en cine que recomeinda peliculas según los gustos del usuario.
-            Debes recomendar máximo 3 peliculas.
-            No incluyas películas que estén por fuera de la plataforma Play app 
-            que es la plataforma actual donde estamos.
-            """)
+    @SystemMessage(MOVIE_SUGGESTION_SYSTEM_MESSAGE)
     String generateMovieSuggestion(@UserMessage String userMessage);
+
+    /**
+     * Igual que {@link #generateMovieSuggestion(String)}, pero entrega la respuesta
+     * fragmento a fragmento a medida que el modelo la genera
+     */
+    @SystemMessage(MOVIE_SUGGESTION_SYSTEM_MESSAGE)
+    TokenStream streamMovieSuggestion(@UserMessage String userMessage);
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.platzi.play.domain.service;
 
+import com.platzi.play.domain.ReviewSort;
 import com.platzi.play.domain.dto.CreateReviewDto;
+import com.platzi.play.domain.dto.CursorPageDto;
+import com.platzi.play.domain.dto.MovieRatingStatsDto;
 import com.platzi.play.domain.dto.ReviewDto;
 import com.platzi.play.domain.dto.UpdateReviewDto;
 import com.platzi.play.domain.repository.ReviewRepository;
@@ -13,52 +16,104 @@ import java.util.List;
 public class ReviewService {
 
     private final ReviewRepository reviewRepository;
+    private final MovieTitleIndex movieTitleIndex;
+    private final CatalogVersions catalogVersions;
 
-    public ReviewService(ReviewRepository reviewRepository) {
+    public ReviewService(ReviewRepository reviewRepository, MovieTitleIndex movieTitleIndex,
+                         CatalogVersions catalogVersions) {
         this.reviewRepository = reviewRepository;
+        this.movieTitleIndex = movieTitleIndex;
+        this.catalogVersions = catalogVersions;
     }
 
     @Transactional
     public ReviewDto createReview(CreateReviewDto createReviewDto, Long userId) {
-        return reviewRepository.save(createReviewDto, userId);
+        ReviewDto review = reviewRepository.save(createReviewDto, userId);
+        movieTitleIndex.updateReviewCount(review.movieId(), reviewRepository.countByMovieId(review.movieId()));
+        catalogVersions.changed();
+        return review;
     }
 
     @Transactional
     public ReviewDto updateReview(Long reviewId, UpdateReviewDto updateReviewDto, Long userId) {
-        return reviewRepository.update(reviewId, updateReviewDto, userId);
+        ReviewDto review = reviewRepository.update(reviewId, updateReviewDto, userId);
+        catalogVersions.changed();
+        return review;
     }
 
     @Transactional
     public void deleteReview(Long reviewId, Long userId) {
+        // La review queda en el contexto de persistencia: delete no vuelve a consultarla
+        Long movieId = reviewRepository.getById(reviewId).movieId();
         reviewRepository.delete(reviewId, userId);
+        movieTitleIndex.updateReviewCount(movieId, reviewRepository.countByMovieId(movieId));
+        catalogVersions.changed();
     }
 
+    @Transactional(readOnly = true)
     public ReviewDto getReviewById(Long reviewId) {
         return reviewRepository.getById(reviewId);
     }
 
+    @Transactional(readOnly = true)
     public List<ReviewDto> getReviewsByMovieId(Long movieId) {
         return reviewRepository.getByMovieId(movieId);
     }
 
+    @Transactional(readOnly = true)
     public List<ReviewDto> getReviewsByUserId(Long userId) {
         return reviewRepository.getByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<ReviewDto> getReviewPageByMovieId(Long movieId, ReviewSort sort, String cursor, Integer size) {
+        return reviewRepository.getPageByMovieId(movieId, sortOrDefault(sort), cursor, pageSize(size));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<ReviewDto> getReviewPageByUserId(Long userId, ReviewSort sort, String cursor, Integer size) {
+        return reviewRepository.getPageByUserId(userId, sortOrDefault(sort), cursor, pageSize(size));
+    }
+
+    @Transactional(readOnly = true)
     public ReviewDto getUserReviewForMovie(Long userId, Long movieId) {
         return reviewRepository.getByUserIdAndMovieId(userId, movieId);
     }
 
+    @Transactional(readOnly = true)
     public boolean hasUserReviewedMovie(Long userId, Long movieId) {
         return reviewRepository.existsByUserIdAndMovieId(userId, movieId);
     }
 
+    @Transactional(readOnly = true)
     public Double getMovieAverageRating(Long movieId) {
         return reviewRepository.getAverageRatingByMovieId(movieId);
     }
 
+    @Transactional(readOnly = true)
     public long getMovieReviewCount(Long movieId) {
         return reviewRepository.countByMovieId(movieId);
     }
+
+    @Transactional(readOnly = true)
+    public MovieRatingStatsDto getMovieRatingStats(Long movieId) {
+        return reviewRepository.getRatingStatsByMovieId(movieId);
+    }
+
+    // Sin transacción propia: el índice de títulos se reconstruye después del commit de las estadísticas
+    public int rebuildRatingStats() {
+        int rebuilt = reviewRepository.rebuildRatingStats();
+        movieTitleIndex.rebuild();
+        catalogVersions.changed();
+        return rebuilt;
+    }
+
+    private static ReviewSort sortOrDefault(ReviewSort sort) {
+        return sort == null ? ReviewSort.NEWEST : sort;
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? MovieService.DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MovieService.MAX_PAGE_SIZE));
+    }
 }
 
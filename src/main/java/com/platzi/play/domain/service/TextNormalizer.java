@@ -0,0 +1,25 @@
+package com.platzi.play.domain.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalización de texto para comparar búsquedas: minúsculas, sin tildes y con los signos
+ * de puntuación reemplazados por un espacio simple
+ */
+final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+}
@@ -0,0 +1,338 @@
+package com.platzi.play.domain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.platzi.play.domain.TmdbImportSource;
+import com.platzi.play.domain.dto.BulkImportFailureDto;
+import com.platzi.play.domain.dto.BulkImportRequestDto;
+import com.platzi.play.domain.dto.BulkImportStatusDto;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.TmdbMovieDetailsDto;
+import com.platzi.play.domain.dto.TmdbMovieDto;
+import com.platzi.play.domain.dto.TmdbSearchResponseDto;
+import com.platzi.play.domain.exception.BulkImportNotFoundException;
+import com.platzi.play.domain.exception.InvalidBulkImportException;
+import com.platzi.play.domain.repository.MovieRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importación masiva de películas desde TMDB.
+ * <p>
+ * Cada importación corre en segundo plano: descarta en una sola consulta los tmdbIds que ya
+ * están en el catálogo, descarga los detalles del resto en paralelo sin superar el límite de
+ * peticiones por segundo a TMDB y guarda las películas en lotes JDBC. El progreso y los fallos
+ * por película se consultan con {@link #getStatus(String)}.
+ */
+@Slf4j
+@Service
+public class TmdbBulkImportService {
+
+    private final MovieRepository movieRepository;
+    private final MovieService movieService;
+    private final TmdbService tmdbService;
+    private final int batchSize;
+    private final int maxItems;
+    private final int maxPages;
+    private final RateLimiter rateLimiter;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService fetchExecutor;
+    private final Cache<String, ImportJob> jobs = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(6))
+            .build();
+
+    public TmdbBulkImportService(MovieRepository movieRepository,
+                                 MovieService movieService,
+                                 TmdbService tmdbService,
+                                 @Value("${tmdb.import.concurrency:8}") int concurrency,
+                                 @Value("${tmdb.import.requests-per-second:40}") int requestsPerSecond,
+                                 @Value("${tmdb.import.batch-size:100}") int batchSize,
+                                 @Value("${tmdb.import.max-items:5000}") int maxItems,
+                                 @Value("${tmdb.import.max-pages:50}") int maxPages,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.movieRepository = movieRepository;
+        this.movieService = movieService;
+        this.tmdbService = tmdbService;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+        this.maxPages = maxPages;
+        this.rateLimiter = new RateLimiter(requestsPerSecond);
+        this.jobExecutor = Executors.newSingleThreadExecutor(daemonThreads("tmdb-import", virtualThreads));
+        this.fetchExecutor = Executors.newFixedThreadPool(concurrency, daemonThreads("tmdb-import-fetch", virtualThreads));
+    }
+
+    /**
+     * Valida la solicitud y encola la importación
+     * @param request IDs de TMDB o listado de TMDB con cantidad de páginas
+     * @return estado inicial de la importación
+     */
+    public BulkImportStatusDto start(BulkImportRequestDto request) {
+        validate(request);
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        jobExecutor.execute(() -> run(job, request));
+        return job.toDto();
+    }
+
+    /**
+     * Obtiene el progreso de una importación
+     * @param jobId identificador devuelto al iniciarla
+     * @return contadores y fallos registrados hasta el momento
+     */
+    public BulkImportStatusDto getStatus(String jobId) {
+        ImportJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new BulkImportNotFoundException(jobId);
+        }
+        return job.toDto();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    private void validate(BulkImportRequestDto request) {
+        boolean hasIds = request.tmdbIds() != null && !request.tmdbIds().isEmpty();
+        if (hasIds == (request.source() != null)) {
+            throw new InvalidBulkImportException("Debe indicar una lista de tmdbIds o un listado de TMDB (source), pero no ambos");
+        }
+        if (hasIds && request.tmdbIds().size() > maxItems) {
+            throw new InvalidBulkImportException("No se pueden importar más de " + maxItems + " películas por solicitud");
+        }
+        if (request.pages() != null && (request.pages() < 1 || request.pages() > maxPages)) {
+            throw new InvalidBulkImportException("La cantidad de páginas debe estar entre 1 y " + maxPages);
+        }
+    }
+
+    private void run(ImportJob job, BulkImportRequestDto request) {
+        try {
+            List<Long> tmdbIds = resolveTmdbIds(request);
+            job.total.set(tmdbIds.size());
+
+            Set<Long> existing = movieRepository.findExistingTmdbIds(tmdbIds);
+            job.skipped.addAndGet(existing.size());
+
+            List<Long> pending = tmdbIds.stream().filter(id -> !existing.contains(id)).toList();
+            fetchAndPersist(job, pending);
+            job.finish(BulkImportStatusDto.State.COMPLETED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(BulkImportStatusDto.State.FAILED);
+        } catch (RuntimeException e) {
+            log.warn("La importación masiva {} terminó con error: {}", job.id, e.getMessage());
+            job.fail(null, e.getMessage());
+            job.finish(BulkImportStatusDto.State.FAILED);
+        }
+    }
+
+    // Los IDs se deduplican conservando el orden en que llegaron
+    private List<Long> resolveTmdbIds(BulkImportRequestDto request) throws InterruptedException {
+        Set<Long> tmdbIds = new LinkedHashSet<>();
+        if (request.tmdbIds() != null && !request.tmdbIds().isEmpty()) {
+            request.tmdbIds().stream().filter(id -> id != null && id > 0).forEach(tmdbIds::add);
+            return new ArrayList<>(tmdbIds);
+        }
+
+        int pages = request.pages() == null ? 1 : request.pages();
+        for (int page = 1; page <= pages && tmdbIds.size() < maxItems; page++) {
+            rateLimiter.acquire();
+            TmdbSearchResponseDto response = fetchList(request.source(), page);
+            if (response == null || response.getResults() == null || response.getResults().isEmpty()) {
+                break;
+            }
+            response.getResults().stream().map(TmdbMovieDto::getId).forEach(tmdbIds::add);
+            if (response.getTotalPages() != null && page >= response.getTotalPages()) {
+                break;
+            }
+        }
+        return tmdbIds.stream().limit(maxItems).toList();
+    }
+
+    private TmdbSearchResponseDto fetchList(TmdbImportSource source, int page) {
+        return switch (source) {
+            case POPULAR -> tmdbService.getPopularMovies(page);
+            case TOP_RATED -> tmdbService.getTopRatedMovies(page);
+            case NOW_PLAYING -> tmdbService.getNowPlayingMovies(page);
+            case UPCOMING -> tmdbService.getUpcomingMovies(page);
+        };
+    }
+
+    // Las descargas corren en paralelo; este hilo las recoge en orden de llegada y guarda por lotes
+    private void fetchAndPersist(ImportJob job, List<Long> tmdbIds) throws InterruptedException {
+        CompletionService<MovieDto> completion = new ExecutorCompletionService<>(fetchExecutor);
+        for (Long tmdbId : tmdbIds) {
+            completion.submit(() -> fetchMovie(job, tmdbId));
+        }
+
+        List<MovieDto> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < tmdbIds.size(); i++) {
+            MovieDto movie = take(completion);
+            if (movie != null) {
+                batch.add(movie);
+            }
+            if (batch.size() >= batchSize) {
+                persist(job, batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            persist(job, batch);
+        }
+    }
+
+    private MovieDto fetchMovie(ImportJob job, Long tmdbId) throws InterruptedException {
+        rateLimiter.acquire();
+        try {
+            TmdbMovieDetailsDto details = tmdbService.getMovieDetailsUncached(tmdbId);
+            if (details == null) {
+                job.fail(tmdbId, "TMDB no devolvió detalles para la película");
+                return null;
+            }
+            return TmdbMovieMapper.toMovieDto(details);
+        } catch (HttpClientErrorException.NotFound e) {
+            job.fail(tmdbId, "La película no existe en TMDB");
+        } catch (RuntimeException e) {
+            job.fail(tmdbId, "Error al consultar TMDB: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private static MovieDto take(CompletionService<MovieDto> completion) throws InterruptedException {
+        try {
+            return completion.take().get();
+        } catch (ExecutionException e) {
+            // fetchMovie registra sus propios fallos; solo llega aquí si fue interrumpido
+            return null;
+        }
+    }
+
+    private void persist(ImportJob job, List<MovieDto> batch) {
+        try {
+            job.recordBatch(batch, movieService.saveAll(batch));
+        } catch (DataIntegrityViolationException e) {
+            // Otra importación guardó alguna de estas películas mientras tanto: se reintenta una a una
+            for (MovieDto movie : batch) {
+                try {
+                    job.recordBatch(List.of(movie), movieService.saveAll(List.of(movie)));
+                } catch (DataIntegrityViolationException ex) {
+                    job.fail(movie.tmdbId(), "No se pudo guardar la película: " + ex.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    // En modo de hilos virtuales la espera de TMDB y del rate limiter no ocupa hilos de plataforma
+    private static ThreadFactory daemonThreads(String name, boolean virtual) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Estado mutable de una importación; los contadores se actualizan desde varios hilos
+     */
+    private static final class ImportJob {
+        private final String id;
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final List<BulkImportFailureDto> failures = new ArrayList<>();
+        private volatile BulkImportStatusDto.State state = BulkImportStatusDto.State.RUNNING;
+        private volatile Instant finishedAt;
+
+        private ImportJob(String id) {
+            this.id = id;
+        }
+
+        private void recordBatch(List<MovieDto> batch, List<MovieDto> saved) {
+            imported.addAndGet(saved.size());
+            Set<Long> savedIds = new LinkedHashSet<>();
+            saved.forEach(movie -> savedIds.add(movie.tmdbId()));
+            for (MovieDto movie : batch) {
+                if (!savedIds.contains(movie.tmdbId())) {
+                    fail(movie.tmdbId(), "Ya existe una película con el título '" + movie.title() + "'");
+                }
+            }
+        }
+
+        private synchronized void fail(Long tmdbId, String reason) {
+            failures.add(new BulkImportFailureDto(tmdbId, reason));
+        }
+
+        private void finish(BulkImportStatusDto.State finalState) {
+            finishedAt = Instant.now();
+            state = finalState;
+        }
+
+        private synchronized BulkImportStatusDto toDto() {
+            int failed = (int) failures.stream().filter(failure -> failure.tmdbId() != null).count();
+            return new BulkImportStatusDto(
+                    id,
+                    state,
+                    total.get(),
+                    imported.get() + skipped.get() + failed,
+                    imported.get(),
+                    skipped.get(),
+                    failed,
+                    List.copyOf(failures),
+                    startedAt,
+                    finishedAt
+            );
+        }
+    }
+
+    /**
+     * Limitador de peticiones por segundo: reparte los turnos a intervalos fijos
+     */
+    private static final class RateLimiter {
+        private final long intervalNanos;
+        private long nextSlot = System.nanoTime();
+
+        private RateLimiter(int permitsPerSecond) {
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, permitsPerSecond);
+        }
+
+        private void acquire() throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(now, nextSlot);
+                nextSlot = slot + intervalNanos;
+                waitNanos = slot - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.platzi.play.domain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.platzi.play.domain.dto.TmdbCacheStatsDto;
+import com.platzi.play.domain.dto.TmdbMovieDetailsDto;
+import com.platzi.play.domain.dto.TmdbMovieDto;
+import com.platzi.play.domain.dto.TmdbSearchResponseDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caché de respuestas de TMDB con TTL por tipo de endpoint.
+ * <p>
+ * Una entrada se considera fresca durante el TTL de su endpoint; después se sigue sirviendo
+ * (stale-while-revalidate) mientras un único refresco en segundo plano la reemplaza, hasta
+ * que vence la ventana de gracia. Las peticiones concurrentes sin entrada comparten una sola
+ * llamada a TMDB. El tamaño total está acotado por una estimación en bytes de cada respuesta.
+ */
+@Slf4j
+@Component
+public class TmdbCache {
+
+    public enum Endpoint {
+        SEARCH, DETAILS, POPULAR, TOP_RATED, NOW_PLAYING, UPCOMING
+    }
+
+    /**
+     * Clave de caché: endpoint, consulta (texto buscado o ID de TMDB), página, idioma y región
+     */
+    public record Key(Endpoint endpoint, String query, Integer page, String language, String region) {
+    }
+
+    private record Entry(Object value, long fetchedAtNanos) {
+    }
+
+    private final Map<Endpoint, Duration> ttls = new EnumMap<>(Endpoint.class);
+    private final Duration staleWindow;
+    private final Cache<Key, Entry> cache;
+    private final Map<Key, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor;
+
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    public TmdbCache(@Value("${tmdb.cache.ttl.search:10m}") Duration searchTtl,
+                     @Value("${tmdb.cache.ttl.details:24h}") Duration detailsTtl,
+                     @Value("${tmdb.cache.ttl.popular:30m}") Duration popularTtl,
+                     @Value("${tmdb.cache.ttl.top-rated:6h}") Duration topRatedTtl,
+                     @Value("${tmdb.cache.ttl.now-playing:1h}") Duration nowPlayingTtl,
+                     @Value("${tmdb.cache.ttl.upcoming:6h}") Duration upcomingTtl,
+                     @Value("${tmdb.cache.stale-window:1h}") Duration staleWindow,
+                     @Value("${tmdb.cache.max-size:50MB}") DataSize maxSize) {
+        ttls.put(Endpoint.SEARCH, searchTtl);
+        ttls.put(Endpoint.DETAILS, detailsTtl);
+        ttls.put(Endpoint.POPULAR, popularTtl);
+        ttls.put(Endpoint.TOP_RATED, topRatedTtl);
+        ttls.put(Endpoint.NOW_PLAYING, nowPlayingTtl);
+        ttls.put(Endpoint.UPCOMING, upcomingTtl);
+        this.staleWindow = staleWindow;
+        this.refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "tmdb-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Entry entry) -> estimateSize(entry.value()))
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return ttls.get(key.endpoint()).plus(staleWindow).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene la respuesta cacheada o la carga desde TMDB
+     * @param key clave de la petición
+     * @param loader función que consulta TMDB
+     * @return respuesta (posiblemente vencida si se está refrescando)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Function<Key, T> loader) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            entry = load(key, loader);
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (isStale(key, entry)) {
+            staleHits.increment();
+            refreshInBackground(key, loader);
+        }
+        return (T) entry.value();
+    }
+
+    /**
+     * Tiempo que le queda a la entrada de una clave antes de vencer (cero si está vencida o no existe);
+     * no cuenta como acierto ni como fallo en las estadísticas
+     */
+    public Duration remainingFreshness(Key key) {
+        Entry entry = cache.policy().getIfPresentQuietly(key);
+        if (entry == null) {
+            return Duration.ZERO;
+        }
+        long remaining = ttls.get(key.endpoint()).toNanos() - (System.nanoTime() - entry.fetchedAtNanos());
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    public TmdbCacheStatsDto stats() {
+        // Caffeine actualiza el peso total de forma diferida; se aplican las escrituras pendientes
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        long estimatedBytes = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        return new TmdbCacheStatsDto(
+                stats.hitCount(),
+                stats.missCount(),
+                staleHits.sum(),
+                stats.evictionCount(),
+                refreshes.sum(),
+                refreshFailures.sum(),
+                cache.estimatedSize(),
+                estimatedBytes
+        );
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    // La llamada a TMDB se hace fuera del cómputo atómico de Caffeine, que corre dentro de un bloque
+    // synchronized del mapa: con hilos virtuales, esperar I/O ahí fija el hilo a su carrier
+    private <T> Entry load(Key key, Function<Key, T> loader) {
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> pending = loading.putIfAbsent(key, created);
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            // Otra petición pudo terminar la carga entre la consulta a la caché y el registro
+            Entry entry = cache.policy().getIfPresentQuietly(key);
+            if (entry == null) {
+                T value = loader.apply(key);
+                entry = value == null ? null : new Entry(value, System.nanoTime());
+                if (entry != null) {
+                    cache.put(key, entry);
+                }
+            }
+            created.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, created);
+        }
+    }
+
+    private boolean isStale(Key key, Entry entry) {
+        return System.nanoTime() - entry.fetchedAtNanos() > ttls.get(key.endpoint()).toNanos();
+    }
+
+    // Solo un refresco por clave; el resto de peticiones siguen recibiendo la entrada vencida
+    private <T> void refreshInBackground(Key key, Function<Key, T> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                T value = loader.apply(key);
+                if (value != null) {
+                    cache.put(key, new Entry(value, System.nanoTime()));
+                }
+                refreshes.increment();
+            } catch (RuntimeException e) {
+                refreshFailures.increment();
+                log.warn("No se pudo refrescar la respuesta de TMDB para {}: {}", key, e.getMessage());
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+
+    // Estimación aproximada del tamaño en memoria de una respuesta (strings UTF-16 + cabeceras de objeto)
+    private static int estimateSize(Object value) {
+        if (value instanceof TmdbSearchResponseDto response) {
+            int size = 128;
+            if (response.getResults() != null) {
+                for (TmdbMovieDto movie : response.getResults()) {
+                    size += 256 + 2 * (length(movie.getTitle()) + length(movie.getOriginalTitle())
+                            + length(movie.getOverview()) + length(movie.getPosterUrl()) + length(movie.getBackdropUrl()));
+                }
+            }
+            return size;
+        }
+        if (value instanceof TmdbMovieDetailsDto details) {
+            return 1024 + 2 * (length(details.getTitle()) + length(details.getOriginalTitle())
+                    + length(details.getOverview()) + length(details.getTagline()) + length(details.getHomepage()));
+        }
+        return 1024;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,76 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.TmdbMovieDetailsDto;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Conversión de los detalles de una película de TMDB a una película del catálogo (sin id ni reseñas)
+ */
+final class TmdbMovieMapper {
+
+    private TmdbMovieMapper() {
+    }
+
+    static MovieDto toMovieDto(TmdbMovieDetailsDto tmdbDetails) {
+        Genre genre = Genre.OTHER;
+        if (tmdbDetails.getGenres() != null && !tmdbDetails.getGenres().isEmpty()) {
+            genre = toGenre(tmdbDetails.getGenres().get(0).getName());
+        }
+
+        LocalDate releaseDate = null;
+        if (tmdbDetails.getReleaseDate() != null && !tmdbDetails.getReleaseDate().isEmpty()) {
+            try {
+                releaseDate = LocalDate.parse(tmdbDetails.getReleaseDate(), DateTimeFormatter.ISO_DATE);
+            } catch (Exception e) {
+            }
+        }
+
+        Double rating = tmdbDetails.getVoteAverage();
+
+        return new MovieDto(
+                null,
+                tmdbDetails.getTitle(),
+                tmdbDetails.getRuntime() != null ? tmdbDetails.getRuntime() : 0,
+                genre,
+                releaseDate,
+                rating,
+                true,
+                null,
+                0L,
+                tmdbDetails.getId(),
+                tmdbDetails.getPosterUrl(),
+                tmdbDetails.getBackdropUrl(),
+                tmdbDetails.getOverview(),
+                tmdbDetails.getOriginalTitle(),
+                tmdbDetails.getVoteAverage(),
+                tmdbDetails.getVoteCount(),
+                tmdbDetails.getPopularity(),
+                null
+        );
+    }
+
+    private static Genre toGenre(String tmdbGenre) {
+        if (tmdbGenre == null) return Genre.OTHER;
+
+        return switch (tmdbGenre.toLowerCase()) {
+            case "acción" -> Genre.ACTION;
+            case "comedia" -> Genre.COMEDY;
+            case "drama" -> Genre.DRAMA;
+            case "terror" -> Genre.HORROR;
+            case "ciencia ficción" -> Genre.SCI_FI;
+            case "suspense" -> Genre.THRILLER;
+            case "romance" -> Genre.ROMANCE;
+            case "animación" -> Genre.ANIMATED;
+            case "aventura" -> Genre.ADVENTURE;
+            case "fantasía" -> Genre.FANTASY;
+            case "misterio" -> Genre.MYSTERY;
+            case "crimen" -> Genre.CRIME;
+            case "documental" -> Genre.DOCUMENTARY;
+            default -> Genre.OTHER;
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.platzi.play.domain.service;
 
+import com.platzi.play.domain.dto.TmdbCacheStatsDto;
 import com.platzi.play.domain.dto.TmdbMovieDetailsDto;
 import com.platzi.play.domain.dto.TmdbMovieDto;
 import com.platzi.play.domain.dto.TmdbSearchResponseDto;
@@ -8,7 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.util.List;
+import java.time.Duration;
 
 /**
  * Servicio para consumir la API de The Movie Database (TMDB)
@@ -16,7 +17,11 @@ import java.util.List;
 @Service
 public class TmdbService {
     
+    private static final String LANGUAGE = "es-MX";
+    private static final String REGION = "MX";
+    
     private final RestTemplate restTemplate;
+    private final TmdbCache tmdbCache;
     
     @Value("${tmdb.api.key}")
     private String apiKey;
@@ -27,8 +32,9 @@ public class TmdbService {
     @Value("${tmdb.api.image-base-url}")
     private String imageBaseUrl;
     
-    public TmdbService() {
-        this.restTemplate = new RestTemplate();
+    public TmdbService(RestTemplate tmdbRestTemplate, TmdbCache tmdbCache) {
+        this.restTemplate = tmdbRestTemplate;
+        this.tmdbCache = tmdbCache;
     }
     
     /**
@@ -39,24 +45,7 @@ public class TmdbService {
      * @return Lista de películas encontradas
      */
     public TmdbSearchResponseDto searchMovies(String query, Integer page) {
-        if (page == null || page < 1) {
-            page = 1;
-        }
-        
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/search/movie")
-                .queryParam("api_key", apiKey)
-                .queryParam("query", query)
-                .queryParam("page", page)
-                .queryParam("language", "es-MX")
-                .toUriString();
-        
-        TmdbSearchResponseDto response = restTemplate.getForObject(url, TmdbSearchResponseDto.class);
-        
-        if (response != null && response.getResults() != null) {
-            response.getResults().forEach(this::setImageUrls);
-        }
-        
-        return response;
+        return getList(TmdbCache.Endpoint.SEARCH, query, page);
     }
     
     /**
@@ -66,18 +55,19 @@ public class TmdbService {
      * @return Detalles completos de la película
      */
     public TmdbMovieDetailsDto getMovieDetails(Long tmdbId) {
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/" + tmdbId)
-                .queryParam("api_key", apiKey)
-                .queryParam("language", "es-MX")
-                .toUriString();
-        
-        TmdbMovieDetailsDto details = restTemplate.getForObject(url, TmdbMovieDetailsDto.class);
-        
-        if (details != null) {
-            setDetailImageUrls(details);
-        }
-        
-        return details;
+        return tmdbCache.get(key(TmdbCache.Endpoint.DETAILS, String.valueOf(tmdbId), null), this::fetchMovieDetails);
+    }
+    
+    /**
+     * Obtiene los detalles de una película directamente de TMDB, sin leer ni guardar en la caché.
+     * Para importaciones masivas: miles de detalles que nadie volverá a pedir expulsarían de la
+     * caché (acotada por tamaño) las respuestas que sirven a los usuarios
+     * 
+     * @param tmdbId ID de la película en TMDB
+     * @return Detalles completos de la película
+     */
+    public TmdbMovieDetailsDto getMovieDetailsUncached(Long tmdbId) {
+        return fetchMovieDetails(key(TmdbCache.Endpoint.DETAILS, String.valueOf(tmdbId), null));
     }
     
     /**
@@ -87,23 +77,7 @@ public class TmdbService {
      * @return Lista de películas populares
      */
     public TmdbSearchResponseDto getPopularMovies(Integer page) {
-        if (page == null || page < 1) {
-            page = 1;
-        }
-        
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/popular")
-                .queryParam("api_key", apiKey)
-                .queryParam("page", page)
-                .queryParam("language", "es-MX")
-                .toUriString();
-        
-        TmdbSearchResponseDto response = restTemplate.getForObject(url, TmdbSearchResponseDto.class);
-        
-        if (response != null && response.getResults() != null) {
-            response.getResults().forEach(this::setImageUrls);
-        }
-        
-        return response;
+        return getList(TmdbCache.Endpoint.POPULAR, null, page);
     }
     
     /**
@@ -113,23 +87,7 @@ public class TmdbService {
      * @return Lista de películas mejor calificadas
      */
     public TmdbSearchResponseDto getTopRatedMovies(Integer page) {
-        if (page == null || page < 1) {
-            page = 1;
-        }
-        
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/top_rated")
-                .queryParam("api_key", apiKey)
-                .queryParam("page", page)
-                .queryParam("language", "es-MX")
-                .toUriString();
-        
-        TmdbSearchResponseDto response = restTemplate.getForObject(url, TmdbSearchResponseDto.class);
-        
-        if (response != null && response.getResults() != null) {
-            response.getResults().forEach(this::setImageUrls);
-        }
-        
-        return response;
+        return getList(TmdbCache.Endpoint.TOP_RATED, null, page);
     }
     
     /**
@@ -139,18 +97,71 @@ public class TmdbService {
      * @return Lista de películas en cines
      */
     public TmdbSearchResponseDto getNowPlayingMovies(Integer page) {
+        return getList(TmdbCache.Endpoint.NOW_PLAYING, null, page);
+    }
+    
+    /**
+     * Obtiene películas por próximas a estrenarse
+     * 
+     * @param page Número de página
+     * @return Lista de películas próximas
+     */
+    public TmdbSearchResponseDto getUpcomingMovies(Integer page) {
+        return getList(TmdbCache.Endpoint.UPCOMING, null, page);
+    }
+    
+    /**
+     * Obtiene los contadores de la caché de respuestas de TMDB
+     * 
+     * @return Aciertos, fallos, expulsiones y refrescos de la caché
+     */
+    public TmdbCacheStatsDto getCacheStats() {
+        return tmdbCache.stats();
+    }
+    
+    /**
+     * Tiempo que la última respuesta entregada para una petición seguirá fresca en la caché
+     * 
+     * @param endpoint Endpoint consultado
+     * @param query Texto buscado o ID de TMDB (null en las listas)
+     * @param page Número de página (null en los detalles)
+     * @return Frescura restante, o cero si la respuesta ya está vencida
+     */
+    public Duration getRemainingFreshness(TmdbCache.Endpoint endpoint, String query, Integer page) {
+        return tmdbCache.remainingFreshness(key(endpoint, query, page));
+    }
+    
+    private TmdbSearchResponseDto getList(TmdbCache.Endpoint endpoint, String query, Integer page) {
+        return tmdbCache.get(key(endpoint, query, page), this::fetchList);
+    }
+    
+    private TmdbCache.Key key(TmdbCache.Endpoint endpoint, String query, Integer page) {
+        if (endpoint == TmdbCache.Endpoint.DETAILS) {
+            return new TmdbCache.Key(endpoint, query, null, LANGUAGE, null);
+        }
         if (page == null || page < 1) {
             page = 1;
         }
+        String region = endpoint == TmdbCache.Endpoint.NOW_PLAYING || endpoint == TmdbCache.Endpoint.UPCOMING ? REGION : null;
+        return new TmdbCache.Key(endpoint, query, page, LANGUAGE, region);
+    }
+    
+    /**
+     * Consulta en TMDB un listado de películas (búsqueda o listas predefinidas)
+     */
+    private TmdbSearchResponseDto fetchList(TmdbCache.Key key) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl + listPath(key.endpoint()))
+                .queryParam("api_key", apiKey);
+        if (key.query() != null) {
+            builder.queryParam("query", key.query());
+        }
+        builder.queryParam("page", key.page())
+                .queryParam("language", key.language());
+        if (key.region() != null) {
+            builder.queryParam("region", key.region());
+        }
         
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/now_playing")
-                .queryParam("api_key", apiKey)
-                .queryParam("page", page)
-                .queryParam("language", "es-MX")
-                .queryParam("region", "MX")
-                .toUriString();
-        
-        TmdbSearchResponseDto response = restTemplate.getForObject(url, TmdbSearchResponseDto.class);
+        TmdbSearchResponseDto response = restTemplate.getForObject(builder.toUriString(), TmdbSearchResponseDto.class);
         
         if (response != null && response.getResults() != null) {
             response.getResults().forEach(this::setImageUrls);
@@ -160,30 +171,32 @@ public class TmdbService {
     }
     
     /**
-     * Obtiene películas por próximas a estrenarse
-     * 
-     * @param page Número de página
-     * @return Lista de películas próximas
+     * Consulta en TMDB los detalles de una película
      */
-    public TmdbSearchResponseDto getUpcomingMovies(Integer page) {
-        if (page == null || page < 1) {
-            page = 1;
-        }
-        
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/upcoming")
+    private TmdbMovieDetailsDto fetchMovieDetails(TmdbCache.Key key) {
+        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/" + key.query())
                 .queryParam("api_key", apiKey)
-                .queryParam("page", page)
-                .queryParam("language", "es-MX")
-                .queryParam("region", "MX")
+                .queryParam("language", key.language())
                 .toUriString();
         
-        TmdbSearchResponseDto response = restTemplate.getForObject(url, TmdbSearchResponseDto.class);
+        TmdbMovieDetailsDto details = restTemplate.getForObject(url, TmdbMovieDetailsDto.class);
         
-        if (response != null && response.getResults() != null) {
-            response.getResults().forEach(this::setImageUrls);
+        if (details != null) {
+            setDetailImageUrls(details);
         }
         
-        return response;
+        return details;
+    }
+    
+    private String listPath(TmdbCache.Endpoint endpoint) {
+        return switch (endpoint) {
+            case SEARCH -> "/search/movie";
+            case POPULAR -> "/movie/popular";
+            case TOP_RATED -> "/movie/top_rated";
+            case NOW_PLAYING -> "/movie/now_playing";
+            case UPCOMING -> "/movie/upcoming";
+            case DETAILS -> throw new IllegalArgumentException("DETAILS no es un listado");
+        };
     }
     
     /**
@@ -210,4 +223,3 @@ public class TmdbService {
         }
     }
 }
-
@@ -1,14 +1,13 @@
 package com.platzi.play.domain.service;
 
+import com.platzi.play.domain.ReviewSort;
+import com.platzi.play.domain.dto.CursorPageDto;
 import com.platzi.play.domain.dto.ReviewDto;
 import com.platzi.play.domain.dto.UpdateUserDto;
 import com.platzi.play.domain.dto.UserDto;
 import com.platzi.play.domain.exception.UserAlreadyExistsException;
 import com.platzi.play.domain.exception.UserNotFoundException;
 import com.platzi.play.domain.repository.UserRepository;
-import com.platzi.play.persistence.crud.CrudUserEntity;
-import com.platzi.play.persistence.entity.UserEntity;
-import com.platzi.play.persistence.mapper.UserMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,20 +17,15 @@ import java.util.List;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final CrudUserEntity crudUserEntity;
-    private final UserMapper userMapper;
     private final ReviewService reviewService;
 
     public UserService(UserRepository userRepository, 
-                      CrudUserEntity crudUserEntity,
-                      UserMapper userMapper,
                       ReviewService reviewService) {
         this.userRepository = userRepository;
-        this.crudUserEntity = crudUserEntity;
-        this.userMapper = userMapper;
         this.reviewService = reviewService;
     }
 
+    @Transactional(readOnly = true)
     public UserDto getCurrentUser(String username) {
         UserDto user = userRepository.getByUsername(username);
         if (user == null) {
@@ -40,6 +34,7 @@ public class UserService {
         return user;
     }
 
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long userId) {
         UserDto user = userRepository.getById(userId);
         if (user == null) {
@@ -50,24 +45,27 @@ public class UserService {
 
     @Transactional
     public UserDto updateProfile(String username, UpdateUserDto updateUserDto) {
-        UserEntity userEntity = crudUserEntity.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado: " + username));
+        // Por natural id: el usuario autenticado casi siempre está en la caché de segundo nivel
+        UserDto user = userRepository.getByUsername(username);
+        if (user == null) {
+            throw new UserNotFoundException("Usuario no encontrado: " + username);
+        }
 
-        if (updateUserDto.email() != null && !updateUserDto.email().equals(userEntity.getEmail())) {
+        String email = user.email();
+        if (updateUserDto.email() != null && !updateUserDto.email().equals(user.email())) {
             if (userRepository.existsByEmail(updateUserDto.email())) {
                 throw new UserAlreadyExistsException("El email ya está en uso");
             }
-            userEntity.setEmail(updateUserDto.email());
+            email = updateUserDto.email();
         }
 
-        if (updateUserDto.nombreCompleto() != null) {
-            userEntity.setNombreCompleto(updateUserDto.nombreCompleto());
-        }
+        String nombreCompleto = updateUserDto.nombreCompleto() != null ? updateUserDto.nombreCompleto() : user.nombreCompleto();
 
-        UserEntity savedEntity = crudUserEntity.save(userEntity);
-        return userMapper.toDto(savedEntity);
+        return userRepository.update(new UserDto(user.id(), user.username(), email, nombreCompleto, user.role(),
+                user.fechaCreacion(), user.ultimoAcceso(), user.activo(), user.emailVerificado()));
     }
 
+    @Transactional(readOnly = true)
     public List<ReviewDto> getUserReviews(Long userId) {
         UserDto user = userRepository.getById(userId);
         if (user == null) {
@@ -75,4 +73,9 @@ public class UserService {
         }
         return reviewService.getReviewsByUserId(userId);
     }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<ReviewDto> getUserReviewPage(Long userId, ReviewSort sort, String cursor, Integer size) {
+        return reviewService.getReviewPageByUserId(userId, sort, cursor, size);
+    }
 }
@@ -0,0 +1,81 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.dto.CatalogVersionDto;
+import com.platzi.play.domain.repository.CatalogVersionRepository;
+import com.platzi.play.persistence.crud.CrudCatalogChangeEntity;
+import com.platzi.play.persistence.crud.CrudCatalogVersionEntity;
+import com.platzi.play.persistence.entity.CatalogChangeEntity;
+import com.platzi.play.persistence.entity.CatalogVersionEntity;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * La versión de un catálogo es su base más la cantidad de escrituras anotadas. Las escrituras
+ * solo insertan filas, así que no se bloquean entre sí; cada commit suma al menos uno y la
+ * compactación mueve filas a la base sin cambiar el total.
+ */
+@Repository
+public class CatalogVersionEntityRepository implements CatalogVersionRepository {
+
+    private final CrudCatalogVersionEntity crudCatalogVersionEntity;
+    private final CrudCatalogChangeEntity crudCatalogChangeEntity;
+
+    public CatalogVersionEntityRepository(CrudCatalogVersionEntity crudCatalogVersionEntity,
+                                          CrudCatalogChangeEntity crudCatalogChangeEntity) {
+        this.crudCatalogVersionEntity = crudCatalogVersionEntity;
+        this.crudCatalogChangeEntity = crudCatalogChangeEntity;
+    }
+
+    // La versión inicial es el instante de creación: si la tabla se recrea, no se repiten ETags anteriores
+    @Override
+    public void createMissing(Collection<String> catalogs) {
+        for (String catalog : catalogs) {
+            if (crudCatalogVersionEntity.existsById(catalog)) {
+                continue;
+            }
+            Instant now = Instant.now();
+            try {
+                crudCatalogVersionEntity.saveAndFlush(new CatalogVersionEntity(catalog, now.toEpochMilli(), now));
+            } catch (DataIntegrityViolationException e) {
+                // Otra instancia la creó al mismo tiempo
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordChange(String catalog) {
+        crudCatalogChangeEntity.save(new CatalogChangeEntity(catalog, Instant.now()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CatalogVersionDto> getAll() {
+        return crudCatalogVersionEntity.findVersions();
+    }
+
+    // El conteo que se suma es el de filas borradas, no uno leído antes: así el total no cambia
+    // aunque otra instancia compacte a la vez o se confirmen escrituras entre sentencias
+    @Override
+    @Transactional
+    public int compact(Instant before) {
+        int compacted = 0;
+        for (CatalogVersionEntity version : crudCatalogVersionEntity.findAll()) {
+            Instant lastChange = crudCatalogChangeEntity.findLastChangeBefore(version.getCatalog(), before);
+            if (lastChange == null) {
+                continue;
+            }
+            int deleted = crudCatalogChangeEntity.deleteBefore(version.getCatalog(), before);
+            if (deleted > 0) {
+                crudCatalogVersionEntity.addCompacted(version.getCatalog(), deleted, lastChange);
+                compacted += deleted;
+            }
+        }
+        return compacted;
+    }
+}
@@ -0,0 +1,47 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.dto.EntityCacheRegionStatsDto;
+import com.platzi.play.domain.repository.EntityCacheRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@Repository
+public class HibernateEntityCacheRepository implements EntityCacheRepository {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public HibernateEntityCacheRepository(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public List<EntityCacheRegionStatsDto> getRegionStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return List.of();
+        }
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toDto(region, statistics.getCacheRegionStatistics(region)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static EntityCacheRegionStatsDto toDto(String region, CacheRegionStatistics stats) {
+        if (stats == null) {
+            return null;
+        }
+        long hits = stats.getHitCount();
+        long misses = stats.getMissCount();
+        long reads = hits + misses;
+        return new EntityCacheRegionStatsDto(region, hits, misses, stats.getPutCount(),
+                reads == 0 ? 0.0 : (double) hits / reads);
+    }
+}
@@ -1,41 +1,181 @@
 package com.platzi.play.persistence;
 
+import com.platzi.play.domain.MovieSort;
+import com.platzi.play.domain.SearchMode;
+import com.platzi.play.domain.dto.CursorPageDto;
 import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MovieFilterDto;
+import com.platzi.play.domain.dto.MovieSearchHitDto;
 import com.platzi.play.domain.dto.UpdateMovieDto;
 import com.platzi.play.domain.exception.MovieAlreadyException;
 import com.platzi.play.domain.exception.MovieNotFoundException;
 import com.platzi.play.domain.exception.MovieTitleAlreadyExistsException;
+import com.platzi.play.domain.repository.CatalogVersionRepository;
 import com.platzi.play.domain.repository.MovieRepository;
 import com.platzi.play.persistence.crud.CrudMovieEntity;
-import com.platzi.play.persistence.crud.CrudReviewEntity;
+import com.platzi.play.persistence.crud.CrudMovieRatingStatsEntity;
+import com.platzi.play.persistence.crud.MovieSearchQueries;
+import com.platzi.play.persistence.crud.MovieSpecifications;
 import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.entity.MovieRatingStatsEntity;
 import com.platzi.play.persistence.mapper.MovieMapper;
+import com.platzi.play.persistence.pagination.PageCursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.CacheMode;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 public class MovieEntityRepository implements MovieRepository {
 
+    private static final String INSERT_MOVIE_SQL = "INSERT INTO movies (id, title, duration, genre, release_date, rating, status, " +
+            "tmdb_id, poster_url, backdrop_url, overview, original_title, vote_average, vote_count, popularity, original_language) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final CrudMovieEntity crudMovieEntity;
-    private final CrudReviewEntity crudReviewEntity;
+    private final CrudMovieRatingStatsEntity crudMovieRatingStatsEntity;
     private final MovieMapper movieMapper;
+    private final MeterRegistry meterRegistry;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final int exportChunkSize;
 
-    public MovieEntityRepository(CrudMovieEntity crudMovieEntity, CrudReviewEntity crudReviewEntity, MovieMapper movieMapper) {
+    public MovieEntityRepository(CrudMovieEntity crudMovieEntity, CrudMovieRatingStatsEntity crudMovieRatingStatsEntity,
+                                 MovieMapper movieMapper, MeterRegistry meterRegistry, EntityManager entityManager,
+                                 JdbcTemplate jdbcTemplate, CatalogVersionRepository catalogVersionRepository,
+                                 @Value("${movies.export.chunk-size:500}") int exportChunkSize) {
         this.crudMovieEntity = crudMovieEntity;
-        this.crudReviewEntity = crudReviewEntity;
+        this.crudMovieRatingStatsEntity = crudMovieRatingStatsEntity;
         this.movieMapper = movieMapper;
+        this.meterRegistry = meterRegistry;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.exportChunkSize = exportChunkSize;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MovieDto> getAll() {
         List<MovieDto> movies = movieMapper.toDtoList(crudMovieEntity.findAll());
         return enrichMoviesWithReviewData(movies);
     }
 
+    // Un bloque por transacción corta (id > afterId): la conexión vuelve al pool antes de escribir
+    // el bloque al cliente, así una descarga lenta no retiene una conexión ni una transacción.
+    // CacheMode.IGNORE: recorrer todo el catálogo no debe desalojar de la caché de segundo nivel
+    // las películas que sí se consultan seguido
+    @Override
+    @Transactional(readOnly = true)
+    public List<MovieDto> getExportChunk(Long afterId) {
+        countEnrichmentQuery("export");
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT m, s FROM MovieEntity m LEFT JOIN MovieRatingStatsEntity s ON s.movieId = m.id " +
+                                "WHERE m.id > :afterId ORDER BY m.id", Object[].class)
+                .setParameter("afterId", afterId == null ? Long.MIN_VALUE : afterId)
+                .setMaxResults(exportChunkSize)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportChunkSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultList();
+        List<MovieDto> chunk = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            MovieEntity movie = (MovieEntity) row[0];
+            MovieRatingStatsEntity stats = (MovieRatingStatsEntity) row[1];
+            chunk.add(withReviewData(movieMapper.toDto(movie), stats));
+            entityManager.detach(movie);
+            if (stats != null) {
+                entityManager.detach(stats);
+            }
+        }
+        return chunk;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<MovieDto> getPage(MovieFilterDto filter, MovieSort sort, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor, sort.name());
+        Specification<MovieEntity> filters = MovieSpecifications.matching(filter);
+        int limit = size + 1;
+
+        // Primera fase: filas con clave de orden no nula
+        List<MovieEntity> rows = new ArrayList<>();
+        if (position == null || position.value() != null) {
+            rows.addAll(findSlice(filters.and(MovieSpecifications.after(sort, position)), sort, limit));
+        }
+        // Segunda fase: filas con clave nula, al final del recorrido
+        if (MovieSpecifications.hasNullableKey(sort) && rows.size() < limit) {
+            rows.addAll(findSlice(filters.and(MovieSpecifications.nullsAfter(sort, position)), sort, limit - rows.size()));
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<MovieEntity> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore
+                ? MovieSpecifications.cursorOf(sort, page.get(page.size() - 1)).encode()
+                : null;
+
+        List<MovieDto> movies = movieMapper.toDtoList(page);
+        return new CursorPageDto<>(enrichPageWithReviewData(movies), nextCursor, hasMore);
+    }
+
+    // Se pide una fila más de las necesarias para saber si existe una página siguiente
     @Override
+    @SuppressWarnings("unchecked")
+    @Transactional(readOnly = true)
+    public CursorPageDto<MovieSearchHitDto> search(String text, SearchMode mode, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor, mode.name());
+        Query query = entityManager.createNativeQuery(MovieSearchQueries.sql(mode, position != null))
+                .setParameter("query", text)
+                .setParameter("limit", size + 1);
+        if (position != null) {
+            MovieSearchQueries.bindCursor(query, position);
+        }
+
+        List<MovieSearchHitDto> rows = ((List<Object[]>) query.getResultList()).stream()
+                .map(MovieSearchQueries::toHit)
+                .toList();
+        boolean hasMore = rows.size() > size;
+        List<MovieSearchHitDto> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore
+                ? MovieSearchQueries.cursorOf(mode, page.get(page.size() - 1)).encode()
+                : null;
+        return new CursorPageDto<>(page, nextCursor, hasMore);
+    }
+
+    private List<MovieEntity> findSlice(Specification<MovieEntity> specification, MovieSort sort, int limit) {
+        return crudMovieEntity.findBy(specification, query -> query
+                .sortBy(MovieSpecifications.toSort(sort))
+                .limit(limit)
+                .all());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public MovieDto getById(Long id) {
         MovieEntity movieEntity = crudMovieEntity.findById(id).orElse(null);
         MovieDto movieDto = movieMapper.toDto(movieEntity);
@@ -49,18 +189,54 @@ public class MovieEntityRepository implements MovieRepository {
                 .map(this::enrichMovieWithReviewData);
     }
     
+    @Override
+    public Set<Long> findExistingTmdbIds(Collection<Long> tmdbIds) {
+        if (tmdbIds.isEmpty()) return Set.of();
+        return crudMovieEntity.findExistingTmdbIds(tmdbIds);
+    }
+
+    // Lee las estadísticas materializadas de todas las películas con una sola consulta
     private List<MovieDto> enrichMoviesWithReviewData(List<MovieDto> movies) {
+        if (movies.isEmpty()) return movies;
+        countEnrichmentQuery("all");
+        return mergeReviewData(movies, crudMovieRatingStatsEntity.findAll());
+    }
+
+    // Lee las estadísticas materializadas solo de las películas de la página actual
+    private List<MovieDto> enrichPageWithReviewData(List<MovieDto> movies) {
+        if (movies.isEmpty()) return movies;
+        List<Long> ids = movies.stream().map(MovieDto::id).toList();
+        countEnrichmentQuery("page");
+        return mergeReviewData(movies, crudMovieRatingStatsEntity.findAllById(ids));
+    }
+
+    private List<MovieDto> mergeReviewData(List<MovieDto> movies, List<MovieRatingStatsEntity> ratingStats) {
+        Map<Long, MovieRatingStatsEntity> statsByMovie = ratingStats.stream()
+                .collect(Collectors.toMap(MovieRatingStatsEntity::getMovieId, Function.identity()));
+
         return movies.stream()
-                .map(this::enrichMovieWithReviewData)
+                .map(movie -> withReviewData(movie, statsByMovie.get(movie.id())))
                 .toList();
     }
     
     private MovieDto enrichMovieWithReviewData(MovieDto movie) {
         if (movie == null) return null;
-        
-        Double avgRating = crudReviewEntity.getAverageRatingByMovieId(movie.id());
-        long reviewCount = crudReviewEntity.countByMovieId(movie.id());
-        
+        countEnrichmentQuery("single");
+        return withReviewData(movie, crudMovieRatingStatsEntity.findById(movie.id()).orElse(null));
+    }
+
+    // Consultas a movie_rating_stats por tipo de enriquecimiento, para detectar regresiones N+1
+    private void countEnrichmentQuery(String scope) {
+        meterRegistry.counter("movies.enrichment.queries", "scope", scope).increment();
+    }
+
+    private MovieDto withReviewData(MovieDto movie, MovieRatingStatsEntity stats) {
+        return stats == null
+                ? withReviewData(movie, null, 0L)
+                : withReviewData(movie, stats.getAverageRating(), stats.getReviewCount());
+    }
+
+    private MovieDto withReviewData(MovieDto movie, Double avgRating, long reviewCount) {
         return new MovieDto(
                 movie.id(),
                 movie.title(),
@@ -83,7 +259,9 @@ public class MovieEntityRepository implements MovieRepository {
         );
     }
 
+    // La película, su fila de estadísticas vacía y la nueva versión del catálogo se confirman juntas
     @Override
+    @Transactional
     public MovieDto save(MovieDto movieDto) {
         if(this.crudMovieEntity.findFirstByTitle(movieDto.title()) != null){
             throw new MovieAlreadyException(movieDto.title());
@@ -91,11 +269,77 @@ public class MovieEntityRepository implements MovieRepository {
 
         MovieEntity movieEntity = movieMapper.toEntity(movieDto);
         movieEntity.setStatus("D");
-        MovieDto savedMovie = this.movieMapper.toDto(crudMovieEntity.save(movieEntity));
-        return enrichMovieWithReviewData(savedMovie);
+        MovieEntity savedEntity = crudMovieEntity.save(movieEntity);
+        crudMovieRatingStatsEntity.save(new MovieRatingStatsEntity(savedEntity.getId()));
+        catalogVersionRepository.recordChange(CatalogVersionRepository.MOVIES);
+        return withReviewData(this.movieMapper.toDto(savedEntity), null, 0L);
+    }
+
+    @Override
+    @Transactional
+    public List<MovieDto> saveAll(List<MovieDto> movies) {
+        if (movies.isEmpty()) return List.of();
+
+        // Un solo par de consultas para descartar títulos y tmdbIds ya registrados
+        Set<String> takenTitles = new HashSet<>(crudMovieEntity.findExistingTitles(
+                movies.stream().map(MovieDto::title).toList()));
+        Set<Long> takenTmdbIds = new HashSet<>(findExistingTmdbIds(
+                movies.stream().map(MovieDto::tmdbId).filter(Objects::nonNull).toList()));
+
+        List<MovieDto> accepted = new ArrayList<>();
+        List<MovieEntity> rows = new ArrayList<>();
+        for (MovieDto movie : movies) {
+            if (movie.tmdbId() == null || !takenTmdbIds.add(movie.tmdbId()) || !takenTitles.add(movie.title())) {
+                continue;
+            }
+            MovieEntity movieEntity = movieMapper.toEntity(movie);
+            movieEntity.setStatus("D");
+            rows.add(movieEntity);
+            accepted.add(movie);
+        }
+        if (rows.isEmpty()) return List.of();
+
+        // Lote JDBC directo, sin el ciclo persist/flush de Hibernate. Los ids salen del mismo generador
+        // (bloques de movies_seq) que usa Hibernate, así que no dependen de un DEFAULT en la columna
+        assignIds(rows);
+        jdbcTemplate.batchUpdate(INSERT_MOVIE_SQL, rows, rows.size(), this::bindMovie);
+        crudMovieRatingStatsEntity.createEmptyByTmdbIds(accepted.stream().map(MovieDto::tmdbId).toList());
+        catalogVersionRepository.recordChange(CatalogVersionRepository.MOVIES);
+        return rows.stream()
+                .map(movieEntity -> withReviewData(movieMapper.toDto(movieEntity), null, 0L))
+                .toList();
+    }
+
+    private void assignIds(List<MovieEntity> movies) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(MovieEntity.class).getGenerator();
+        for (MovieEntity movie : movies) {
+            movie.setId((Long) generator.generate(session, movie));
+        }
+    }
+
+    private void bindMovie(PreparedStatement statement, MovieEntity movie) throws SQLException {
+        statement.setLong(1, movie.getId());
+        statement.setString(2, movie.getTitle());
+        statement.setInt(3, movie.getDuration());
+        statement.setString(4, movie.getGenre());
+        statement.setDate(5, movie.getReleaseDate() != null ? Date.valueOf(movie.getReleaseDate()) : null);
+        statement.setBigDecimal(6, movie.getRating());
+        statement.setString(7, movie.getStatus());
+        statement.setLong(8, movie.getTmdbId());
+        statement.setString(9, movie.getPosterUrl());
+        statement.setString(10, movie.getBackdropUrl());
+        statement.setString(11, movie.getOverview());
+        statement.setString(12, movie.getOriginalTitle());
+        statement.setObject(13, movie.getVoteAverage(), Types.DOUBLE);
+        statement.setObject(14, movie.getVoteCount(), Types.INTEGER);
+        statement.setObject(15, movie.getPopularity(), Types.DOUBLE);
+        statement.setString(16, movie.getOriginalLanguage());
     }
 
     @Override
+    @Transactional
     public MovieDto update(Long id, UpdateMovieDto updateMovieDto) {
         MovieEntity movieEntity = crudMovieEntity.findById(id).orElse(null);
         if (movieEntity == null) {
@@ -112,6 +356,7 @@ public class MovieEntityRepository implements MovieRepository {
         this.movieMapper.updateEntityFromDto(updateMovieDto, movieEntity);
 
         MovieDto updatedMovie = this.movieMapper.toDto(this.crudMovieEntity.save(movieEntity));
+        catalogVersionRepository.recordChange(CatalogVersionRepository.MOVIES);
         return enrichMovieWithReviewData(updatedMovie);
     }
 
@@ -121,12 +366,15 @@ public class MovieEntityRepository implements MovieRepository {
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         MovieEntity movieEntity = crudMovieEntity.findById(id).orElse(null);
         if (movieEntity == null) {
             throw new MovieNotFoundException(id);
         }
         
+        this.crudMovieRatingStatsEntity.deleteById(id);
         this.crudMovieEntity.deleteById(id);
+        catalogVersionRepository.recordChange(CatalogVersionRepository.MOVIES);
     }
 }
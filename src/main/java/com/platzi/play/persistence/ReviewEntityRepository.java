@@ -1,6 +1,9 @@
 package com.platzi.play.persistence;
 
+import com.platzi.play.domain.ReviewSort;
 import com.platzi.play.domain.dto.CreateReviewDto;
+import com.platzi.play.domain.dto.CursorPageDto;
+import com.platzi.play.domain.dto.MovieRatingStatsDto;
 import com.platzi.play.domain.dto.ReviewDto;
 import com.platzi.play.domain.dto.UpdateReviewDto;
 import com.platzi.play.domain.exception.MovieNotFoundException;
@@ -8,17 +11,27 @@ import com.platzi.play.domain.exception.ReviewAlreadyExistsException;
 import com.platzi.play.domain.exception.ReviewNotFoundException;
 import com.platzi.play.domain.exception.UnauthorizedReviewAccessException;
 import com.platzi.play.domain.exception.UserNotFoundException;
+import com.platzi.play.domain.repository.CatalogVersionRepository;
 import com.platzi.play.domain.repository.ReviewRepository;
 import com.platzi.play.persistence.crud.CrudMovieEntity;
+import com.platzi.play.persistence.crud.CrudMovieRatingStatsEntity;
 import com.platzi.play.persistence.crud.CrudReviewEntity;
 import com.platzi.play.persistence.crud.CrudUserEntity;
+import com.platzi.play.persistence.crud.ReviewFeedQueries;
 import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.entity.MovieRatingStatsEntity;
 import com.platzi.play.persistence.entity.ReviewEntity;
 import com.platzi.play.persistence.entity.UserEntity;
 import com.platzi.play.persistence.mapper.ReviewMapper;
+import com.platzi.play.persistence.pagination.PageCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class ReviewEntityRepository implements ReviewRepository {
@@ -26,16 +39,25 @@ public class ReviewEntityRepository implements ReviewRepository {
     private final CrudReviewEntity crudReviewEntity;
     private final CrudUserEntity crudUserEntity;
     private final CrudMovieEntity crudMovieEntity;
+    private final CrudMovieRatingStatsEntity crudMovieRatingStatsEntity;
     private final ReviewMapper reviewMapper;
+    private final EntityManager entityManager;
+    private final CatalogVersionRepository catalogVersionRepository;
 
     public ReviewEntityRepository(CrudReviewEntity crudReviewEntity, 
                                   CrudUserEntity crudUserEntity,
                                   CrudMovieEntity crudMovieEntity,
-                                  ReviewMapper reviewMapper) {
+                                  CrudMovieRatingStatsEntity crudMovieRatingStatsEntity,
+                                  ReviewMapper reviewMapper,
+                                  EntityManager entityManager,
+                                  CatalogVersionRepository catalogVersionRepository) {
         this.crudReviewEntity = crudReviewEntity;
         this.crudUserEntity = crudUserEntity;
         this.crudMovieEntity = crudMovieEntity;
+        this.crudMovieRatingStatsEntity = crudMovieRatingStatsEntity;
         this.reviewMapper = reviewMapper;
+        this.entityManager = entityManager;
+        this.catalogVersionRepository = catalogVersionRepository;
     }
 
     @Override
@@ -53,6 +75,8 @@ public class ReviewEntityRepository implements ReviewRepository {
             throw new ReviewAlreadyExistsException(userId, createReviewDto.movieId());
         }
 
+        ensureRatingStats(movie.getId());
+
         // Crear la review
         ReviewEntity reviewEntity = new ReviewEntity();
         reviewEntity.setUser(user);
@@ -61,6 +85,8 @@ public class ReviewEntityRepository implements ReviewRepository {
         reviewEntity.setComment(createReviewDto.comment());
 
         ReviewEntity savedReview = crudReviewEntity.save(reviewEntity);
+        applyRatingToStats(movie.getId(), savedReview.getRating(), 1L);
+        catalogVersionRepository.recordChange(CatalogVersionRepository.REVIEWS);
         return reviewMapper.toReviewDto(savedReview);
     }
 
@@ -74,6 +100,9 @@ public class ReviewEntityRepository implements ReviewRepository {
             throw new UnauthorizedReviewAccessException();
         }
 
+        ensureRatingStats(reviewEntity.getMovie().getId());
+        Integer previousRating = reviewEntity.getRating();
+
         // Actualizar solo los campos que no son null
         if (updateReviewDto.rating() != null) {
             reviewEntity.setRating(updateReviewDto.rating());
@@ -83,6 +112,12 @@ public class ReviewEntityRepository implements ReviewRepository {
         }
 
         ReviewEntity updatedReview = crudReviewEntity.save(reviewEntity);
+        if (!previousRating.equals(updatedReview.getRating())) {
+            Long movieId = updatedReview.getMovie().getId();
+            applyRatingToStats(movieId, previousRating, -1L);
+            applyRatingToStats(movieId, updatedReview.getRating(), 1L);
+        }
+        catalogVersionRepository.recordChange(CatalogVersionRepository.REVIEWS);
         return reviewMapper.toReviewDto(updatedReview);
     }
 
@@ -96,7 +131,10 @@ public class ReviewEntityRepository implements ReviewRepository {
             throw new UnauthorizedReviewAccessException();
         }
 
+        ensureRatingStats(reviewEntity.getMovie().getId());
         crudReviewEntity.delete(reviewEntity);
+        applyRatingToStats(reviewEntity.getMovie().getId(), reviewEntity.getRating(), -1L);
+        catalogVersionRepository.recordChange(CatalogVersionRepository.REVIEWS);
     }
 
     @Override
@@ -108,14 +146,22 @@ public class ReviewEntityRepository implements ReviewRepository {
 
     @Override
     public List<ReviewDto> getByMovieId(Long movieId) {
-        List<ReviewEntity> reviews = crudReviewEntity.findByMovieId(movieId);
-        return reviewMapper.toReviewDtos(reviews);
+        return crudReviewEntity.findDtosByMovieId(movieId);
     }
 
     @Override
     public List<ReviewDto> getByUserId(Long userId) {
-        List<ReviewEntity> reviews = crudReviewEntity.findByUserId(userId);
-        return reviewMapper.toReviewDtos(reviews);
+        return crudReviewEntity.findDtosByUserId(userId);
+    }
+
+    @Override
+    public CursorPageDto<ReviewDto> getPageByMovieId(Long movieId, ReviewSort sort, String cursor, int size) {
+        return getPage(ReviewFeedQueries.Owner.MOVIE, movieId, sort, cursor, size);
+    }
+
+    @Override
+    public CursorPageDto<ReviewDto> getPageByUserId(Long userId, ReviewSort sort, String cursor, int size) {
+        return getPage(ReviewFeedQueries.Owner.USER, userId, sort, cursor, size);
     }
 
     @Override
@@ -133,12 +179,78 @@ public class ReviewEntityRepository implements ReviewRepository {
 
     @Override
     public Double getAverageRatingByMovieId(Long movieId) {
-        return crudReviewEntity.getAverageRatingByMovieId(movieId);
+        return crudMovieRatingStatsEntity.findById(movieId)
+                .map(MovieRatingStatsEntity::getAverageRating)
+                .orElse(null);
     }
 
     @Override
     public long countByMovieId(Long movieId) {
-        return crudReviewEntity.countByMovieId(movieId);
+        return crudMovieRatingStatsEntity.findReviewCountByMovieId(movieId).orElse(0L);
+    }
+
+    @Override
+    public MovieRatingStatsDto getRatingStatsByMovieId(Long movieId) {
+        MovieRatingStatsEntity stats = crudMovieRatingStatsEntity.findById(movieId)
+                .orElseGet(() -> new MovieRatingStatsEntity(movieId));
+        return new MovieRatingStatsDto(
+                movieId,
+                stats.getReviewCount(),
+                stats.getAverageRating(),
+                Map.of(1, stats.getRating1(),
+                        2, stats.getRating2(),
+                        3, stats.getRating3(),
+                        4, stats.getRating4(),
+                        5, stats.getRating5())
+        );
+    }
+
+    @Override
+    @Transactional
+    public int rebuildRatingStats() {
+        crudMovieRatingStatsEntity.deleteAllInBatch();
+        int rebuilt = crudMovieRatingStatsEntity.rebuildAll();
+        catalogVersionRepository.recordChange(CatalogVersionRepository.REVIEWS);
+        return rebuilt;
+    }
+
+    // Se pide una fila más de las necesarias para saber si existe una página siguiente
+    private CursorPageDto<ReviewDto> getPage(ReviewFeedQueries.Owner owner, Long ownerId,
+                                             ReviewSort sort, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor, sort.name());
+        TypedQuery<ReviewDto> query = entityManager
+                .createQuery(ReviewFeedQueries.jpql(owner, sort, position != null), ReviewDto.class)
+                .setParameter("ownerId", ownerId)
+                .setMaxResults(size + 1);
+        if (position != null) {
+            ReviewFeedQueries.bindCursor(query, sort, position);
+        }
+
+        List<ReviewDto> rows = query.getResultList();
+        boolean hasMore = rows.size() > size;
+        List<ReviewDto> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore
+                ? ReviewFeedQueries.cursorOf(sort, page.get(page.size() - 1)).encode()
+                : null;
+        return new CursorPageDto<>(page, nextCursor, hasMore);
+    }
+
+    // Películas anteriores a la tabla de estadísticas: se calculan desde cero antes de modificar la review.
+    // Si dos escrituras concurrentes no encuentran la fila, el bloqueo de la película las ordena y la
+    // segunda vuelve a comprobar después del commit de la primera en lugar de repetir el INSERT
+    private void ensureRatingStats(Long movieId) {
+        if (crudMovieRatingStatsEntity.existsById(movieId)) {
+            return;
+        }
+        entityManager.find(MovieEntity.class, movieId, LockModeType.PESSIMISTIC_WRITE);
+        if (!crudMovieRatingStatsEntity.existsById(movieId)) {
+            crudMovieRatingStatsEntity.rebuildByMovieId(movieId);
+        }
+    }
+
+    // Actualiza las estadísticas en la misma transacción que la escritura de la review
+    private void applyRatingToStats(Long movieId, Integer rating, Long delta) {
+        crudMovieRatingStatsEntity.applyRating(movieId, rating, delta);
     }
 }
 
@@ -1,24 +1,52 @@
 package com.platzi.play.persistence;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.platzi.play.domain.dto.UserDto;
 import com.platzi.play.domain.repository.UserRepository;
 import com.platzi.play.persistence.crud.CrudUserEntity;
 import com.platzi.play.persistence.entity.UserEntity;
 import com.platzi.play.persistence.mapper.UserMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Repository
 public class UserEntityRepository implements UserRepository {
 
+    // La condición evita que un lote atrasado (otra instancia) pise un acceso más reciente
+    private static final String UPDATE_LAST_ACCESS =
+            "UPDATE users SET last_access = ? WHERE id = ? AND (last_access IS NULL OR last_access < ?)";
+
     private final CrudUserEntity crudUserEntity;
     private final UserMapper userMapper;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Versiones de cuenta recientes; el TTL acota cuánto tarda otra instancia en ver un cambio
+    private final Cache<Long, Long> accountVersions;
 
-    public UserEntityRepository(CrudUserEntity crudUserEntity, UserMapper userMapper) {
+    public UserEntityRepository(CrudUserEntity crudUserEntity, UserMapper userMapper, EntityManager entityManager,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${jwt.principal-cache.ttl-seconds:60}") long accountVersionTtlSeconds) {
         this.crudUserEntity = crudUserEntity;
         this.userMapper = userMapper;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.accountVersions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(accountVersionTtlSeconds))
+                .build();
     }
 
     @Override
@@ -33,9 +61,9 @@ public class UserEntityRepository implements UserRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getByUsername(String username) {
-        UserEntity userEntity = crudUserEntity.findByUsername(username).orElse(null);
-        return userMapper.toDto(userEntity);
+        return userMapper.toDto(findByUsername(username).orElse(null));
     }
 
     @Override
@@ -45,9 +73,9 @@ public class UserEntityRepository implements UserRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getByUsernameOrEmail(String usernameOrEmail) {
-        UserEntity userEntity = crudUserEntity.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail).orElse(null);
-        return userMapper.toDto(userEntity);
+        return userMapper.toDto(findByUsernameOrEmail(usernameOrEmail));
     }
 
     @Override
@@ -62,9 +90,21 @@ public class UserEntityRepository implements UserRepository {
         if (existingEntity == null) {
             return null;
         }
+        // El username es el natural id: Hibernate no permite cambiarlo y la caché por username quedaría desfasada
+        if (!existingEntity.getUsername().equals(userDto.username())) {
+            throw new IllegalArgumentException("El username no se puede modificar: " + existingEntity.getUsername());
+        }
+        
+        // Un cambio de rol o de estado invalida los tokens emitidos anteriormente
+        if (existingEntity.getRole() != userDto.role()
+                || !Objects.equals(existingEntity.getActivo(), userDto.activo())
+                || !Objects.equals(existingEntity.getEmailVerificado(), userDto.emailVerificado())) {
+            long currentVersion = Objects.requireNonNullElse(existingEntity.getAccountVersion(), 0L);
+            existingEntity.setAccountVersion(currentVersion + 1);
+            accountVersions.invalidate(existingEntity.getId());
+        }
         
         // Actualizar campos
-        existingEntity.setUsername(userDto.username());
         existingEntity.setEmail(userDto.email());
         existingEntity.setNombreCompleto(userDto.nombreCompleto());
         existingEntity.setRole(userDto.role());
@@ -77,6 +117,7 @@ public class UserEntityRepository implements UserRepository {
     @Override
     public void deleteById(Long id) {
         crudUserEntity.deleteById(id);
+        accountVersions.invalidate(id);
     }
 
     @Override
@@ -90,7 +131,43 @@ public class UserEntityRepository implements UserRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserEntity getEntityByUsernameOrEmail(String usernameOrEmail) {
-        return crudUserEntity.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail).orElse(null);
+        return findByUsernameOrEmail(usernameOrEmail);
+    }
+
+    @Override
+    public Long getAccountVersion(Long id) {
+        return accountVersions.get(id, key -> crudUserEntity.findAccountVersionById(key).orElse(null));
+    }
+
+    // Un solo lote JDBC fuera de Hibernate; luego se descartan de la caché de segundo nivel
+    // solo esos usuarios (un UPDATE en HQL vaciaría la región completa)
+    @Override
+    public void updateLastAccess(Map<Long, LocalDateTime> lastAccessByUserId) {
+        if (lastAccessByUserId.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = lastAccessByUserId.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey(), entry.getValue()})
+                .toList();
+        jdbcTemplate.batchUpdate(UPDATE_LAST_ACCESS, rows);
+        lastAccessByUserId.keySet().forEach(id ->
+                entityManager.getEntityManagerFactory().getCache().evict(UserEntity.class, id));
+    }
+
+    // Por natural id: con la caché de segundo nivel no llega a la base de datos
+    private Optional<UserEntity> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(UserEntity.class)
+                .loadOptional(username);
+    }
+
+    // Los usernames no admiten '@' (ver RegisterDto): así cada búsqueda va a una sola caché
+    private UserEntity findByUsernameOrEmail(String usernameOrEmail) {
+        Optional<UserEntity> user = usernameOrEmail.indexOf('@') >= 0
+                ? crudUserEntity.findByEmail(usernameOrEmail)
+                : findByUsername(usernameOrEmail);
+        return user.orElse(null);
     }
 }
@@ -0,0 +1,19 @@
+package com.platzi.play.persistence.crud;
+
+import com.platzi.play.persistence.entity.CatalogChangeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface CrudCatalogChangeEntity extends JpaRepository<CatalogChangeEntity, Long> {
+
+    @Query("SELECT MAX(c.changedAt) FROM CatalogChangeEntity c WHERE c.catalog = :catalog AND c.changedAt < :before")
+    Instant findLastChangeBefore(@Param("catalog") String catalog, @Param("before") Instant before);
+
+    @Modifying
+    @Query("DELETE FROM CatalogChangeEntity c WHERE c.catalog = :catalog AND c.changedAt < :before")
+    int deleteBefore(@Param("catalog") String catalog, @Param("before") Instant before);
+}
@@ -0,0 +1,28 @@
+package com.platzi.play.persistence.crud;
+
+import com.platzi.play.domain.dto.CatalogVersionDto;
+import com.platzi.play.persistence.entity.CatalogVersionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface CrudCatalogVersionEntity extends JpaRepository<CatalogVersionEntity, String> {
+
+    // Base más escrituras sin compactar, en una sola sentencia: ve una compactación entera o nada de ella
+    @Query("SELECT new com.platzi.play.domain.dto.CatalogVersionDto(v.catalog, " +
+            "v.version + (SELECT COUNT(c) FROM CatalogChangeEntity c WHERE c.catalog = v.catalog), " +
+            "COALESCE((SELECT MAX(c.changedAt) FROM CatalogChangeEntity c WHERE c.catalog = v.catalog), v.updatedAt)) " +
+            "FROM CatalogVersionEntity v")
+    List<CatalogVersionDto> findVersions();
+
+    @Modifying
+    @Query("UPDATE CatalogVersionEntity v SET v.version = v.version + :changes, " +
+            "v.updatedAt = CASE WHEN v.updatedAt < :lastChange THEN :lastChange ELSE v.updatedAt END " +
+            "WHERE v.catalog = :catalog")
+    int addCompacted(@Param("catalog") String catalog, @Param("changes") long changes,
+                     @Param("lastChange") Instant lastChange);
+}
@@ -2,14 +2,25 @@ package com.platzi.play.persistence.crud;
 
 import com.platzi.play.persistence.entity.MovieEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
-public interface CrudMovieEntity extends JpaRepository<MovieEntity, Long> {
+public interface CrudMovieEntity extends JpaRepository<MovieEntity, Long>, JpaSpecificationExecutor<MovieEntity> {
 
     MovieEntity findFirstByTitle(String title);
     
     Optional<MovieEntity> findByTmdbId(Long tmdbId);
 
+    @Query("SELECT m.tmdbId FROM MovieEntity m WHERE m.tmdbId IN :tmdbIds")
+    Set<Long> findExistingTmdbIds(@Param("tmdbIds") Collection<Long> tmdbIds);
+
+    @Query("SELECT m.title FROM MovieEntity m WHERE m.title IN :titles")
+    Set<String> findExistingTitles(@Param("titles") Collection<String> titles);
+
 }
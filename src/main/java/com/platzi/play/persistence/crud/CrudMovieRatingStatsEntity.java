@@ -0,0 +1,62 @@
+package com.platzi.play.persistence.crud;
+
+import com.platzi.play.persistence.entity.MovieRatingStatsEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface CrudMovieRatingStatsEntity extends JpaRepository<MovieRatingStatsEntity, Long> {
+
+    // Suma (delta = 1) o resta (delta = -1) una calificación de forma atómica
+    @Modifying
+    @Query("UPDATE MovieRatingStatsEntity s SET " +
+            "s.reviewCount = s.reviewCount + :delta, " +
+            "s.ratingSum = s.ratingSum + :delta * :rating, " +
+            "s.rating1 = s.rating1 + CASE WHEN :rating = 1 THEN :delta ELSE 0L END, " +
+            "s.rating2 = s.rating2 + CASE WHEN :rating = 2 THEN :delta ELSE 0L END, " +
+            "s.rating3 = s.rating3 + CASE WHEN :rating = 3 THEN :delta ELSE 0L END, " +
+            "s.rating4 = s.rating4 + CASE WHEN :rating = 4 THEN :delta ELSE 0L END, " +
+            "s.rating5 = s.rating5 + CASE WHEN :rating = 5 THEN :delta ELSE 0L END " +
+            "WHERE s.movieId = :movieId")
+    int applyRating(@Param("movieId") Long movieId, @Param("rating") Integer rating, @Param("delta") Long delta);
+
+    // Consulta escalar: después de applyRating lee la fila actualizada aunque la entidad esté en el contexto de persistencia
+    @Query("SELECT s.reviewCount FROM MovieRatingStatsEntity s WHERE s.movieId = :movieId")
+    Optional<Long> findReviewCountByMovieId(@Param("movieId") Long movieId);
+
+    // Recalcula desde la tabla reviews las estadísticas de una película
+    @Modifying
+    @Query("INSERT INTO MovieRatingStatsEntity (movieId, reviewCount, ratingSum, rating1, rating2, rating3, rating4, rating5) " +
+            "SELECT m.id, COUNT(r), COALESCE(SUM(r.rating), 0L), " +
+            "COALESCE(SUM(CASE WHEN r.rating = 1 THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN r.rating = 2 THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN r.rating = 3 THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN r.rating = 4 THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN r.rating = 5 THEN 1L ELSE 0L END), 0L) " +
+            "FROM MovieEntity m LEFT JOIN ReviewEntity r ON r.movie = m " +
+            "WHERE m.id = :movieId GROUP BY m.id")
+    int rebuildByMovieId(@Param("movieId") Long movieId);
+
+    // Recalcula desde la tabla reviews las estadísticas de todas las películas
+    @Modifying
+    @Query("INSERT INTO MovieRatingStatsEntity (movieId, reviewCount, ratingSum, rating1, rating2, rating3, rating4, rating5) " +
+            "SELECT m.id, COUNT(r), COALESCE(SUM(r.rating), 0L), " +
+            "COALESCE(SUM(CASE WHEN r.rating = 1 THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN r.rating = 2 THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN r.rating = 3 THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN r.rating = 4 THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN r.rating = 5 THEN 1L ELSE 0L END), 0L) " +
+            "FROM MovieEntity m LEFT JOIN ReviewEntity r ON r.movie = m " +
+            "GROUP BY m.id")
+    int rebuildAll();
+
+    // Crea estadísticas vacías para películas recién importadas (aún no tienen reviews)
+    @Modifying
+    @Query("INSERT INTO MovieRatingStatsEntity (movieId, reviewCount, ratingSum, rating1, rating2, rating3, rating4, rating5) " +
+            "SELECT m.id, 0L, 0L, 0L, 0L, 0L, 0L, 0L FROM MovieEntity m WHERE m.tmdbId IN :tmdbIds")
+    int createEmptyByTmdbIds(@Param("tmdbIds") Collection<Long> tmdbIds);
+}
@@ -1,5 +1,6 @@
 package com.platzi.play.persistence.crud;
 
+import com.platzi.play.domain.dto.ReviewDto;
 import com.platzi.play.persistence.entity.ReviewEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,11 +11,19 @@ import java.util.Optional;
 
 public interface CrudReviewEntity extends JpaRepository<ReviewEntity, Long> {
 
-    // Obtener todas las reviews de una película
-    List<ReviewEntity> findByMovieId(Long movieId);
-
-    // Obtener todas las reviews de un usuario
-    List<ReviewEntity> findByUserId(Long userId);
+    // Obtener todas las reviews de una película, con usuario y título en la misma consulta
+    @Query("SELECT new com.platzi.play.domain.dto.ReviewDto(" +
+            "r.id, u.id, u.username, m.id, m.title, r.rating, r.comment, r.createdAt, r.updatedAt) " +
+            "FROM ReviewEntity r JOIN r.user u JOIN r.movie m " +
+            "WHERE m.id = :movieId ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDto> findDtosByMovieId(@Param("movieId") Long movieId);
+
+    // Obtener todas las reviews de un usuario, con usuario y título en la misma consulta
+    @Query("SELECT new com.platzi.play.domain.dto.ReviewDto(" +
+            "r.id, u.id, u.username, m.id, m.title, r.rating, r.comment, r.createdAt, r.updatedAt) " +
+            "FROM ReviewEntity r JOIN r.user u JOIN r.movie m " +
+            "WHERE u.id = :userId ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDto> findDtosByUserId(@Param("userId") Long userId);
 
     // Verificar si un usuario ya hizo review de una película
     boolean existsByUserIdAndMovieId(Long userId, Long movieId);
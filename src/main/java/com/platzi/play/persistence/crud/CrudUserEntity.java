@@ -1,7 +1,12 @@
 package com.platzi.play.persistence.crud;
 
 import com.platzi.play.persistence.entity.UserEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -17,10 +22,12 @@ public interface CrudUserEntity extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByUsername(String username);
     
     /**
-     * Busca un usuario por su email
+     * Busca un usuario por su email. El resultado (solo el id) queda en la caché de consultas,
+     * que Hibernate descarta ante cualquier escritura en la tabla users
      * @param email email del usuario
      * @return Optional con el usuario encontrado
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UserEntity> findByEmail(String email);
     
     /**
@@ -44,4 +51,12 @@ public interface CrudUserEntity extends JpaRepository<UserEntity, Long> {
      * @return Optional con el usuario encontrado
      */
     Optional<UserEntity> findByUsernameOrEmail(String username, String email);
+    
+    /**
+     * Obtiene la versión de seguridad de la cuenta sin cargar la entidad completa
+     * @param id ID del usuario
+     * @return Optional con la versión de la cuenta
+     */
+    @Query("SELECT COALESCE(u.accountVersion, 0) FROM UserEntity u WHERE u.id = :id")
+    Optional<Long> findAccountVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,101 @@
+package com.platzi.play.persistence.crud;
+
+import com.platzi.play.domain.SearchMode;
+import com.platzi.play.domain.dto.MovieSearchHitDto;
+import com.platzi.play.domain.exception.InvalidCursorException;
+import com.platzi.play.persistence.pagination.PageCursor;
+import jakarta.persistence.Query;
+
+/**
+ * Consultas nativas (PostgreSQL) de la búsqueda local del catálogo.
+ * <p>
+ * FULL_TEXT usa las columnas generadas {@code search_vector} de movies y reviews (índices GIN,
+ * ver migration-full-text-search.sql): una película coincide por su propio texto o por el de sus
+ * reseñas, y su relevancia suma ambas partes. TYPO_TOLERANT compara trigramas del título y el
+ * título original con {@code word_similarity}, también sobre índices GIN. En ambos casos los
+ * resultados se ordenan por (relevancia, id) descendente y el cursor guarda esa posición; el
+ * fragmento resaltado solo se calcula para las filas de la página.
+ */
+public final class MovieSearchQueries {
+
+    private static final String FULL_TEXT_HITS =
+            "WITH q AS (SELECT websearch_to_tsquery('spanish', f_unaccent(:query)) AS query), " +
+            "movie_hits AS (" +
+            "  SELECT m.id, ts_rank(m.search_vector, q.query) AS rank FROM movies m, q " +
+            "  WHERE m.search_vector @@ q.query), " +
+            "review_hits AS (" +
+            "  SELECT r.movie_id, MAX(ts_rank(r.search_vector, q.query)) AS rank, COUNT(*) AS matches FROM reviews r, q " +
+            "  WHERE r.search_vector @@ q.query GROUP BY r.movie_id), " +
+            // Las reseñas aportan la mitad del peso del texto propio de la película
+            "hits AS (" +
+            "  SELECT COALESCE(mh.id, rh.movie_id) AS id, " +
+            "         CAST(COALESCE(mh.rank, 0) + 0.5 * COALESCE(rh.rank, 0) AS real) AS score, " +
+            "         COALESCE(rh.matches, 0) AS matches " +
+            "  FROM movie_hits mh FULL JOIN review_hits rh ON rh.movie_id = mh.id) ";
+
+    private static final String FULL_TEXT_SNIPPET =
+            "ts_headline('spanish_unaccent', COALESCE(m.overview, ''), (SELECT query FROM q), 'MinWords=10, MaxWords=30')";
+
+    private static final String TYPO_TOLERANT_HITS =
+            "WITH q AS (SELECT f_unaccent(lower(:query)) AS query), " +
+            "hits AS (" +
+            "  SELECT m.id, " +
+            "         CAST(GREATEST(word_similarity(q.query, f_unaccent(lower(m.title))), " +
+            "                       word_similarity(q.query, f_unaccent(lower(COALESCE(m.original_title, ''))))) AS real) AS score, " +
+            "         0 AS matches " +
+            "  FROM movies m, q " +
+            "  WHERE q.query <% f_unaccent(lower(m.title)) " +
+            "     OR q.query <% f_unaccent(lower(COALESCE(m.original_title, '')))) ";
+
+    private static final String TYPO_TOLERANT_SNIPPET = "LEFT(m.overview, 200)";
+
+    private MovieSearchQueries() {
+    }
+
+    /**
+     * Construye la consulta de una página. Columnas: id, título, título original, año, póster,
+     * fragmento, reseñas coincidentes y relevancia
+     * @param mode modo de búsqueda (el texto buscado va en el parámetro {@code query})
+     * @param afterCursor si se debe continuar desde la posición de un cursor
+     */
+    public static String sql(SearchMode mode, boolean afterCursor) {
+        StringBuilder sql = new StringBuilder(mode == SearchMode.FULL_TEXT ? FULL_TEXT_HITS : TYPO_TOLERANT_HITS)
+                .append("SELECT m.id, m.title, m.original_title, CAST(EXTRACT(YEAR FROM m.release_date) AS integer), ")
+                .append("m.poster_url, ")
+                .append(mode == SearchMode.FULL_TEXT ? FULL_TEXT_SNIPPET : TYPO_TOLERANT_SNIPPET)
+                .append(", h.matches, h.score ")
+                .append("FROM hits h JOIN movies m ON m.id = h.id");
+        if (afterCursor) {
+            sql.append(" WHERE (h.score, h.id) < (:score, :lastId)");
+        }
+        return sql.append(" ORDER BY h.score DESC, h.id DESC LIMIT :limit").toString();
+    }
+
+    public static void bindCursor(Query query, PageCursor cursor) {
+        if (cursor.value() == null) {
+            throw new InvalidCursorException();
+        }
+        try {
+            query.setParameter("score", Float.valueOf(cursor.value()));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException();
+        }
+        query.setParameter("lastId", cursor.id());
+    }
+
+    public static MovieSearchHitDto toHit(Object[] row) {
+        return new MovieSearchHitDto(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                (String) row[2],
+                row[3] == null ? null : ((Number) row[3]).intValue(),
+                (String) row[4],
+                (String) row[5],
+                ((Number) row[6]).longValue(),
+                ((Number) row[7]).floatValue());
+    }
+
+    public static PageCursor cursorOf(SearchMode mode, MovieSearchHitDto hit) {
+        return new PageCursor(mode.name(), hit.id(), Float.toString(hit.score()));
+    }
+}
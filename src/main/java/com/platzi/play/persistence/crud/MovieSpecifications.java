@@ -0,0 +1,157 @@
+package com.platzi.play.persistence.crud;
+
+import com.platzi.play.domain.MovieSort;
+import com.platzi.play.domain.dto.MovieFilterDto;
+import com.platzi.play.domain.exception.InvalidCursorException;
+import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.mapper.GenreMapper;
+import com.platzi.play.persistence.mapper.StateMapper;
+import com.platzi.play.persistence.pagination.PageCursor;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Especificaciones para el listado paginado por keyset de películas.
+ * Cada orden se recorre sobre un índice (columna, id); las claves nulas
+ * se recorren en una segunda fase para no romper el uso del índice.
+ */
+public final class MovieSpecifications {
+
+    private MovieSpecifications() {
+    }
+
+    public static Specification<MovieEntity> matching(MovieFilterDto filter) {
+        return (root, query, cb) -> {
+            if (filter == null) {
+                return cb.conjunction();
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.genre() != null) {
+                String genre = GenreMapper.genreToString(filter.genre());
+                // Géneros sin representación en la BD no pueden coincidir con ninguna fila
+                predicates.add(genre == null ? cb.disjunction() : cb.equal(root.get("genre"), genre));
+            }
+            if (filter.available() != null) {
+                predicates.add(cb.equal(root.get("status"), StateMapper.booleanToState(filter.available())));
+            }
+            if (filter.releaseYear() != null) {
+                predicates.add(cb.between(root.get("releaseDate"),
+                        LocalDate.of(filter.releaseYear(), 1, 1),
+                        LocalDate.of(filter.releaseYear(), 12, 31)));
+            }
+            if (filter.minPopularity() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("popularity"), filter.minPopularity()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Filas con clave de orden no nula posteriores al cursor
+     */
+    public static Specification<MovieEntity> after(MovieSort sort, PageCursor cursor) {
+        return switch (sort) {
+            case ID -> (root, query, cb) -> cursor == null
+                    ? cb.conjunction()
+                    : cb.greaterThan(root.get("id"), cursor.id());
+            case TITLE -> ascendingAfter("title", cursor, cursor == null ? null : cursor.value());
+            case POPULARITY -> descendingAfter("popularity", cursor, cursor == null ? null : parseDouble(cursor.value()));
+            case RELEASE_DATE -> descendingAfter("releaseDate", cursor, cursor == null ? null : parseDate(cursor.value()));
+        };
+    }
+
+    /**
+     * Filas con clave de orden nula posteriores al cursor (segunda fase de los órdenes descendentes)
+     */
+    public static Specification<MovieEntity> nullsAfter(MovieSort sort, PageCursor cursor) {
+        String property = property(sort);
+        return (root, query, cb) -> {
+            Predicate isNull = cb.isNull(root.get(property));
+            if (cursor == null || cursor.value() != null) {
+                return isNull;
+            }
+            return cb.and(isNull, cb.lessThan(root.get("id"), cursor.id()));
+        };
+    }
+
+    public static boolean hasNullableKey(MovieSort sort) {
+        return sort == MovieSort.POPULARITY || sort == MovieSort.RELEASE_DATE;
+    }
+
+    public static Sort toSort(MovieSort sort) {
+        return switch (sort) {
+            case ID -> Sort.by(Sort.Direction.ASC, "id");
+            case TITLE -> Sort.by(Sort.Direction.ASC, "title", "id");
+            case POPULARITY -> Sort.by(Sort.Direction.DESC, "popularity", "id");
+            case RELEASE_DATE -> Sort.by(Sort.Direction.DESC, "releaseDate", "id");
+        };
+    }
+
+    public static PageCursor cursorOf(MovieSort sort, MovieEntity movie) {
+        Object value = switch (sort) {
+            case ID -> movie.getId();
+            case TITLE -> movie.getTitle();
+            case POPULARITY -> movie.getPopularity();
+            case RELEASE_DATE -> movie.getReleaseDate();
+        };
+        return new PageCursor(sort.name(), movie.getId(), value == null ? null : value.toString());
+    }
+
+    private static String property(MovieSort sort) {
+        return switch (sort) {
+            case ID -> "id";
+            case TITLE -> "title";
+            case POPULARITY -> "popularity";
+            case RELEASE_DATE -> "releaseDate";
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Specification<MovieEntity> ascendingAfter(
+            String property, PageCursor cursor, T value) {
+        return (root, query, cb) -> {
+            Path<T> key = root.get(property);
+            if (cursor == null) {
+                return cb.conjunction();
+            }
+            return cb.or(
+                    cb.greaterThan(key, value),
+                    cb.and(cb.equal(key, value), cb.greaterThan(root.get("id"), cursor.id())));
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Specification<MovieEntity> descendingAfter(
+            String property, PageCursor cursor, T value) {
+        return (root, query, cb) -> {
+            Path<T> key = root.get(property);
+            if (cursor == null) {
+                return cb.isNotNull(key);
+            }
+            return cb.or(
+                    cb.lessThan(key, value),
+                    cb.and(cb.equal(key, value), cb.lessThan(root.get("id"), cursor.id())));
+        };
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return value == null ? null : Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return value == null ? null : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
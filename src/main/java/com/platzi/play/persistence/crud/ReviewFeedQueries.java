@@ -0,0 +1,107 @@
+package com.platzi.play.persistence.crud;
+
+import com.platzi.play.domain.ReviewSort;
+import com.platzi.play.domain.dto.ReviewDto;
+import com.platzi.play.domain.exception.InvalidCursorException;
+import com.platzi.play.persistence.pagination.PageCursor;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Consultas del listado paginado por keyset de reseñas.
+ * Cada orden se recorre sobre un índice (movie_id | user_id, clave de orden, id), de modo que
+ * la posición del cursor se resuelve con una comparación de tuplas sobre el índice y el costo
+ * de una página no depende de cuántas se hayan recorrido antes.
+ */
+public final class ReviewFeedQueries {
+
+    /**
+     * Dueño del listado: las reseñas de una película o las de un usuario
+     */
+    public enum Owner {
+        MOVIE("r.movie.id"),
+        USER("r.user.id");
+
+        private final String path;
+
+        Owner(String path) {
+            this.path = path;
+        }
+    }
+
+    private static final String SELECT = "SELECT new com.platzi.play.domain.dto.ReviewDto(" +
+            "r.id, u.id, u.username, m.id, m.title, r.rating, r.comment, r.createdAt, r.updatedAt) " +
+            "FROM ReviewEntity r JOIN r.user u JOIN r.movie m ";
+
+    private ReviewFeedQueries() {
+    }
+
+    /**
+     * Construye la consulta de una página
+     * @param owner dueño del listado (filtra por el parámetro {@code ownerId})
+     * @param sort orden de la página
+     * @param afterCursor si se debe continuar desde la posición de un cursor
+     */
+    public static String jpql(Owner owner, ReviewSort sort, boolean afterCursor) {
+        StringBuilder jpql = new StringBuilder(SELECT)
+                .append("WHERE ").append(owner.path).append(" = :ownerId");
+        if (afterCursor) {
+            jpql.append(" AND (r.").append(property(sort)).append(", r.id) ")
+                    .append(descending(sort) ? "<" : ">")
+                    .append(" (:value, :lastId)");
+        }
+        String direction = descending(sort) ? " DESC" : " ASC";
+        return jpql.append(" ORDER BY r.").append(property(sort)).append(direction)
+                .append(", r.id").append(direction)
+                .toString();
+    }
+
+    public static void bindCursor(TypedQuery<ReviewDto> query, ReviewSort sort, PageCursor cursor) {
+        Object value = switch (sort) {
+            case NEWEST, OLDEST -> parseDateTime(cursor.value());
+            case HIGHEST_RATING, LOWEST_RATING -> parseInteger(cursor.value());
+        };
+        query.setParameter("value", value);
+        query.setParameter("lastId", cursor.id());
+    }
+
+    public static PageCursor cursorOf(ReviewSort sort, ReviewDto review) {
+        Object value = switch (sort) {
+            case NEWEST, OLDEST -> review.createdAt();
+            case HIGHEST_RATING, LOWEST_RATING -> review.rating();
+        };
+        return new PageCursor(sort.name(), review.id(), value.toString());
+    }
+
+    private static String property(ReviewSort sort) {
+        return switch (sort) {
+            case NEWEST, OLDEST -> "createdAt";
+            case HIGHEST_RATING, LOWEST_RATING -> "rating";
+        };
+    }
+
+    private static boolean descending(ReviewSort sort) {
+        return sort == ReviewSort.NEWEST || sort == ReviewSort.HIGHEST_RATING;
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        if (value == null) {
+            throw new InvalidCursorException();
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    private static Integer parseInteger(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
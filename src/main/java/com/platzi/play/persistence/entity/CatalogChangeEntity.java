@@ -0,0 +1,38 @@
+package com.platzi.play.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Escritura de un catálogo, insertada en la misma transacción que los datos.
+ * Solo se insertan filas nuevas: dos escrituras concurrentes nunca esperan una por la otra.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "catalog_changes", indexes = {
+        @Index(name = "idx_catalog_changes_catalog_changed", columnList = "catalog, changed_at")
+})
+public class CatalogChangeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "catalog_changes_id_gen")
+    @SequenceGenerator(name = "catalog_changes_id_gen", sequenceName = "catalog_changes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "catalog", nullable = false, length = 20)
+    private String catalog;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    public CatalogChangeEntity(String catalog, Instant changedAt) {
+        this.catalog = catalog;
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,36 @@
+package com.platzi.play.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Versión base de un catálogo compartida por todas las instancias de la aplicación: las escrituras
+ * no la modifican, la compactación le suma las filas de {@link CatalogChangeEntity} que borra.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "catalog_versions")
+public class CatalogVersionEntity {
+
+    @Id
+    @Column(name = "catalog", length = 20)
+    private String catalog;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public CatalogVersionEntity(String catalog, Long version, Instant updatedAt) {
+        this.catalog = catalog;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -11,11 +13,19 @@ import java.time.LocalDate;
 @Entity
 @Getter
 @Setter
-@Table(name = "movies")
+@Table(name = "movies", indexes = {
+        @Index(name = "idx_movies_genre_status", columnList = "genre, status"),
+        @Index(name = "idx_movies_popularity_id", columnList = "popularity, id"),
+        @Index(name = "idx_movies_release_date_id", columnList = "release_date, id"),
+        @Index(name = "idx_movies_title_id", columnList = "title, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "movies")
 public class MovieEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movies_id_gen")
+    @SequenceGenerator(name = "movies_id_gen", sequenceName = "movies_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 150)
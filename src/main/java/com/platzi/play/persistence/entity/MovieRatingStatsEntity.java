@@ -0,0 +1,56 @@
+package com.platzi.play.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Estadísticas materializadas de las reviews de una película.
+ * Se actualizan de forma incremental en cada escritura de review,
+ * por lo que leer el promedio o el conteo no requiere agregar la tabla reviews.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "movie_rating_stats")
+public class MovieRatingStatsEntity {
+
+    @Id
+    @Column(name = "movie_id")
+    private Long movieId;
+
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount = 0L;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+
+    // Histograma de calificaciones (1-5 estrellas)
+    @Column(name = "rating_1", nullable = false)
+    private Long rating1 = 0L;
+
+    @Column(name = "rating_2", nullable = false)
+    private Long rating2 = 0L;
+
+    @Column(name = "rating_3", nullable = false)
+    private Long rating3 = 0L;
+
+    @Column(name = "rating_4", nullable = false)
+    private Long rating4 = 0L;
+
+    @Column(name = "rating_5", nullable = false)
+    private Long rating5 = 0L;
+
+    public MovieRatingStatsEntity(Long movieId) {
+        this.movieId = movieId;
+    }
+
+    /**
+     * Promedio de calificaciones, o null si la película no tiene reviews
+     */
+    public Double getAverageRating() {
+        return reviewCount == 0 ? null : (double) ratingSum / reviewCount;
+    }
+}
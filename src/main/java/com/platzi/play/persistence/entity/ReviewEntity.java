@@ -11,7 +11,12 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_movie_created_id", columnList = "movie_id, created_at, id"),
+        @Index(name = "idx_reviews_movie_rating_id", columnList = "movie_id, rating, id"),
+        @Index(name = "idx_reviews_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_reviews_user_rating_id", columnList = "user_id, rating, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,7 +24,8 @@ import java.time.LocalDateTime;
 public class ReviewEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reviews_id_gen")
+    @SequenceGenerator(name = "reviews_id_gen", sequenceName = "reviews_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -3,6 +3,10 @@ package com.platzi.play.persistence.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,12 +19,18 @@ import java.util.List;
 @Getter
 @Setter
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-username")
 public class UserEntity implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_gen")
+    @SequenceGenerator(name = "users_id_gen", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
+    // Natural id: la búsqueda por username se resuelve desde la caché de segundo nivel
+    @NaturalId
     @Column(nullable = false, unique = true, length = 100)
     private String username;
 
@@ -40,7 +50,9 @@ public class UserEntity implements UserDetails {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime fechaCreacion;
 
-    @Column(name = "last_access")
+    // Solo se escribe al crear el usuario y desde LastAccessBuffer: un UPDATE de la entidad
+    // completa no debe pisar un acceso más reciente registrado en lote
+    @Column(name = "last_access", updatable = false)
     private LocalDateTime ultimoAcceso;
 
     @Column(name = "active", nullable = false)
@@ -49,6 +61,10 @@ public class UserEntity implements UserDetails {
     @Column(name = "email_verified", nullable = false)
     private Boolean emailVerificado = false;
 
+    // Se incrementa cuando cambia el rol o el estado de la cuenta; invalida los tokens emitidos antes
+    @Column(name = "account_version")
+    private Long accountVersion = 0L;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
@@ -17,6 +17,14 @@ public class GenreMapper {
             case "ANIMADA" -> Genre.ANIMATED;
             case "TERROR" -> Genre.HORROR;
             case "CIENCIA_FICCION" -> Genre.SCI_FI;
+            case "SUSPENSO" -> Genre.THRILLER;
+            case "ROMANCE" -> Genre.ROMANCE;
+            case "AVENTURA" -> Genre.ADVENTURE;
+            case "FANTASIA" -> Genre.FANTASY;
+            case "MISTERIO" -> Genre.MYSTERY;
+            case "CRIMEN" -> Genre.CRIME;
+            case "DOCUMENTAL" -> Genre.DOCUMENTARY;
+            case "OTRO" -> Genre.OTHER;
             default -> null;
         };
     }
@@ -32,7 +40,14 @@ public class GenreMapper {
             case HORROR -> "TERROR";
             case ANIMATED -> "ANIMADA";
             case SCI_FI -> "CIENCIA_FICCION";
-            default -> null;
+            case THRILLER -> "SUSPENSO";
+            case ROMANCE -> "ROMANCE";
+            case ADVENTURE -> "AVENTURA";
+            case FANTASY -> "FANTASIA";
+            case MYSTERY -> "MISTERIO";
+            case CRIME -> "CRIMEN";
+            case DOCUMENTARY -> "DOCUMENTAL";
+            case OTHER -> "OTRO";
         };
     }
 }
\ No newline at end of file
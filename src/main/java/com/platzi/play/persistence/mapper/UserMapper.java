@@ -21,5 +21,6 @@ public interface UserMapper {
 
     @Mapping(target = "password", ignore = true) // No mapear la contraseña por seguridad
     @Mapping(target = "authorities", ignore = true) // Ignorar authorities de UserDetails
+    @Mapping(target = "accountVersion", ignore = true) // Lo incrementa el repositorio al cambiar rol o estado
     UserEntity toEntity(UserDto dto);
 }
@@ -0,0 +1,45 @@
+package com.platzi.play.persistence.pagination;
+
+import com.platzi.play.domain.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición de la última fila entregada en una paginación por keyset.
+ * Se serializa como Base64 URL-safe con el formato {@code orden:id:valor},
+ * donde un valor vacío representa una clave de orden nula.
+ *
+ * @param sort nombre del orden con el que se generó el cursor
+ * @param id id de la última fila (desempate)
+ * @param value valor de la clave de orden de la última fila, o null
+ */
+public record PageCursor(String sort, Long id, String value) {
+
+    public String encode() {
+        String raw = sort + ":" + id + ":" + (value == null ? "" : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente
+     * @param cursor cursor codificado (puede ser null o vacío para la primera página)
+     * @param expectedSort orden de la consulta actual
+     * @return cursor decodificado o null si es la primera página
+     */
+    public static PageCursor decode(String cursor, String expectedSort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3 || !parts[0].equals(expectedSort)) {
+                throw new InvalidCursorException();
+            }
+            return new PageCursor(parts[0], Long.valueOf(parts[1]), parts[2].isEmpty() ? null : parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
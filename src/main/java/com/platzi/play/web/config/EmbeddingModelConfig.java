@@ -0,0 +1,19 @@
+package com.platzi.play.web.config;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.allminilml6v2q.AllMiniLmL6V2QuantizedEmbeddingModel;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Modelo de embeddings local (all-MiniLM-L6-v2 cuantizado, ONNX) para el índice vectorial
+ * del catálogo. Corre dentro de la JVM: no usa red ni consume cuota de la API de IA.
+ */
+@Configuration
+public class EmbeddingModelConfig {
+
+    @Bean
+    public EmbeddingModel embeddingModel() {
+        return new AllMiniLmL6V2QuantizedEmbeddingModel();
+    }
+}
@@ -1,11 +1,16 @@
 package com.platzi.play.web.config;
 
+import com.platzi.play.domain.repository.UserRepository;
 import com.platzi.play.domain.service.JwtService;
+import com.platzi.play.persistence.entity.UserEntity;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,13 +21,28 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Objects;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final boolean statelessPrincipal;
+    private final MeterRegistry meterRegistry;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   UserRepository userRepository,
+                                   @Value("${jwt.stateless-principal.enabled:true}") boolean statelessPrincipal,
+                                   MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.userRepository = userRepository;
+        this.statelessPrincipal = statelessPrincipal;
+        this.meterRegistry = meterRegistry;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -32,7 +52,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        final Claims claims;
 
         // Si no hay header Authorization o no empieza con Bearer, continuar
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -40,16 +60,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Extraer el token JWT
+        // Extraer el token JWT y verificarlo una sola vez (el resultado queda en caché)
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        Timer.Sample verification = Timer.start(meterRegistry);
+        claims = jwtService.verifyToken(jwt);
+        verification.stop(meterRegistry.timer("security.jwt.verification", "outcome", claims != null ? "valid" : "invalid"));
 
-        // Si tenemos username y no hay autenticación en el contexto
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        // Si el token es válido y no hay autenticación en el contexto
+        if (claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolvePrincipal(claims);
 
             // Validar el token
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (userDetails != null && jwtService.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -62,5 +84,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
-}
 
+    /**
+     * Obtiene el usuario autenticado. Si el token trae id, rol y versión de cuenta vigentes,
+     * el usuario se construye desde los claims; solo se consulta la base de datos cuando
+     * la versión no coincide o el token no incluye esos claims.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        Long tokenVersion = jwtService.extractAccountVersion(claims);
+        if (statelessPrincipal) {
+            UserEntity principal = jwtService.extractPrincipal(claims);
+            if (principal != null && tokenVersion.equals(userRepository.getAccountVersion(principal.getId()))) {
+                return principal;
+            }
+        }
+
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+
+        // Token emitido antes de un cambio de rol o de estado de la cuenta
+        if (tokenVersion != null && userDetails instanceof UserEntity user
+                && !tokenVersion.equals(Objects.requireNonNullElse(user.getAccountVersion(), 0L))) {
+            return null;
+        }
+        return userDetails;
+    }
+}
@@ -0,0 +1,65 @@
+package com.platzi.play.web.config;
+
+import com.platzi.play.domain.service.PlatziPlayAiService;
+import dev.langchain4j.service.TokenStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * Métricas que no cubre la instrumentación automática de Actuator.
+ * <p>
+ * Las peticiones HTTP del API ya se registran en {@code http.server.requests}; aquí se envuelve
+ * el servicio de IA (un proxy generado por LangChain4j) para medir cada invocación al modelo
+ * en {@code ai.service.invocations}, etiquetada por método y resultado. Los métodos que devuelven
+ * un {@link TokenStream} no se miden: retornan antes de llamar al modelo, y el primer token y el
+ * resultado del streaming los registra {@link TokenStreamSseBridge}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    static BeanPostProcessor aiServiceMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof PlatziPlayAiService)) {
+                    return bean;
+                }
+                return Proxy.newProxyInstance(
+                        PlatziPlayAiService.class.getClassLoader(),
+                        new Class<?>[]{PlatziPlayAiService.class},
+                        (proxy, method, args) -> {
+                            if (method.getDeclaringClass() == Object.class
+                                    || TokenStream.class.isAssignableFrom(method.getReturnType())) {
+                                try {
+                                    return method.invoke(bean, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                            }
+                            MeterRegistry registry = meterRegistry.getObject();
+                            Timer.Sample sample = Timer.start(registry);
+                            String outcome = "success";
+                            try {
+                                return method.invoke(bean, args);
+                            } catch (InvocationTargetException e) {
+                                outcome = "error";
+                                throw e.getCause();
+                            } finally {
+                                sample.stop(Timer.builder("ai.service.invocations")
+                                        .description("Invocaciones al modelo de IA")
+                                        .tags("method", method.getName(), "outcome", outcome)
+                                        .register(registry));
+                            }
+                        });
+            }
+        };
+    }
+}
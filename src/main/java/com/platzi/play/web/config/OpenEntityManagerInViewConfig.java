@@ -0,0 +1,33 @@
+package com.platzi.play.web.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-in-view para todo el API salvo GET /movies/export.
+ * <p>
+ * Con open-in-view, Hibernate retiene la conexión desde la primera consulta hasta el fin de la
+ * petición. La exportación lee el catálogo por bloques en transacciones cortas y escribe cada
+ * bloque al cliente sin conexión: si quedara dentro del interceptor, una descarga lenta ocuparía
+ * una conexión del pool hasta terminar. Reemplaza al interceptor de Spring Boot
+ * ({@code spring.jpa.open-in-view=false}), que no admite excluir rutas.
+ */
+@Configuration
+public class OpenEntityManagerInViewConfig implements WebMvcConfigurer {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public OpenEntityManagerInViewConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor).excludePathPatterns("/movies/export");
+    }
+}
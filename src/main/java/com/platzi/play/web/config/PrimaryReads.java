@@ -0,0 +1,47 @@
+package com.platzi.play.web.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca las lecturas del hilo actual que deben ir al primario aunque vengan de un componente
+ * enrutado a réplicas.
+ * <p>
+ * Las respuestas con ETag se etiquetan con la versión del catálogo, que se lee del primario: si
+ * los datos salieran de una réplica atrasada, el cliente guardaría datos viejos con el ETag nuevo
+ * y recibiría 304 hasta la siguiente escritura.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> reads) {
+        Boolean previous = ACTIVE.get();
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) {
+                ACTIVE.remove();
+            } else {
+                ACTIVE.set(previous);
+            }
+        }
+    }
+
+    public static void run(Runnable reads) {
+        call(() -> {
+            reads.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return true si el hilo actual está dentro de {@link #call} o {@link #run}
+     */
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,110 @@
+package com.platzi.play.web.config;
+
+import com.platzi.play.domain.service.ReviewService;
+import com.platzi.play.domain.service.UserService;
+import com.platzi.play.persistence.MovieEntityRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Réplicas de lectura (se activa al definir {@code datasource.replicas.urls}).
+ * <p>
+ * El DataSource de la aplicación es un {@link LazyConnectionDataSourceProxy}: la conexión real
+ * se pide recién en la primera sentencia, cuando ya se sabe si la transacción es de solo lectura.
+ * Las transacciones {@code @Transactional(readOnly = true)} de {@link ReviewService},
+ * {@link UserService} y de las lecturas de {@link MovieEntityRepository} van a una réplica,
+ * salvo las de respuestas con ETag ({@link PrimaryReads}); todo lo demás, al primario. MovieService no se anota: un proxy transaccional ocultaría sus
+ * métodos {@code @Tool} a LangChain4j, que los busca en la clase concreta del bean.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replicas.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Value("${datasource.replicas.urls}")
+    private String replicaUrls;
+
+    @Value("${datasource.replicas.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replicas.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replicas.maximum-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${datasource.replicas.connection-timeout:2s}")
+    private Duration replicaConnectionTimeout;
+
+    @Value("${datasource.replicas.retry-after:30s}")
+    private Duration replicaRetryAfter;
+
+    @Value("${datasource.replicas.sticky-window:5s}")
+    private Duration stickyWindow;
+
+    @Bean(destroyMethod = "close", defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(stickyWindow);
+    }
+
+    @Bean(destroyMethod = "close", defaultCandidate = false)
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             ReadYourWritesTracker readYourWritesTracker) {
+        List<String> urls = Arrays.stream(replicaUrls.split(",")).map(String::strip).filter(url -> !url.isEmpty()).toList();
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(urls.get(i))
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(replicaConnectionTimeout.toMillis());
+            // Una réplica caída al arrancar no impide levantar la aplicación: se usa el primario
+            replica.setInitializationFailTimeout(-1);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource(properties), replicas,
+                Set.of(ReviewService.class.getName(), UserService.class.getName(), MovieEntityRepository.class.getName()),
+                readYourWritesTracker, replicaRetryAfter);
+    }
+
+    @Bean
+    public ReplicaReadCacheGuard replicaReadCacheGuard(EntityManagerFactory entityManagerFactory,
+                                                       ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaReadCacheGuard(entityManagerFactory, replicaRoutingDataSource);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource(properties));
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,59 @@
+package com.platzi.play.web.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Impide que lo leído de una réplica entre en la caché de segundo nivel de Hibernate.
+ * <p>
+ * Una réplica atrasada devuelve la versión previa a una escritura ya confirmada en el primario;
+ * si se guardara en la caché se seguiría sirviendo hasta que expire la región. Las transacciones
+ * que van a una réplica leen de la caché pero no la llenan ({@link CacheMode#GET}).
+ */
+public class ReplicaReadCacheGuard implements TransactionExecutionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    public ReplicaReadCacheGuard(EntityManagerFactory entityManagerFactory,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, @Nullable Throwable beginFailure) {
+        if (beginFailure == null && transaction.isReadOnly() && replicaRoutingDataSource.routesToReplica()) {
+            setCacheMode(CacheMode.GET);
+        }
+    }
+
+    // Con open-in-view la sesión sobrevive a la transacción: se restaura el modo normal
+    @Override
+    public void beforeCommit(TransactionExecution transaction) {
+        restore(transaction);
+    }
+
+    @Override
+    public void beforeRollback(TransactionExecution transaction) {
+        restore(transaction);
+    }
+
+    private void restore(TransactionExecution transaction) {
+        if (transaction.isReadOnly()) {
+            setCacheMode(CacheMode.NORMAL);
+        }
+    }
+
+    private void setCacheMode(CacheMode cacheMode) {
+        if (TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder holder) {
+            holder.getEntityManager().unwrap(Session.class).setCacheMode(cacheMode);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.platzi.play.web.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Origen de conexiones de solo lectura: reparte en round-robin entre las réplicas las
+ * transacciones de solo lectura abiertas por los componentes indicados.
+ * <p>
+ * Usa el primario cuando la transacción viene de otro componente, cuando se lee dentro de
+ * {@link PrimaryReads}, cuando el usuario actual acaba de escribir (ver
+ * {@link ReadYourWritesTracker}) o cuando no hay ninguna réplica
+ * disponible; una réplica que falla queda fuera de la rotación durante {@code retryAfter}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final Set<String> routedComponents;
+    private final ReadYourWritesTracker tracker;
+    private final long retryAfterNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLongArray downUntil;
+
+    /**
+     * @param routedComponents nombres de clase de los beans cuyas lecturas pueden ir a una réplica
+     */
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    Set<String> routedComponents, ReadYourWritesTracker tracker,
+                                    Duration retryAfter) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.routedComponents = Set.copyOf(routedComponents);
+        this.tracker = tracker;
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.downUntil = new AtomicLongArray(replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routesToReplica()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (start + i) % replicas.size();
+            long until = downUntil.get(index);
+            if (until != 0 && System.nanoTime() - until < 0) {
+                continue;
+            }
+            HikariDataSource replica = replicas.get(index);
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                downUntil.set(index, System.nanoTime() + retryAfterNanos);
+                log.warn("Réplica {} no disponible: {}", replica.getPoolName(), e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    /**
+     * @return true si la transacción de solo lectura actual leería de una réplica
+     */
+    public boolean routesToReplica() {
+        return isRoutable() && !tracker.isCurrentUserSticky();
+    }
+
+    // Las réplicas usan las credenciales de su pool: con credenciales explícitas se va al primario
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    // El nombre de la transacción es "<clase>.<método>" del bean que la abrió
+    private boolean isRoutable() {
+        if (PrimaryReads.isActive()) {
+            return false;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (name == null) {
+            return false;
+        }
+        int separator = name.lastIndexOf('.');
+        return separator > 0 && routedComponents.contains(name.substring(0, separator));
+    }
+}
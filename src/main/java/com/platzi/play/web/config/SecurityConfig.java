@@ -1,6 +1,9 @@
 package com.platzi.play.web.config;
 
 import com.platzi.play.persistence.UserEntityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,6 +35,7 @@ public class SecurityConfig {
 
     private final UserEntityRepository userRepository;
     private final CustomAuthenticationEntryPoint authenticationEntryPoint;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthFilter) throws Exception {
@@ -39,6 +43,9 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
+                // Despachos asíncronos (SSE) de una petición que ya fue autorizada
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Endpoints públicos
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/hello").permitAll()
@@ -48,8 +55,13 @@ public class SecurityConfig {
                 .requestMatchers("/api-docs/**").permitAll()
                 .requestMatchers("/swagger-resources/**").permitAll()
                 .requestMatchers("/webjars/**").permitAll()
+
+                // Actuator: solo la salud es pública; las métricas (incluido Prometheus) requieren ADMIN
+                .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 
                 // Endpoints de películas - Solo lectura público, CRUD solo para ADMIN
+                .requestMatchers(HttpMethod.GET, "/movies/export").hasRole("ADMIN") // Exportación completa solo para administradores
                 .requestMatchers(HttpMethod.GET, "/movies", "/movies/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/movies").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/movies/**").hasRole("ADMIN")
@@ -62,6 +74,9 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.PUT, "/reviews/**").authenticated()
                 .requestMatchers(HttpMethod.DELETE, "/reviews/**").authenticated()
                 
+                // Endpoints de administración
+                .requestMatchers("/admin/**").hasRole("ADMIN")
+                
                 // Todos los demás endpoints requieren autenticación
                 .anyRequest().authenticated()
             )
@@ -101,7 +116,9 @@ public class SecurityConfig {
     @Bean
     public UserDetailsService userDetailsService() {
         return username -> {
+            Timer.Sample lookup = Timer.start(meterRegistry);
             com.platzi.play.persistence.entity.UserEntity user = userRepository.getEntityByUsernameOrEmail(username);
+            lookup.stop(meterRegistry.timer("security.user.lookup", "outcome", user != null ? "found" : "not_found"));
             if (user == null) {
                 throw new UsernameNotFoundException("Usuario no encontrado: " + username);
             }
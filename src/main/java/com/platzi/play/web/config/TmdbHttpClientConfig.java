@@ -0,0 +1,84 @@
+package com.platzi.play.web.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Cliente HTTP para TMDB: conexiones reutilizables (keep-alive) en un pool acotado por host
+ * y timeouts de conexión y lectura, para que una respuesta lenta de TMDB no bloquee
+ * indefinidamente un hilo de Tomcat. Cada llamada queda registrada en las métricas
+ * {@code tmdb.client.*} (ver {@link TmdbMetricsInterceptor}).
+ */
+@Configuration
+public class TmdbHttpClientConfig {
+
+    @Value("${tmdb.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${tmdb.http.max-connections-per-host:20}")
+    private int maxConnectionsPerHost;
+
+    @Value("${tmdb.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${tmdb.http.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${tmdb.http.pool-acquire-timeout:2s}")
+    private Duration poolAcquireTimeout;
+
+    @Value("${tmdb.http.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${tmdb.http.gzip:true}")
+    private boolean gzip;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient tmdbHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerHost)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(keepAlive.multipliedBy(10)))
+                        .build())
+                .build();
+
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive));
+        if (!gzip) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public RestTemplate tmdbRestTemplate(CloseableHttpClient tmdbHttpClient, MeterRegistry meterRegistry) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(tmdbHttpClient));
+        restTemplate.getInterceptors().add(new TmdbMetricsInterceptor(meterRegistry));
+        return restTemplate;
+    }
+}
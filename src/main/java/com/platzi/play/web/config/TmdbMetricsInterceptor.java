@@ -0,0 +1,160 @@
+package com.platzi.play.web.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Registra la latencia, el código de estado y los bytes recibidos de cada llamada a TMDB.
+ * <p>
+ * La latencia se mide hasta que se termina de leer el cuerpo, no solo hasta las cabeceras.
+ * Los bytes son los del cuerpo ya descomprimido. El endpoint se etiqueta con la ruta
+ * normalizada (los IDs numéricos se reemplazan por {@code {id}}), para que ni la API key
+ * ni el texto buscado terminen en las etiquetas de las métricas.
+ */
+class TmdbMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String REQUESTS = "tmdb.client.requests";
+    static final String RESPONSE_SIZE = "tmdb.client.response.size";
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final MeterRegistry meterRegistry;
+
+    TmdbMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String endpoint = endpoint(request.getURI());
+        long start = System.nanoTime();
+        try {
+            return new MeteredResponse(execution.execute(request, body), endpoint, start);
+        } catch (IOException e) {
+            // Timeout, conexión rechazada o pool agotado: no hay código de estado
+            timer(endpoint, "IO_ERROR", Outcome.UNKNOWN.name()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    static String endpoint(URI uri) {
+        String path = uri.getPath();
+        return path == null || path.isEmpty() ? "/" : NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    private Timer timer(String endpoint, String status, String outcome) {
+        return Timer.builder(REQUESTS)
+                .description("Llamadas a la API de TMDB")
+                .tags("endpoint", endpoint, "status", status, "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Respuesta que cuenta los bytes leídos y registra las métricas al cerrarse
+     */
+    private final class MeteredResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final String endpoint;
+        private final long start;
+        private long bytes;
+        private boolean recorded;
+        private InputStream body;
+
+        private MeteredResponse(ClientHttpResponse delegate, String endpoint, long start) {
+            this.delegate = delegate;
+            this.endpoint = endpoint;
+            this.start = start;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterInputStream(delegate.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        int value = super.read();
+                        if (value >= 0) {
+                            bytes++;
+                        }
+                        return value;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int read = super.read(buffer, offset, length);
+                        if (read > 0) {
+                            bytes += read;
+                        }
+                        return read;
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                record();
+            }
+        }
+
+        private void record() {
+            if (recorded) {
+                return;
+            }
+            recorded = true;
+            String status;
+            String outcome;
+            try {
+                int code = delegate.getStatusCode().value();
+                status = String.valueOf(code);
+                outcome = Outcome.forStatus(code).name();
+            } catch (IOException e) {
+                status = "IO_ERROR";
+                outcome = Outcome.UNKNOWN.name();
+            }
+            timer(endpoint, status, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder(RESPONSE_SIZE)
+                    .description("Bytes recibidos en el cuerpo de las respuestas de TMDB")
+                    .baseUnit("bytes")
+                    .tags("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .record(bytes);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.platzi.play.web.config;
+
+import dev.langchain4j.service.TokenStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reenvía una respuesta del modelo como Server-Sent Events a medida que llegan los fragmentos.
+ * <p>
+ * Eventos: {@code token} con {@code {"text": ...}} por cada fragmento, {@code done} al terminar
+ * y {@code error} si el modelo falla. La petición HTTP queda en modo asíncrono, así que no ocupa
+ * un hilo de Tomcat mientras el modelo genera. Si el cliente se desconecta o vence el timeout,
+ * el resto de fragmentos se descarta sin escribir en la conexión.
+ */
+@Slf4j
+@Component
+public class TokenStreamSseBridge {
+
+    static final String TOKEN_EVENT = "token";
+    static final String DONE_EVENT = "done";
+    static final String ERROR_EVENT = "error";
+
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+
+    public TokenStreamSseBridge(@Value("${ai.stream.timeout:60s}") Duration timeout, MeterRegistry meterRegistry) {
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public SseEmitter stream(TokenStream tokenStream) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        AtomicBoolean closed = new AtomicBoolean();
+        AtomicBoolean firstToken = new AtomicBoolean(true);
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        emitter.onCompletion(() -> finish(closed, "cancelled"));
+        emitter.onError(error -> finish(closed, "cancelled"));
+        emitter.onTimeout(() -> {
+            if (finish(closed, "timeout")) {
+                emitter.complete();
+            }
+        });
+
+        tokenStream
+                .onPartialResponse(text -> {
+                    if (firstToken.compareAndSet(true, false)) {
+                        sample.stop(meterRegistry.timer("ai.stream.first.token"));
+                    }
+                    send(emitter, closed, SseEmitter.event().name(TOKEN_EVENT).data(Map.of("text", text), MediaType.APPLICATION_JSON));
+                })
+                .onCompleteResponse(response -> {
+                    if (send(emitter, closed, SseEmitter.event().name(DONE_EVENT).data("")) && finish(closed, "completed")) {
+                        emitter.complete();
+                    }
+                })
+                .onError(error -> {
+                    log.warn("Falló la generación en streaming: {}", error.getMessage());
+                    if (send(emitter, closed, SseEmitter.event().name(ERROR_EVENT)
+                            .data(Map.of("message", "No se pudo generar la respuesta"), MediaType.APPLICATION_JSON))
+                            && finish(closed, "error")) {
+                        emitter.complete();
+                    }
+                })
+                .start();
+        return emitter;
+    }
+
+    // Una escritura fallida significa que el cliente cerró la conexión: se deja de reenviar
+    private boolean send(SseEmitter emitter, AtomicBoolean closed, SseEmitter.SseEventBuilder event) {
+        if (closed.get()) {
+            return false;
+        }
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            finish(closed, "cancelled");
+            return false;
+        }
+    }
+
+    // Registra el resultado solo la primera vez que se cierra el stream
+    private boolean finish(AtomicBoolean closed, String outcome) {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        meterRegistry.counter("ai.stream.completions", "outcome", outcome).increment();
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+package com.platzi.play.web.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Detecta hilos virtuales que quedan fijados (pinned) a su hilo carrier mientras bloquean,
+ * por ejemplo al esperar I/O dentro de un bloque {@code synchronized} o de código nativo.
+ * <p>
+ * Se suscribe al evento JFR {@code jdk.VirtualThreadPinned} y, por cada bloqueo que supera
+ * el umbral, registra la métrica {@code virtual.threads.pinned} etiquetada con el primer
+ * frame del código de la aplicación (o el frame superior si el bloqueo ocurre en una librería)
+ * y deja una advertencia en el log. Solo se activa con {@code spring.threads.virtual.enabled=true}
+ * sobre Java 21 o superior y {@code virtual-threads.pinning.monitor.enabled=true}.
+ * <p>
+ * Queda apagado por defecto: el stream de JFR agrega un hilo que lee y procesa el repositorio de
+ * eventos cada segundo, y en VirtualThreadsLoadTest bajó de 147 a 43 req/s la carga sostenida con
+ * hilos virtuales en un solo núcleo. Conviene encenderlo en una instancia de prueba o por un
+ * tiempo acotado para diagnosticar pinning, no en todas las instancias de producción.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "virtual-threads.pinning.monitor.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String METRIC = "virtual.threads.pinned";
+
+    private static final String APPLICATION_PACKAGE = "com.platzi.play.";
+
+    private final MeterRegistry meterRegistry;
+    private final RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${virtual-threads.pinning.threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::record);
+        recording.startAsync();
+    }
+
+    @PreDestroy
+    void close() {
+        recording.close();
+    }
+
+    private void record(RecordedEvent event) {
+        String frame = pinningFrame(event.getStackTrace());
+        Timer.builder(METRIC)
+                .description("Bloqueos de hilos virtuales fijados a su carrier")
+                .tag("frame", frame)
+                .register(meterRegistry)
+                .record(event.getDuration());
+        log.warn("Hilo virtual fijado a su carrier durante {} ms en {}", event.getDuration().toMillis(), frame);
+    }
+
+    static String pinningFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
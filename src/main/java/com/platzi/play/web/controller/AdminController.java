@@ -0,0 +1,121 @@
+package com.platzi.play.web.controller;
+
+import com.platzi.play.domain.dto.BulkImportRequestDto;
+import com.platzi.play.domain.dto.BulkImportStatusDto;
+import com.platzi.play.domain.dto.EntityCacheRegionStatsDto;
+import com.platzi.play.domain.dto.TmdbCacheStatsDto;
+import com.platzi.play.domain.repository.EntityCacheRepository;
+import com.platzi.play.domain.service.ReviewService;
+import com.platzi.play.domain.service.TmdbBulkImportService;
+import com.platzi.play.domain.service.TmdbService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin")
+@Tag(name = "Admin", description = "Operaciones de mantenimiento (solo ADMIN)")
+public class AdminController {
+
+    private final ReviewService reviewService;
+    private final TmdbService tmdbService;
+    private final TmdbBulkImportService tmdbBulkImportService;
+    private final EntityCacheRepository entityCacheRepository;
+
+    public AdminController(ReviewService reviewService, TmdbService tmdbService, TmdbBulkImportService tmdbBulkImportService,
+                           EntityCacheRepository entityCacheRepository) {
+        this.reviewService = reviewService;
+        this.tmdbService = tmdbService;
+        this.tmdbBulkImportService = tmdbBulkImportService;
+        this.entityCacheRepository = entityCacheRepository;
+    }
+
+    @PostMapping("/rating-stats/rebuild")
+    @Operation(
+            summary = "Reconstruir estadísticas de calificaciones",
+            description = "Recalcula desde la tabla de reviews las estadísticas materializadas de todas las películas",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponse(responseCode = "200", description = "Estadísticas reconstruidas exitosamente")
+    @ApiResponse(responseCode = "401", description = "No autenticado", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Requiere rol ADMIN", content = @Content)
+    public ResponseEntity<Map<String, Integer>> rebuildRatingStats() {
+        int movies = reviewService.rebuildRatingStats();
+        return ResponseEntity.ok(Map.of("movies", movies));
+    }
+
+    @GetMapping("/tmdb-cache/stats")
+    @Operation(
+            summary = "Estadísticas de la caché de TMDB",
+            description = "Retorna aciertos, fallos, expulsiones y refrescos de la caché de respuestas de TMDB",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
+    @ApiResponse(responseCode = "401", description = "No autenticado", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Requiere rol ADMIN", content = @Content)
+    public ResponseEntity<TmdbCacheStatsDto> getTmdbCacheStats() {
+        return ResponseEntity.ok(tmdbService.getCacheStats());
+    }
+
+    @GetMapping("/entity-cache/stats")
+    @Operation(
+            summary = "Estadísticas de la caché de segundo nivel",
+            description = "Retorna por región (usuarios, usuarios por username, películas y consultas cacheadas) " +
+                    "los aciertos, fallos, inserciones y la tasa de aciertos de la caché de entidades de Hibernate",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
+    @ApiResponse(responseCode = "401", description = "No autenticado", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Requiere rol ADMIN", content = @Content)
+    public ResponseEntity<List<EntityCacheRegionStatsDto>> getEntityCacheStats() {
+        return ResponseEntity.ok(entityCacheRepository.getRegionStats());
+    }
+
+    @PostMapping("/tmdb-import")
+    @Operation(
+            summary = "Importación masiva desde TMDB",
+            description = "Inicia en segundo plano la importación de una lista de IDs de TMDB o de varias páginas de un listado " +
+                    "(populares, mejor calificadas, en cines o próximas). Las películas que ya existen se omiten. " +
+                    "Use el jobId devuelto para consultar el progreso.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponse(responseCode = "202", description = "Importación iniciada")
+    @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content)
+    @ApiResponse(responseCode = "401", description = "No autenticado", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Requiere rol ADMIN", content = @Content)
+    public ResponseEntity<BulkImportStatusDto> startTmdbImport(
+            @Parameter(description = "IDs de TMDB o listado a importar")
+            @RequestBody BulkImportRequestDto request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(tmdbBulkImportService.start(request));
+    }
+
+    @GetMapping("/tmdb-import/{jobId}")
+    @Operation(
+            summary = "Progreso de una importación masiva",
+            description = "Retorna los contadores de películas importadas, omitidas y fallidas, con el motivo de cada fallo",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponse(responseCode = "200", description = "Progreso obtenido exitosamente")
+    @ApiResponse(responseCode = "401", description = "No autenticado", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Requiere rol ADMIN", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Importación no encontrada", content = @Content)
+    public ResponseEntity<BulkImportStatusDto> getTmdbImportStatus(
+            @Parameter(description = "Identificador de la importación", example = "5f0c1c9e-2a7b-4d43-9b7e-3f1f2c8a9d10")
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(tmdbBulkImportService.getStatus(jobId));
+    }
+}
@@ -0,0 +1,37 @@
+package com.platzi.play.web.controller;
+
+import com.platzi.play.domain.service.CatalogVersions;
+import com.platzi.play.web.config.PrimaryReads;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * GET condicional (If-None-Match / If-Modified-Since) de las lecturas del catálogo.
+ * Se valida contra {@link CatalogVersions} antes de llamar al servicio, así un 304 no ejecuta
+ * consultas ni serializa la respuesta; si no, los datos se leen del primario ({@link PrimaryReads}).
+ * {@code no-cache} permite que el cliente guarde la respuesta pero lo obliga a revalidarla en cada uso.
+ */
+final class CatalogConditionalGet {
+
+    private CatalogConditionalGet() {
+    }
+
+    static <T> ResponseEntity<T> respond(WebRequest request, CatalogVersions versions, Supplier<ResponseEntity<T>> handler) {
+        // La versión se lee antes que los datos: si cambia a mitad de la lectura, el cliente revalidará de nuevo
+        String etag = versions.etag();
+        // checkNotModified agrega ETag y Last-Modified a la respuesta, haya o no cambios
+        if (request.checkNotModified(etag, versions.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+        // Los datos salen del primario, como la versión: una réplica atrasada los etiquetaría con el ETag nuevo
+        ResponseEntity<T> response = PrimaryReads.call(handler);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .cacheControl(CacheControl.noCache())
+                .body(response.getBody());
+    }
+}
@@ -1,24 +1,21 @@
 package com.platzi.play.web.controller;
 
-import com.platzi.play.domain.service.PlatziPlayAiService;
-import org.springframework.beans.factory.annotation.Value;
+import com.platzi.play.domain.service.GreetingService;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class HelloController {
 
-    private final String plataform;
-    private final PlatziPlayAiService aiService;
+    private final GreetingService greetingService;
 
-    public HelloController(@Value("${spring.application.name}")String plataform, PlatziPlayAiService aiService) {
-        this.plataform = plataform;
-        this.aiService = aiService;
+    public HelloController(GreetingService greetingService) {
+        this.greetingService = greetingService;
     }
 
     @GetMapping("/hello")
     public String hello() {
-        return this.aiService.generateGreeting(plataform);
+        return this.greetingService.getGreeting();
     }
 
 
@@ -1,21 +1,43 @@
     package com.platzi.play.web.controller;
 
+    import com.fasterxml.jackson.core.JsonGenerator;
+    import com.fasterxml.jackson.databind.ObjectMapper;
+    import com.platzi.play.domain.Genre;
+    import com.platzi.play.domain.MovieSort;
+    import com.platzi.play.domain.SearchMode;
+    import com.platzi.play.domain.dto.CursorPageDto;
     import com.platzi.play.domain.dto.MovieDto;
+    import com.platzi.play.domain.dto.MovieFilterDto;
+    import com.platzi.play.domain.dto.MovieSearchHitDto;
+    import com.platzi.play.domain.dto.MovieTitleSuggestionDto;
     import com.platzi.play.domain.dto.SuggestRequestDto;
     import com.platzi.play.domain.dto.UpdateMovieDto;
+    import com.platzi.play.domain.service.CatalogVersions;
     import com.platzi.play.domain.service.MovieService;
+    import com.platzi.play.domain.service.MovieSuggestionCache;
     import com.platzi.play.domain.service.PlatziPlayAiService;
+    import com.platzi.play.web.config.PrimaryReads;
+    import com.platzi.play.web.config.TokenStreamSseBridge;
     import dev.langchain4j.service.UserMessage;
     import io.swagger.v3.oas.annotations.Operation;
     import io.swagger.v3.oas.annotations.Parameter;
     import io.swagger.v3.oas.annotations.media.Content;
     import io.swagger.v3.oas.annotations.responses.ApiResponse;
     import io.swagger.v3.oas.annotations.tags.Tag;
+    import jakarta.servlet.http.HttpServletResponse;
     import jakarta.validation.Valid;
+    import org.springframework.http.CacheControl;
+    import org.springframework.http.HttpHeaders;
     import org.springframework.http.HttpStatus;
+    import org.springframework.http.MediaType;
     import org.springframework.http.ResponseEntity;
     import org.springframework.web.bind.annotation.*;
+    import org.springframework.web.context.request.WebRequest;
+    import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+    import java.io.IOException;
+    import java.io.UncheckedIOException;
+    import java.nio.charset.StandardCharsets;
     import java.util.List;
 
     @RestController
@@ -25,10 +47,20 @@
 
         private final MovieService movieService;
         private final PlatziPlayAiService  aiService;
+        private final TokenStreamSseBridge tokenStreamSseBridge;
+        private final MovieSuggestionCache movieSuggestionCache;
+        private final CatalogVersions catalogVersions;
+        private final ObjectMapper objectMapper;
 
-        public MovieController(MovieService movieService,  PlatziPlayAiService aiService) {
+        public MovieController(MovieService movieService,  PlatziPlayAiService aiService, TokenStreamSseBridge tokenStreamSseBridge,
+                               MovieSuggestionCache movieSuggestionCache, CatalogVersions catalogVersions,
+                               ObjectMapper objectMapper) {
             this.movieService = movieService;
             this.aiService = aiService;
+            this.tokenStreamSseBridge = tokenStreamSseBridge;
+            this.movieSuggestionCache = movieSuggestionCache;
+            this.catalogVersions = catalogVersions;
+            this.objectMapper = objectMapper;
         }
 
         @GetMapping
@@ -40,18 +72,123 @@
                         @ApiResponse(responseCode = "404", description = "No se encontraron películas", content = @Content)
                 }
         )
-        public ResponseEntity<List<MovieDto>> getAll() {
-            List<MovieDto> movies = this.movieService.getAll();
-            if (movies == null || movies.isEmpty()) {
-                return ResponseEntity.notFound().build();
+        public ResponseEntity<List<MovieDto>> getAll(WebRequest request) {
+            return CatalogConditionalGet.respond(request, this.catalogVersions, () -> {
+                List<MovieDto> movies = this.movieService.getAll();
+                if (movies == null || movies.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
+                return ResponseEntity.ok(movies);
+            });
+        }
+
+        @GetMapping("/export")
+        @Operation(
+                summary = "Exportar el catálogo completo en streaming",
+                description = "Retorna las mismas películas que GET /movies (ordenadas por id). Requiere rol ADMIN. El catálogo se lee por bloques, " +
+                        "cada uno en una transacción corta, y se escribe en la respuesta sin cargarlo completo en memoria ni retener " +
+                        "una conexión durante la descarga. " +
+                        "Un catálogo vacío devuelve []. Responde 304 si el catálogo no cambió desde el ETag indicado en If-None-Match.",
+                responses = {
+                        @ApiResponse(responseCode = "200", description = "Arreglo JSON de películas"),
+                        @ApiResponse(responseCode = "304", description = "El catálogo no cambió", content = @Content),
+                        @ApiResponse(responseCode = "403", description = "Requiere rol ADMIN", content = @Content)
+                }
+        )
+        public void exportAll(WebRequest request, HttpServletResponse response) throws IOException {
+            if (request.checkNotModified(this.catalogVersions.etag(), this.catalogVersions.lastModified())) {
+                return;
+            }
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+                generator.writeStartArray();
+                PrimaryReads.run(() -> this.movieService.exportAll(movie -> {
+                    try {
+                        generator.writeObject(movie);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+                generator.writeEndArray();
             }
-            return ResponseEntity.ok(movies);
+        }
+
+        @GetMapping("/page")
+        @Operation(
+                summary = "Obtener películas paginadas por cursor",
+                description = "Retorna una página de películas filtradas por género, disponibilidad, año de estreno y popularidad. " +
+                        "Use el campo nextCursor de la respuesta para solicitar la siguiente página.",
+                responses = {
+                        @ApiResponse(responseCode = "200", description = "Página de películas obtenida exitosamente"),
+                        @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
+                }
+        )
+        public ResponseEntity<CursorPageDto<MovieDto>> getPage(
+                @Parameter(description = "Género de la película", example = "DRAMA")
+                @RequestParam(required = false) Genre genre,
+                @Parameter(description = "Disponibilidad de la película", example = "true")
+                @RequestParam(required = false) Boolean available,
+                @Parameter(description = "Año de estreno", example = "1972")
+                @RequestParam(required = false) Integer releaseYear,
+                @Parameter(description = "Popularidad mínima en TMDB", example = "50.0")
+                @RequestParam(required = false) Double minPopularity,
+                @Parameter(description = "Orden de los resultados", example = "POPULARITY")
+                @RequestParam(required = false, defaultValue = "ID") MovieSort sort,
+                @Parameter(description = "Cursor devuelto por la página anterior")
+                @RequestParam(required = false) String cursor,
+                @Parameter(description = "Cantidad de películas por página (máximo 100)", example = "20")
+                @RequestParam(required = false, defaultValue = "20") Integer size) {
+            MovieFilterDto filter = new MovieFilterDto(genre, available, releaseYear, minPopularity);
+            return ResponseEntity.ok(this.movieService.getPage(filter, sort, cursor, size));
+        }
+
+        @GetMapping("/search")
+        @Operation(
+                summary = "Buscar películas en el catálogo local",
+                description = "Busca por título, título original, sinopsis y comentarios de reseñas, sin consultar TMDB. " +
+                        "Los resultados se ordenan por relevancia; use el campo nextCursor de la respuesta para solicitar la siguiente página. " +
+                        "El modo TYPO_TOLERANT busca solo en los títulos y tolera errores de tipeo.",
+                responses = {
+                        @ApiResponse(responseCode = "200", description = "Resultados obtenidos exitosamente"),
+                        @ApiResponse(responseCode = "400", description = "Texto de búsqueda o cursor inválido", content = @Content)
+                }
+        )
+        public ResponseEntity<CursorPageDto<MovieSearchHitDto>> search(
+                @Parameter(description = "Texto a buscar (2 a 200 caracteres)", example = "padrino mafia", required = true)
+                @RequestParam String q,
+                @Parameter(description = "Modo de búsqueda", example = "FULL_TEXT")
+                @RequestParam(required = false, defaultValue = "FULL_TEXT") SearchMode mode,
+                @Parameter(description = "Cursor devuelto por la página anterior")
+                @RequestParam(required = false) String cursor,
+                @Parameter(description = "Cantidad de resultados por página (máximo 100)", example = "20")
+                @RequestParam(required = false, defaultValue = "20") Integer size) {
+            return ResponseEntity.ok(this.movieService.search(q, mode, cursor, size));
+        }
+
+        @GetMapping("/typeahead")
+        @Operation(
+                summary = "Autocompletar títulos de películas",
+                description = "Sugiere películas cuyo título o título original tiene una palabra que empieza con el texto escrito, " +
+                        "sin distinguir mayúsculas ni tildes. Se resuelve en memoria y se ordena por popularidad en TMDB y cantidad de reseñas.",
+                responses = {
+                        @ApiResponse(responseCode = "200", description = "Sugerencias obtenidas exitosamente")
+                }
+        )
+        public ResponseEntity<List<MovieTitleSuggestionDto>> typeahead(
+                @Parameter(description = "Texto escrito por el usuario", example = "padr", required = true)
+                @RequestParam String q,
+                @Parameter(description = "Cantidad máxima de sugerencias (máximo 20)", example = "10")
+                @RequestParam(required = false, defaultValue = "10") Integer limit) {
+            return ResponseEntity.ok(this.movieService.typeahead(q, limit));
         }
 
         @PostMapping("/suggest")
         @Operation(
                 summary = "Generar sugerencias de películas con IA",
-                description = "Utiliza inteligencia artificial para generar recomendaciones de películas basadas en las preferencias del usuario",
+                description = "Utiliza inteligencia artificial para generar recomendaciones de películas basadas en las preferencias del usuario. " +
+                        "Preferencias iguales o muy parecidas a otras ya respondidas reciben la misma sugerencia desde caché",
                 responses = {
                         @ApiResponse(responseCode = "200", description = "Sugerencias generadas exitosamente"),
                         @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos", content = @Content)
@@ -60,7 +197,24 @@
         public ResponseEntity<String> generateMoviesSuggestion(
                 @Parameter(description = "Preferencias del usuario para generar sugerencias")
                 @Valid @RequestBody SuggestRequestDto suggestRequestDto) {
-            return ResponseEntity.ok(this.aiService.generateMovieSuggestion(suggestRequestDto.userPreferences()));
+            return ResponseEntity.ok(this.movieSuggestionCache.get(suggestRequestDto.userPreferences(),
+                    this.aiService::generateMovieSuggestion));
+        }
+
+        @PostMapping(value = "/suggest/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        @Operation(
+                summary = "Generar sugerencias de películas con IA en streaming",
+                description = "Igual que /movies/suggest, pero envía la respuesta como Server-Sent Events a medida que el modelo la genera: " +
+                        "un evento 'token' por fragmento ({\"text\": ...}), 'done' al terminar y 'error' si la generación falla",
+                responses = {
+                        @ApiResponse(responseCode = "200", description = "Stream de sugerencias iniciado"),
+                        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos", content = @Content)
+                }
+        )
+        public SseEmitter streamMoviesSuggestion(
+                @Parameter(description = "Preferencias del usuario para generar sugerencias")
+                @Valid @RequestBody SuggestRequestDto suggestRequestDto) {
+            return this.tokenStreamSseBridge.stream(this.aiService.streamMovieSuggestion(suggestRequestDto.userPreferences()));
         }
 
         @GetMapping("/{id}")
@@ -72,12 +226,15 @@
                         @ApiResponse(responseCode = "404", description = "Pelicula no encontrada", content = @Content)
                 }
         )
-        public ResponseEntity<MovieDto> getById(@Parameter(description = "Identificador de la pelicula a recuperar", example = "9") @PathVariable Long id) {
-            MovieDto movieDto = this.movieService.getById(id);
-            if(movieDto == null){
-                return ResponseEntity.notFound().build();
-            }
-            return ResponseEntity.ok(movieDto);
+        public ResponseEntity<MovieDto> getById(@Parameter(description = "Identificador de la pelicula a recuperar", example = "9") @PathVariable Long id,
+                                                WebRequest request) {
+            return CatalogConditionalGet.respond(request, this.catalogVersions, () -> {
+                MovieDto movieDto = this.movieService.getById(id);
+                if(movieDto == null){
+                    return ResponseEntity.notFound().build();
+                }
+                return ResponseEntity.ok(movieDto);
+            });
         }
 
         @PostMapping
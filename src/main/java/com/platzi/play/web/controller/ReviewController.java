@@ -1,8 +1,12 @@
 package com.platzi.play.web.controller;
 
+import com.platzi.play.domain.ReviewSort;
 import com.platzi.play.domain.dto.CreateReviewDto;
+import com.platzi.play.domain.dto.CursorPageDto;
+import com.platzi.play.domain.dto.MovieRatingStatsDto;
 import com.platzi.play.domain.dto.ReviewDto;
 import com.platzi.play.domain.dto.UpdateReviewDto;
+import com.platzi.play.domain.service.CatalogVersions;
 import com.platzi.play.domain.service.ReviewService;
 import com.platzi.play.persistence.entity.UserEntity;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,9 +30,11 @@ import java.util.List;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final CatalogVersions catalogVersions;
 
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, CatalogVersions catalogVersions) {
         this.reviewService = reviewService;
+        this.catalogVersions = catalogVersions;
     }
 
     @PostMapping
@@ -117,9 +124,30 @@ public class ReviewController {
     @ApiResponse(responseCode = "404", description = "Película no encontrada", content = @Content)
     public ResponseEntity<List<ReviewDto>> getReviewsByMovie(
             @Parameter(description = "ID de la película")
-            @PathVariable Long movieId) {
-        List<ReviewDto> reviews = reviewService.getReviewsByMovieId(movieId);
-        return ResponseEntity.ok(reviews);
+            @PathVariable Long movieId,
+            WebRequest request) {
+        return CatalogConditionalGet.respond(request, catalogVersions,
+                () -> ResponseEntity.ok(reviewService.getReviewsByMovieId(movieId)));
+    }
+
+    @GetMapping("/movie/{movieId}/page")
+    @Operation(
+            summary = "Obtener las reseñas de una película paginadas por cursor",
+            description = "Retorna una página de reseñas de la película en el orden indicado. " +
+                    "Use el campo nextCursor de la respuesta para solicitar la siguiente página."
+    )
+    @ApiResponse(responseCode = "200", description = "Página de reseñas obtenida exitosamente")
+    @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
+    public ResponseEntity<CursorPageDto<ReviewDto>> getReviewPageByMovie(
+            @Parameter(description = "ID de la película")
+            @PathVariable Long movieId,
+            @Parameter(description = "Orden de las reseñas", example = "NEWEST")
+            @RequestParam(required = false, defaultValue = "NEWEST") ReviewSort sort,
+            @Parameter(description = "Cursor devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de reseñas por página (máximo 100)", example = "20")
+            @RequestParam(required = false, defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(reviewService.getReviewPageByMovieId(movieId, sort, cursor, size));
     }
 
     @GetMapping("/user/{userId}")
@@ -136,6 +164,26 @@ public class ReviewController {
         return ResponseEntity.ok(reviews);
     }
 
+    @GetMapping("/user/{userId}/page")
+    @Operation(
+            summary = "Obtener las reseñas de un usuario paginadas por cursor",
+            description = "Retorna una página de reseñas creadas por el usuario en el orden indicado. " +
+                    "Use el campo nextCursor de la respuesta para solicitar la siguiente página."
+    )
+    @ApiResponse(responseCode = "200", description = "Página de reseñas obtenida exitosamente")
+    @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
+    public ResponseEntity<CursorPageDto<ReviewDto>> getReviewPageByUser(
+            @Parameter(description = "ID del usuario")
+            @PathVariable Long userId,
+            @Parameter(description = "Orden de las reseñas", example = "NEWEST")
+            @RequestParam(required = false, defaultValue = "NEWEST") ReviewSort sort,
+            @Parameter(description = "Cursor devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de reseñas por página (máximo 100)", example = "20")
+            @RequestParam(required = false, defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(reviewService.getReviewPageByUserId(userId, sort, cursor, size));
+    }
+
     @GetMapping("/user/{userId}/movie/{movieId}")
     @Operation(
             summary = "Obtener la reseña de un usuario para una película específica",
@@ -177,5 +225,16 @@ public class ReviewController {
         long count = reviewService.getMovieReviewCount(movieId);
         return ResponseEntity.ok(count);
     }
-}
 
+    @GetMapping("/movie/{movieId}/stats")
+    @Operation(
+            summary = "Obtener estadísticas de calificaciones de una película",
+            description = "Retorna la cantidad de reseñas, el promedio y la distribución de calificaciones de 1 a 5 estrellas"
+    )
+    @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
+    public ResponseEntity<MovieRatingStatsDto> getMovieRatingStats(
+            @Parameter(description = "ID de la película")
+            @PathVariable Long movieId) {
+        return ResponseEntity.ok(reviewService.getMovieRatingStats(movieId));
+    }
+}
@@ -2,10 +2,12 @@ package com.platzi.play.web.controller;
 
 import com.platzi.play.domain.dto.TmdbMovieDetailsDto;
 import com.platzi.play.domain.dto.TmdbSearchResponseDto;
+import com.platzi.play.domain.service.TmdbCache;
 import com.platzi.play.domain.service.TmdbService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -35,7 +37,7 @@ public class TmdbController {
             @RequestParam(required = false, defaultValue = "1") Integer page
     ) {
         TmdbSearchResponseDto response = tmdbService.searchMovies(query, page);
-        return ResponseEntity.ok(response);
+        return cached(response, TmdbCache.Endpoint.SEARCH, query, page);
     }
     
     @GetMapping("/movie/{tmdbId}")
@@ -48,7 +50,7 @@ public class TmdbController {
             @PathVariable Long tmdbId
     ) {
         TmdbMovieDetailsDto details = tmdbService.getMovieDetails(tmdbId);
-        return ResponseEntity.ok(details);
+        return cached(details, TmdbCache.Endpoint.DETAILS, String.valueOf(tmdbId), null);
     }
     
     @GetMapping("/popular")
@@ -61,7 +63,7 @@ public class TmdbController {
             @RequestParam(required = false, defaultValue = "1") Integer page
     ) {
         TmdbSearchResponseDto response = tmdbService.getPopularMovies(page);
-        return ResponseEntity.ok(response);
+        return cached(response, TmdbCache.Endpoint.POPULAR, null, page);
     }
     
     @GetMapping("/top-rated")
@@ -74,7 +76,7 @@ public class TmdbController {
             @RequestParam(required = false, defaultValue = "1") Integer page
     ) {
         TmdbSearchResponseDto response = tmdbService.getTopRatedMovies(page);
-        return ResponseEntity.ok(response);
+        return cached(response, TmdbCache.Endpoint.TOP_RATED, null, page);
     }
     
     @GetMapping("/now-playing")
@@ -87,7 +89,7 @@ public class TmdbController {
             @RequestParam(required = false, defaultValue = "1") Integer page
     ) {
         TmdbSearchResponseDto response = tmdbService.getNowPlayingMovies(page);
-        return ResponseEntity.ok(response);
+        return cached(response, TmdbCache.Endpoint.NOW_PLAYING, null, page);
     }
     
     @GetMapping("/upcoming")
@@ -100,7 +102,17 @@ public class TmdbController {
             @RequestParam(required = false, defaultValue = "1") Integer page
     ) {
         TmdbSearchResponseDto response = tmdbService.getUpcomingMovies(page);
-        return ResponseEntity.ok(response);
+        return cached(response, TmdbCache.Endpoint.UPCOMING, null, page);
+    }
+    
+    /**
+     * El cliente puede reutilizar la respuesta mientras siga fresca en la caché de TMDB;
+     * es privada porque estos endpoints requieren autenticación
+     */
+    private <T> ResponseEntity<T> cached(T body, TmdbCache.Endpoint endpoint, String query, Integer page) {
+        CacheControl cacheControl = CacheControl
+                .maxAge(tmdbService.getRemainingFreshness(endpoint, query, page))
+                .cachePrivate();
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body);
     }
 }
-
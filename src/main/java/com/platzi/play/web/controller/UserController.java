@@ -1,11 +1,14 @@
 package com.platzi.play.web.controller;
 
+import com.platzi.play.domain.ReviewSort;
+import com.platzi.play.domain.dto.CursorPageDto;
 import com.platzi.play.domain.dto.ReviewDto;
 import com.platzi.play.domain.dto.UpdateUserDto;
 import com.platzi.play.domain.dto.UserDto;
 import com.platzi.play.domain.service.UserService;
 import com.platzi.play.persistence.entity.UserEntity;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -81,4 +84,28 @@ public class UserController {
         List<ReviewDto> reviews = userService.getUserReviews(user.getId());
         return ResponseEntity.ok(reviews);
     }
+
+    @GetMapping("/me/reviews/page")
+    @Operation(
+            summary = "Obtener reviews del usuario actual paginadas por cursor",
+            description = "Retorna una página de reseñas creadas por el usuario autenticado en el orden indicado. " +
+                    "Use el campo nextCursor de la respuesta para solicitar la siguiente página.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponse(responseCode = "200", description = "Página de reviews obtenida exitosamente")
+    @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
+    @ApiResponse(responseCode = "401", description = "No autenticado", content = @Content)
+    public ResponseEntity<CursorPageDto<ReviewDto>> getCurrentUserReviewPage(
+            @AuthenticationPrincipal UserEntity user,
+            @Parameter(description = "Orden de las reseñas", example = "NEWEST")
+            @RequestParam(required = false, defaultValue = "NEWEST") ReviewSort sort,
+            @Parameter(description = "Cursor devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de reseñas por página (máximo 100)", example = "20")
+            @RequestParam(required = false, defaultValue = "20") Integer size) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(userService.getUserReviewPage(user.getId(), sort, cursor, size));
+    }
 }
@@ -1,5 +1,9 @@
 package com.platzi.play.web.exception;
 
+import com.platzi.play.domain.exception.BulkImportNotFoundException;
+import com.platzi.play.domain.exception.InvalidBulkImportException;
+import com.platzi.play.domain.exception.InvalidCursorException;
+import com.platzi.play.domain.exception.InvalidSearchQueryException;
 import com.platzi.play.domain.exception.MovieAlreadyException;
 import com.platzi.play.domain.exception.MovieNotFoundException;
 import com.platzi.play.domain.exception.MovieTitleAlreadyExistsException;
@@ -8,12 +12,16 @@ import com.platzi.play.domain.exception.ReviewNotFoundException;
 import com.platzi.play.domain.exception.UnauthorizedReviewAccessException;
 import com.platzi.play.domain.exception.UserAlreadyExistsException;
 import com.platzi.play.domain.exception.UserNotFoundException;
+import org.springframework.beans.TypeMismatchException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @RestControllerAdvice
@@ -67,6 +75,51 @@ public class RestExceptionHandler {
         return ResponseEntity.status(403).body(error);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Error> handleInvalidCursor(InvalidCursorException exception) {
+        Error error = new Error("invalid-cursor", exception.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    @ExceptionHandler(InvalidSearchQueryException.class)
+    public ResponseEntity<Error> handleInvalidSearchQuery(InvalidSearchQueryException exception) {
+        Error error = new Error("invalid-search-query", exception.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    @ExceptionHandler(InvalidBulkImportException.class)
+    public ResponseEntity<Error> handleInvalidBulkImport(InvalidBulkImportException exception) {
+        Error error = new Error("invalid-bulk-import", exception.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    @ExceptionHandler(BulkImportNotFoundException.class)
+    public ResponseEntity<Error> handleBulkImportNotFound(BulkImportNotFoundException exception) {
+        Error error = new Error("bulk-import-not-found", exception.getMessage());
+        return ResponseEntity.status(404).body(error);
+    }
+
+    // Parámetros de la URL que no se pueden convertir al tipo esperado (p. ej. ?sort=foo en un enum)
+    @ExceptionHandler(TypeMismatchException.class)
+    public ResponseEntity<Error> handleTypeMismatch(TypeMismatchException exception) {
+        String name = exception instanceof MethodArgumentTypeMismatchException argument
+                ? argument.getName() : exception.getPropertyName();
+        String message = "El parámetro '" + name + "' tiene un valor no válido: " + exception.getValue();
+        Class<?> requiredType = exception.getRequiredType();
+        if (requiredType != null && requiredType.isEnum()) {
+            message += ". Valores permitidos: " + Arrays.toString(requiredType.getEnumConstants());
+        }
+        Error error = new Error("invalid-parameter", message);
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    // Parámetros obligatorios ausentes (p. ej. GET /movies/search sin q)
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<Error> handleMissingParameter(MissingServletRequestParameterException exception) {
+        Error error = new Error("invalid-parameter", "Falta el parámetro obligatorio '" + exception.getParameterName() + "'");
+        return ResponseEntity.badRequest().body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<List<Error>> handleException(MethodArgumentNotValidException ex){
         List<Error> errors = new ArrayList<>();
@@ -0,0 +1,29 @@
+-- Migración: Versiones compartidas del catálogo para los ETag de películas y reseñas
+-- Fecha: 2026-10-18
+-- Descripción: Crea catalog_versions (versión base por catálogo) y catalog_changes (una fila por
+-- escritura, insertada en la misma transacción que los datos). La versión es la base más las
+-- filas de su catálogo; como las escrituras solo insertan, no se bloquean entre sí. La aplicación
+-- suma periódicamente las filas antiguas a la base y las borra (catalog.versions.compact-interval).
+-- NOTA: La versión inicial es el instante actual en milisegundos, para no repetir ETags
+-- emitidos antes de la migración. La aplicación crea las filas que falten al arrancar.
+
+CREATE TABLE IF NOT EXISTS catalog_versions (
+    catalog VARCHAR(20) PRIMARY KEY,
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS catalog_changes_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS catalog_changes (
+    id BIGINT PRIMARY KEY DEFAULT nextval('catalog_changes_seq'),
+    catalog VARCHAR(20) NOT NULL,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_catalog_changes_catalog_changed ON catalog_changes (catalog, changed_at);
+
+INSERT INTO catalog_versions (catalog, version, updated_at)
+VALUES ('movies', (EXTRACT(EPOCH FROM now()) * 1000)::BIGINT, now()),
+       ('reviews', (EXTRACT(EPOCH FROM now()) * 1000)::BIGINT, now())
+ON CONFLICT (catalog) DO NOTHING;
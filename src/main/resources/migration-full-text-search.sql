@@ -0,0 +1,39 @@
+-- Migración: Búsqueda de texto completo en el catálogo y las reseñas
+-- Fecha: 2026-10-18
+-- Descripción: Columnas tsvector generadas (título y título original con peso A, sinopsis con peso B,
+--              comentario de la reseña) con índices GIN para GET /movies/search, e índices de trigramas
+--              sobre los títulos para el modo TYPO_TOLERANT. El texto se indexa sin tildes.
+-- NOTA: Este script es para las tablas "movies" y "reviews"
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- unaccent() no es IMMUTABLE y no se puede usar en columnas generadas ni índices; este envoltorio fija el diccionario
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+ALTER TABLE movies ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('spanish', f_unaccent(COALESCE(title, ''))), 'A') ||
+    setweight(to_tsvector('spanish', f_unaccent(COALESCE(original_title, ''))), 'A') ||
+    setweight(to_tsvector('spanish', f_unaccent(COALESCE(overview, ''))), 'B')
+) STORED;
+
+ALTER TABLE reviews ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    to_tsvector('spanish', f_unaccent(COALESCE(comment, '')))
+) STORED;
+
+-- Solo para resaltar fragmentos con ts_headline: analiza el texto original (con tildes) igual que las
+-- columnas generadas analizan el texto sin tildes, para que "paris" resalte "París"
+DROP TEXT SEARCH CONFIGURATION IF EXISTS spanish_unaccent;
+CREATE TEXT SEARCH CONFIGURATION spanish_unaccent (COPY = spanish);
+ALTER TEXT SEARCH CONFIGURATION spanish_unaccent
+    ALTER MAPPING FOR hword, hword_part, word WITH unaccent, spanish_stem;
+
+CREATE INDEX IF NOT EXISTS idx_movies_search_vector ON movies USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_reviews_search_vector ON reviews USING GIN (search_vector);
+
+-- Modo TYPO_TOLERANT: las expresiones deben coincidir con las de la consulta
+CREATE INDEX IF NOT EXISTS idx_movies_title_trgm ON movies USING GIN (f_unaccent(lower(title)) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_movies_original_title_trgm ON movies
+    USING GIN (f_unaccent(lower(COALESCE(original_title, ''))) gin_trgm_ops);
@@ -0,0 +1,24 @@
+-- Migración: Ids generados por secuencias con asignación en bloques
+-- Fecha: 2026-10-18
+-- Descripción: movies, reviews y users dejan de usar IDENTITY. Hibernate reserva los ids de 50
+-- en 50 desde estas secuencias, lo que le permite agrupar los INSERT en lotes JDBC
+-- (hibernate.jdbc.batch_size). Cada secuencia arranca 50 por encima del id máximo actual para
+-- que el primer bloque reservado no choque con filas existentes.
+-- NOTA: Ejecutar antes de desplegar la versión que usa las secuencias.
+
+CREATE SEQUENCE IF NOT EXISTS movies_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS reviews_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+
+SELECT setval('movies_seq', COALESCE((SELECT MAX(id) FROM movies), 0) + 50, false);
+SELECT setval('reviews_seq', COALESCE((SELECT MAX(id) FROM reviews), 0) + 50, false);
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+
+-- Las inserciones manuales también toman el id de las nuevas secuencias. Un nextval suelto
+-- consume un bloque completo, así que nunca coincide con ids que Hibernate ya reservó.
+ALTER TABLE movies ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE movies ALTER COLUMN id SET DEFAULT nextval('movies_seq');
+ALTER TABLE reviews ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE reviews ALTER COLUMN id SET DEFAULT nextval('reviews_seq');
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
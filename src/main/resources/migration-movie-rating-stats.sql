@@ -0,0 +1,33 @@
+-- Migración: Tabla de estadísticas materializadas de calificaciones
+-- Fecha: 2026-10-18
+-- Descripción: Crea movie_rating_stats (conteo, suma e histograma 1-5 por película)
+-- y la llena a partir de la tabla reviews existente.
+-- NOTA: Este script es para la tabla "movies"
+
+CREATE TABLE IF NOT EXISTS movie_rating_stats (
+    movie_id BIGINT PRIMARY KEY,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    rating_1 BIGINT NOT NULL DEFAULT 0,
+    rating_2 BIGINT NOT NULL DEFAULT 0,
+    rating_3 BIGINT NOT NULL DEFAULT 0,
+    rating_4 BIGINT NOT NULL DEFAULT 0,
+    rating_5 BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT fk_rating_stats_movie FOREIGN KEY (movie_id) REFERENCES movies(id) ON DELETE CASCADE
+);
+
+-- Carga inicial (equivalente a POST /admin/rating-stats/rebuild)
+DELETE FROM movie_rating_stats;
+INSERT INTO movie_rating_stats (movie_id, review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5)
+SELECT m.id,
+       COUNT(r.id),
+       COALESCE(SUM(r.rating), 0),
+       COUNT(r.id) FILTER (WHERE r.rating = 1),
+       COUNT(r.id) FILTER (WHERE r.rating = 2),
+       COUNT(r.id) FILTER (WHERE r.rating = 3),
+       COUNT(r.id) FILTER (WHERE r.rating = 4),
+       COUNT(r.id) FILTER (WHERE r.rating = 5)
+FROM movies m
+LEFT JOIN reviews r ON r.movie_id = m.id
+GROUP BY m.id;
@@ -0,0 +1,12 @@
+-- Migración: Índices para el listado paginado por cursor de películas
+-- Fecha: 2026-10-18
+-- Descripción: Índices (columna de orden, id) que respaldan la paginación por keyset de GET /movies/page
+-- NOTA: Este script es para la tabla "movies"
+
+-- Filtros por género y disponibilidad
+CREATE INDEX IF NOT EXISTS idx_movies_genre_status ON movies(genre, status);
+
+-- Órdenes estables: cada índice cubre la clave de orden y el id de desempate
+CREATE INDEX IF NOT EXISTS idx_movies_popularity_id ON movies(popularity, id);
+CREATE INDEX IF NOT EXISTS idx_movies_release_date_id ON movies(release_date, id);
+CREATE INDEX IF NOT EXISTS idx_movies_title_id ON movies(title, id);
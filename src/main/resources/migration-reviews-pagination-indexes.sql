@@ -0,0 +1,18 @@
+-- Migración: Índices para los listados paginados por cursor de reseñas
+-- Fecha: 2026-10-18
+-- Descripción: Índices (dueño, clave de orden, id) que respaldan la paginación por keyset de
+--              GET /reviews/movie/{movieId}/page, GET /reviews/user/{userId}/page y GET /users/me/reviews/page.
+--              Los órdenes descendentes recorren el mismo índice en sentido inverso.
+-- NOTA: Este script es para la tabla "reviews"
+
+-- Reseñas de una película: más recientes / más antiguas y mejor / peor calificadas
+CREATE INDEX IF NOT EXISTS idx_reviews_movie_created_id ON reviews(movie_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_reviews_movie_rating_id ON reviews(movie_id, rating, id);
+
+-- Reseñas de un usuario
+CREATE INDEX IF NOT EXISTS idx_reviews_user_created_id ON reviews(user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_reviews_user_rating_id ON reviews(user_id, rating, id);
+
+-- Los índices de una sola columna quedan cubiertos por el prefijo de los anteriores
+DROP INDEX IF EXISTS idx_reviews_movie_id;
+DROP INDEX IF EXISTS idx_reviews_user_id;
@@ -0,0 +1,12 @@
+-- Migración: Versión de seguridad de la cuenta de usuario
+-- Fecha: 2026-10-18
+-- Descripción: Agrega account_version a users. El valor viaja en el JWT (claim "ver") y permite
+-- construir el usuario autenticado desde el token; al cambiar el rol o el estado de la cuenta
+-- se incrementa e invalida los tokens emitidos anteriormente.
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS account_version BIGINT DEFAULT 0;
+
+UPDATE users SET account_version = 0 WHERE account_version IS NULL;
+
+COMMENT ON COLUMN users.account_version IS 'Versión de seguridad de la cuenta (se incrementa al cambiar rol o estado)';
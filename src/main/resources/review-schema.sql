@@ -17,7 +17,9 @@ CREATE TABLE IF NOT EXISTS reviews (
 );
 
 -- Índices para mejorar el rendimiento
-CREATE INDEX IF NOT EXISTS idx_reviews_user_id ON reviews(user_id);
-CREATE INDEX IF NOT EXISTS idx_reviews_movie_id ON reviews(movie_id);
+CREATE INDEX IF NOT EXISTS idx_reviews_movie_created_id ON reviews(movie_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_reviews_movie_rating_id ON reviews(movie_id, rating, id);
+CREATE INDEX IF NOT EXISTS idx_reviews_user_created_id ON reviews(user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_reviews_user_rating_id ON reviews(user_id, rating, id);
 CREATE INDEX IF NOT EXISTS idx_reviews_rating ON reviews(rating);
 
@@ -0,0 +1,74 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.repository.CatalogVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogVersionsTest {
+
+    private InMemoryCatalogVersionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryCatalogVersionRepository();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void versionIsReadOncePerRefreshInterval() {
+        CatalogVersions versions = versions(Duration.ofHours(1));
+
+        String etag = versions.etag();
+        versions.etag();
+        versions.lastModified();
+
+        assertThat(versions.etag()).isEqualTo(etag);
+        assertThat(repository.reads()).isEqualTo(1);
+    }
+
+    @Test
+    void writesOnAnotherInstanceAreSeenAfterTheRefreshInterval() throws InterruptedException {
+        CatalogVersions reader = versions(Duration.ofMillis(50));
+        CatalogVersions writer = versions(Duration.ofMillis(50));
+        String etag = reader.etag();
+
+        repository.recordChange(CatalogVersionRepository.MOVIES);
+        writer.changed();
+
+        assertThat(writer.etag()).isNotEqualTo(etag);
+        Thread.sleep(100);
+        assertThat(reader.etag()).isEqualTo(writer.etag());
+        assertThat(reader.lastModified()).isPositive();
+    }
+
+    @Test
+    void ownWritesInvalidateTheVersionAfterCommit() {
+        CatalogVersions versions = versions(Duration.ofHours(1));
+        String etag = versions.etag();
+        TransactionSynchronizationManager.initSynchronization();
+
+        repository.recordChange(CatalogVersionRepository.REVIEWS);
+        versions.changed();
+
+        assertThat(versions.etag()).isEqualTo(etag);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(versions.etag()).isNotEqualTo(etag);
+    }
+
+    private CatalogVersions versions(Duration refreshInterval) {
+        return new CatalogVersions(repository, refreshInterval, Duration.ofHours(1));
+    }
+}
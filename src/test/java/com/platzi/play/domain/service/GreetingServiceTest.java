@@ -0,0 +1,57 @@
+package com.platzi.play.domain.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GreetingServiceTest {
+
+    private PlatziPlayAiService aiService;
+    private GreetingService greetingService;
+
+    @BeforeEach
+    void setUp() {
+        aiService = mock(PlatziPlayAiService.class);
+        greetingService = new GreetingService(aiService, "play-app", 3, Duration.ofMinutes(30), "");
+    }
+
+    @Test
+    void servesStaticGreetingUntilThePoolIsGenerated() {
+        assertThat(greetingService.getGreeting()).isEqualTo(
+                "¡Bienvenido a play-app! Descubre, califica y comparte tus películas favoritas.");
+        verify(aiService, never()).generateGreeting(anyString());
+    }
+
+    @Test
+    void requestsRotateOverTheGeneratedPoolWithoutCallingTheModel() {
+        when(aiService.generateGreeting("play-app")).thenReturn("Hola", " Bienvenido ", "Qué tal");
+        greetingService.refresh();
+
+        assertThat(IntStream.range(0, 6).mapToObj(i -> greetingService.getGreeting()))
+                .containsExactly("Hola", "Bienvenido", "Qué tal", "Hola", "Bienvenido", "Qué tal");
+        verify(aiService, times(3)).generateGreeting("play-app");
+    }
+
+    @Test
+    void failedRefreshKeepsThePreviousGreetings() {
+        when(aiService.generateGreeting("play-app")).thenReturn("Hola");
+        greetingService.refresh();
+
+        when(aiService.generateGreeting("play-app")).thenThrow(new RuntimeException("quota exceeded"));
+        greetingService.refresh();
+
+        assertThat(greetingService.getGreeting()).isEqualTo("Hola");
+        // Tras el primer fallo no se insiste con el resto del pool
+        verify(aiService, times(4)).generateGreeting("play-app");
+    }
+}
@@ -0,0 +1,49 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.dto.CatalogVersionDto;
+import com.platzi.play.domain.repository.CatalogVersionRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabla catalog_versions en memoria; varias instancias de CatalogVersions pueden compartirla
+ */
+public class InMemoryCatalogVersionRepository implements CatalogVersionRepository {
+
+    private final Map<String, CatalogVersionDto> versions = new ConcurrentHashMap<>();
+    private int reads;
+
+    public InMemoryCatalogVersionRepository() {
+        createMissing(List.of(MOVIES, REVIEWS));
+    }
+
+    @Override
+    public void createMissing(Collection<String> catalogs) {
+        catalogs.forEach(catalog -> versions.putIfAbsent(catalog, new CatalogVersionDto(catalog, 1, Instant.EPOCH)));
+    }
+
+    @Override
+    public void recordChange(String catalog) {
+        versions.computeIfPresent(catalog, (key, version) ->
+                new CatalogVersionDto(key, version.version() + 1, Instant.now()));
+    }
+
+    @Override
+    public synchronized List<CatalogVersionDto> getAll() {
+        reads++;
+        return List.copyOf(versions.values());
+    }
+
+    @Override
+    public int compact(Instant before) {
+        return 0;
+    }
+
+    public synchronized int reads() {
+        return reads;
+    }
+}
@@ -0,0 +1,90 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.persistence.entity.UserEntity;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890123456789012345678901234567890";
+
+    private JwtService jwtService;
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = newJwtService(3600000);
+        user = new UserEntity();
+        user.setId(7L);
+        user.setUsername("johndoe");
+        user.setRole(UserEntity.UserRole.ADMIN);
+        user.setAccountVersion(3L);
+    }
+
+    @Test
+    void principalIsBuiltFromTokenClaims() {
+        Claims claims = jwtService.verifyToken(jwtService.generateToken(user));
+
+        UserEntity principal = jwtService.extractPrincipal(claims);
+
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getUsername()).isEqualTo("johndoe");
+        assertThat(principal.getRole()).isEqualTo(UserEntity.UserRole.ADMIN);
+        assertThat(principal.getAccountVersion()).isEqualTo(3L);
+        assertThat(principal.isEnabled()).isTrue();
+    }
+
+    @Test
+    void tokenWithoutUserClaimsHasNoStatelessPrincipal() {
+        UserDetails plainUser = User.withUsername("johndoe").password("secret").build();
+        Claims claims = jwtService.verifyToken(jwtService.generateToken(plainUser));
+
+        assertThat(jwtService.extractPrincipal(claims)).isNull();
+        assertThat(jwtService.extractAccountVersion(claims)).isNull();
+    }
+
+    @Test
+    void verifiedClaimsAreReusedForTheSameToken() {
+        String token = jwtService.generateToken(user);
+
+        Claims first = jwtService.verifyToken(token);
+        Claims second = jwtService.verifyToken(token);
+
+        assertThat(first).isNotNull();
+        assertThat(second).isSameAs(first);
+        assertThat(jwtService.extractUsername(token)).isEqualTo("johndoe");
+        assertThat(jwtService.isTokenValid(token, user)).isTrue();
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThat(jwtService.verifyToken(tampered)).isNull();
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        JwtService expiredTokens = newJwtService(-1000);
+        String token = expiredTokens.generateToken(user);
+
+        assertThat(expiredTokens.verifyToken(token)).isNull();
+        assertThat(jwtService.verifyToken(token)).isNull();
+    }
+
+    private static JwtService newJwtService(long expiration) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expiration);
+        ReflectionTestUtils.setField(service, "claimsCacheMaxSize", 100L);
+        service.init();
+        return service;
+    }
+}
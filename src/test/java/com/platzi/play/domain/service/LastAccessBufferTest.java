@@ -0,0 +1,71 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LastAccessBufferTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private UserRepository userRepository;
+    private LastAccessBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        buffer = new LastAccessBuffer(userRepository, Duration.ofHours(1));
+    }
+
+    @Test
+    void repeatedLoginsAreCoalescedIntoOneBatch() {
+        buffer.record(1L, NOW);
+        buffer.record(1L, NOW.plusMinutes(5));
+        buffer.record(1L, NOW.plusMinutes(2));
+        buffer.record(2L, NOW);
+
+        buffer.flush();
+        buffer.flush();
+
+        assertThat(flushedBatches(1)).isEqualTo(Map.of(1L, NOW.plusMinutes(5), 2L, NOW));
+    }
+
+    @Test
+    void failedBatchIsRetriedOnTheNextFlush() {
+        doThrow(new IllegalStateException("sin conexión")).doNothing().when(userRepository).updateLastAccess(anyMap());
+        buffer.record(1L, NOW);
+
+        buffer.flush();
+        buffer.record(1L, NOW.minusMinutes(1));
+        buffer.flush();
+
+        verify(userRepository, times(2)).updateLastAccess(Map.of(1L, NOW));
+    }
+
+    @Test
+    void nothingIsWrittenWithoutLogins() {
+        buffer.flush();
+
+        verify(userRepository, never()).updateLastAccess(anyMap());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, LocalDateTime> flushedBatches(int expectedBatches) {
+        ArgumentCaptor<Map<Long, LocalDateTime>> batch = ArgumentCaptor.forClass(Map.class);
+        verify(userRepository, times(expectedBatches)).updateLastAccess(batch.capture());
+        return batch.getValue();
+    }
+}
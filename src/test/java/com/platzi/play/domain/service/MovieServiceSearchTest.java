@@ -0,0 +1,65 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.SearchMode;
+import com.platzi.play.domain.dto.CursorPageDto;
+import com.platzi.play.domain.exception.InvalidSearchQueryException;
+import com.platzi.play.domain.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MovieServiceSearchTest {
+
+    private MovieRepository movieRepository;
+    private MovieService movieService;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository = mock(MovieRepository.class);
+        when(movieRepository.search(anyString(), any(), any(), anyInt()))
+                .thenReturn(new CursorPageDto<>(List.of(), null, false));
+        movieService = new MovieService(movieRepository, mock(TmdbService.class), mock(MovieVectorIndex.class),
+                mock(MovieSuggestionCache.class), mock(MovieTitleIndex.class), mock(CatalogVersions.class));
+    }
+
+    @Test
+    void tooShortQueriesAreRejected() {
+        for (String query : Arrays.asList(null, "", "a", "   a   ")) {
+            assertThatThrownBy(() -> movieService.search(query, SearchMode.FULL_TEXT, null, null))
+                    .isInstanceOf(InvalidSearchQueryException.class);
+        }
+        verify(movieRepository, never()).search(anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    void tooLongQueriesAreRejected() {
+        assertThatThrownBy(() -> movieService.search("a".repeat(201), SearchMode.FULL_TEXT, null, null))
+                .isInstanceOf(InvalidSearchQueryException.class);
+        verify(movieRepository, never()).search(anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    void queryIsStrippedAndDefaultsApplied() {
+        movieService.search("  padrino  ", null, null, null);
+
+        verify(movieRepository).search("padrino", SearchMode.FULL_TEXT, null, MovieService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    void limitsAreMeasuredAfterStrippingAndPageSizeIsClamped() {
+        movieService.search(" " + "a".repeat(200) + " ", SearchMode.TYPO_TOLERANT, "cursor", 1000);
+
+        verify(movieRepository).search("a".repeat(200), SearchMode.TYPO_TOLERANT, "cursor", MovieService.MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,145 @@
+package com.platzi.play.domain.service;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MovieSuggestionCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MovieSuggestionCache cache;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Function<String, String> generator = preferences -> "Sugerencia " + calls.incrementAndGet();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new MovieSuggestionCache(new BagOfWordsEmbeddingModel(), meterRegistry, Duration.ofHours(1), 100, true, 0.8);
+    }
+
+    @Test
+    void equivalentPreferencesShareOneSuggestion() {
+        String first = cache.get("Películas de TERROR clásicas!", generator);
+
+        assertThat(cache.get("peliculas de terror clasicas", generator)).isEqualTo(first);
+        assertThat(cache.get("Películas clásicas de terror, por favor", generator)).isEqualTo(first);
+        assertThat(cache.get("Comedias románticas para ver en familia", generator)).isNotEqualTo(first);
+
+        assertThat(calls).hasValue(2);
+        assertThat(count("exact")).isEqualTo(1);
+        assertThat(count("semantic")).isEqualTo(1);
+        assertThat(count("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentIdenticalRequestsWaitForASingleCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, String> slowGenerator = preferences -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return generator.apply(preferences);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("Algo de acción para el fin de semana", slowGenerator)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Sugerencia 1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void catalogChangesAndFailuresAreNotServedFromCache() {
+        cache.get("peliculas de terror clasicas", generator);
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("peliculas de terror clasicas", generator)).isEqualTo("Sugerencia 2");
+
+        assertThatThrownBy(() -> cache.get("documentales de naturaleza", preferences -> {
+            throw new IllegalStateException("Gemini no disponible");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.get("documentales de naturaleza", generator)).isEqualTo("Sugerencia 3");
+    }
+
+    @Test
+    void withoutTheSemanticLayerOnlyIdenticalPreferencesShareASuggestion() {
+        CountingEmbeddingModel embeddingModel = new CountingEmbeddingModel();
+        cache = new MovieSuggestionCache(embeddingModel, meterRegistry, Duration.ofHours(1), 100, false, 0.8);
+
+        String first = cache.get("Películas de TERROR clásicas!", generator);
+
+        assertThat(cache.get("peliculas de terror clasicas", generator)).isEqualTo(first);
+        assertThat(cache.get("Películas clásicas de terror, por favor", generator)).isNotEqualTo(first);
+        assertThat(calls).hasValue(2);
+        assertThat(count("semantic")).isZero();
+        assertThat(embeddingModel.calls).hasValue(0);
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter(MovieSuggestionCache.METRIC, "result", result).count();
+    }
+
+    private static final class CountingEmbeddingModel implements EmbeddingModel {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> segments) {
+            calls.addAndGet(segments.size());
+            return BagOfWordsEmbeddingModel.INSTANCE.embedAll(segments);
+        }
+    }
+
+    /**
+     * Embedding determinista por conteo de palabras, suficiente para probar la similitud
+     */
+    private static final class BagOfWordsEmbeddingModel implements EmbeddingModel {
+        private static final int DIMENSION = 256;
+        private static final BagOfWordsEmbeddingModel INSTANCE = new BagOfWordsEmbeddingModel();
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> segments) {
+            return Response.from(segments.stream().map(segment -> vectorOf(segment.text())).toList());
+        }
+
+        private static Embedding vectorOf(String text) {
+            float[] vector = new float[DIMENSION];
+            for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}]+")) {
+                if (word.length() > 3) {
+                    vector[Math.floorMod(word.hashCode(), DIMENSION)] += 1;
+                }
+            }
+            return Embedding.from(vector);
+        }
+    }
+}
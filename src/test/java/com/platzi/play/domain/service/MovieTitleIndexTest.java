@@ -0,0 +1,159 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MovieTitleSuggestionDto;
+import com.platzi.play.domain.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieTitleIndexTest {
+
+    private MovieRepository movieRepository;
+    private MovieTitleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository = mock(MovieRepository.class);
+        when(movieRepository.getAll()).thenReturn(List.of(
+                movie(1L, "El Padrino", "The Godfather", 90.0, 10L, true),
+                movie(2L, "El Padrino II", "The Godfather Part II", 60.0, 3L, true),
+                movie(3L, "Padres e hijos", null, 5.0, 0L, true),
+                movie(4L, "Acción mutante", null, 40.0, 0L, true),
+                movie(5L, "Padre no hay más que uno", null, 300.0, 0L, false)));
+        index = new MovieTitleIndex(movieRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void matchesWordPrefixesOfBothTitlesRankedByPopularityAndReviews() {
+        assertThat(ids(index.suggest("padr", 10))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(index.suggest("GODF", 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.suggest("accion", 10))).containsExactly(4L);
+        assertThat(ids(index.suggest("el padrino i", 10))).containsExactly(2L);
+        assertThat(ids(index.suggest("padr", 2))).containsExactly(1L, 2L);
+        assertThat(index.suggest("xyz", 10)).isEmpty();
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void catalogAndReviewChangesAreApplied() {
+        index.upsert(movie(3L, "Los padres de ella", null, 5.0, 0L, true));
+        assertThat(ids(index.suggest("hijos", 10))).isEmpty();
+        assertThat(ids(index.suggest("ella", 10))).containsExactly(3L);
+
+        index.updateReviewCount(3L, 400);
+        assertThat(ids(index.suggest("padr", 10))).containsExactly(3L, 1L, 2L);
+
+        index.remove(1L);
+        index.upsert(movie(2L, "El Padrino II", "The Godfather Part II", 60.0, 3L, false));
+        index.upsertAll(List.of(movie(6L, "Padrinos mágicos", null, 1.0, 0L, true)));
+        assertThat(ids(index.suggest("padr", 10))).containsExactly(3L, 6L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void reviewCountChangesWaitForTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.updateReviewCount(3L, 400);
+            assertThat(ids(index.suggest("padr", 10))).containsExactly(1L, 2L, 3L);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(ids(index.suggest("padr", 10))).containsExactly(3L, 1L, 2L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changesMadeWhileTheCatalogIsLoadingSurviveTheRebuild() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(movieRepository.getAll()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            // Catálogo leído antes de los cambios de abajo
+            return List.of(movie(1L, "El Padrino", "The Godfather", 90.0, 10L, true),
+                    movie(3L, "Padres e hijos", null, 5.0, 0L, true));
+        });
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(index::rebuild);
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // No esperan a la consulta del catálogo
+        CompletableFuture.runAsync(() -> {
+            index.upsert(movie(6L, "Padrinos mágicos", null, 1.0, 0L, true));
+            index.remove(3L);
+            index.updateReviewCount(1L, 11);
+        }).get(5, TimeUnit.SECONDS);
+        assertThat(ids(index.suggest("padr", 10))).containsExactly(1L, 2L, 6L);
+
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+        assertThat(ids(index.suggest("padr", 10))).containsExactly(1L, 6L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void reviewCountsCommittedOutOfOrderKeepTheLatest() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.updateReviewCount(3L, 400);
+            index.updateReviewCount(3L, 0);
+            List<TransactionSynchronization> commits = TransactionSynchronizationManager.getSynchronizations();
+
+            // El segundo commit avisa antes que el primero
+            commits.get(1).afterCommit();
+            commits.get(0).afterCommit();
+            assertThat(ids(index.suggest("padr", 10))).containsExactly(1L, 2L, 3L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reviewsAlreadyInTheLoadedCatalogAreNotCountedTwice() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(movieRepository.getAll()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            // Catálogo leído después del commit de las 100 reseñas de abajo
+            return List.of(movie(3L, "Padres e hijos", null, 0.0, 100L, true),
+                    movie(7L, "Padrinos de boda", null, 150.0, 0L, true));
+        });
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(index::rebuild);
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (long count = 1; count <= 100; count++) {
+            index.updateReviewCount(3L, count);
+        }
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+
+        // log1p(150) queda entre log1p(100) y log1p(200): con las reseñas contadas dos veces, 3 quedaría primero
+        assertThat(ids(index.suggest("padr", 10))).containsExactly(7L, 3L);
+    }
+
+    private static List<Long> ids(List<MovieTitleSuggestionDto> suggestions) {
+        return suggestions.stream().map(MovieTitleSuggestionDto::id).toList();
+    }
+
+    private static MovieDto movie(Long id, String title, String originalTitle, Double popularity, Long reviewCount,
+                                  boolean available) {
+        return new MovieDto(id, title, 120, Genre.DRAMA, LocalDate.of(2000, 1, 1), 8.0, available, null, reviewCount,
+                null, null, null, null, originalTitle, 8.0, 100, popularity, "es");
+    }
+}
@@ -0,0 +1,99 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MovieMatchDto;
+import com.platzi.play.domain.repository.MovieRepository;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieVectorIndexTest {
+
+    private MovieRepository movieRepository;
+    private MovieVectorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository = mock(MovieRepository.class);
+        index = new MovieVectorIndex(new BagOfWordsEmbeddingModel(), movieRepository, 40);
+    }
+
+    @Test
+    void searchReturnsTheClosestMoviesFirst() {
+        when(movieRepository.getAll()).thenReturn(List.of(
+                movie(1L, "Matrix", Genre.SCI_FI, "hackers realidad simulada maquinas", true),
+                movie(2L, "Alien", Genre.HORROR, "nave espacial criatura tripulacion", true),
+                movie(3L, "Interstellar", Genre.SCI_FI, "viaje espacial agujero de gusano", true),
+                movie(4L, "Titanic", Genre.ROMANCE, "barco romance iceberg", false)));
+        index.rebuild();
+
+        List<MovieMatchDto> matches = index.search("viaje espacial en una nave", 2);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(matches).extracting(MovieMatchDto::id).containsExactly(3L, 2L);
+        assertThat(matches.get(0).score()).isGreaterThan(matches.get(1).score());
+        assertThat(matches.get(0).releaseYear()).isEqualTo(2000);
+    }
+
+    @Test
+    void updatesAreAppliedIncrementally() {
+        index.upsert(movie(1L, "Matrix", Genre.SCI_FI, "hackers realidad simulada", true));
+        index.upsert(movie(2L, "Alien", Genre.HORROR, "criatura en una nave", true));
+
+        index.upsert(movie(1L, "Matrix", Genre.SCI_FI, "nave rebelde contra las maquinas", true));
+        assertThat(index.search("nave", 5)).extracting(MovieMatchDto::id).containsExactlyInAnyOrder(1L, 2L);
+
+        index.upsert(movie(2L, "Alien", Genre.HORROR, "criatura en una nave", false));
+        index.remove(1L);
+        assertThat(index.size()).isZero();
+        assertThat(index.search("nave", 5)).isEmpty();
+    }
+
+    @Test
+    void overviewsAreTruncatedForThePrompt() {
+        index.upsert(movie(1L, "Larga", Genre.DRAMA, "palabra ".repeat(50), true));
+
+        MovieMatchDto match = index.search("palabra", 1).get(0);
+
+        assertThat(match.overview()).hasSize(43).endsWith("...");
+    }
+
+    private static MovieDto movie(Long id, String title, Genre genre, String overview, boolean available) {
+        return new MovieDto(id, title, 120, genre, LocalDate.of(2000, 1, 1), 8.0, available, null, 0L,
+                null, null, null, overview, title, 8.0, 100, 10.0, "en");
+    }
+
+    /**
+     * Embedding determinista por conteo de palabras, suficiente para probar el ranking
+     */
+    private static final class BagOfWordsEmbeddingModel implements EmbeddingModel {
+        private static final int DIMENSION = 256;
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> segments) {
+            return Response.from(segments.stream().map(segment -> vectorOf(segment.text())).toList());
+        }
+
+        private static Embedding vectorOf(String text) {
+            float[] vector = new float[DIMENSION];
+            for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}]+")) {
+                if (word.length() > 3) {
+                    vector[Math.floorMod(word.hashCode(), DIMENSION)] += 1;
+                }
+            }
+            return Embedding.from(vector);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.platzi.play.domain.service;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.allminilml6v2q.AllMiniLmL6V2QuantizedEmbeddingModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calibración de la capa semántica de MovieSuggestionCache con el modelo de embeddings real
+ * y preferencias en español. Si el modelo cambia y las dos listas dejan de solaparse, se puede
+ * fijar un umbral entre ellas y activar la capa.
+ */
+class SpanishPreferenceSimilarityTest {
+
+    /**
+     * Preferencias que se parecen pero piden películas distintas: nunca deben compartir respuesta
+     */
+    private static final List<List<String>> NEAR_MISSES = List.of(
+            List.of("películas de terror", "películas de acción"),
+            List.of("películas de acción", "películas de comedia"),
+            List.of("quiero ver una película de terror", "quiero ver una película de acción"),
+            List.of("algo de suspenso para esta noche", "algo de comedia para esta noche"),
+            List.of("películas para niños", "películas para adultos"),
+            List.of("películas de los 80", "películas de los 90"),
+            List.of("películas tristes", "películas alegres"));
+
+    /**
+     * Paráfrasis de una misma preferencia: la capa semántica existe para reutilizar estas
+     */
+    private static final List<List<String>> PARAPHRASES = List.of(
+            List.of("películas de terror", "pelis de terror"),
+            List.of("películas de terror", "películas de miedo"),
+            List.of("quiero ver una película de terror", "quiero ver películas de terror"),
+            List.of("algo de comedia para esta noche", "una comedia para ver esta noche"),
+            List.of("películas para ver en familia", "películas familiares"));
+
+    private static EmbeddingModel embeddingModel;
+
+    @BeforeAll
+    static void loadModel() {
+        embeddingModel = new AllMiniLmL6V2QuantizedEmbeddingModel();
+    }
+
+    @Test
+    void noThresholdSeparatesSpanishNearMissesFromParaphrases() {
+        double highestNearMiss = NEAR_MISSES.stream().mapToDouble(SpanishPreferenceSimilarityTest::similarity).max().orElseThrow();
+        double lowestParaphrase = PARAPHRASES.stream().mapToDouble(SpanishPreferenceSimilarityTest::similarity).min().orElseThrow();
+
+        // Cualquier umbral que acepte todas las paráfrasis también acepta alguna preferencia distinta
+        assertThat(highestNearMiss).isGreaterThan(lowestParaphrase);
+    }
+
+    @Test
+    void nearMissesNeverShareASuggestion() {
+        MovieSuggestionCache defaults = new MovieSuggestionCache(embeddingModel, new SimpleMeterRegistry(),
+                Duration.ofHours(1), 100, false, 0.92);
+        // Ni siquiera con la capa semántica activa y el umbral configurado
+        MovieSuggestionCache semantic = new MovieSuggestionCache(embeddingModel, new SimpleMeterRegistry(),
+                Duration.ofHours(1), 100, true, 0.92);
+
+        for (MovieSuggestionCache cache : List.of(defaults, semantic)) {
+            AtomicInteger calls = new AtomicInteger();
+            for (List<String> pair : NEAR_MISSES) {
+                String first = cache.get(pair.get(0), preferences -> "Sugerencia " + calls.incrementAndGet());
+                String second = cache.get(pair.get(1), preferences -> "Sugerencia " + calls.incrementAndGet());
+                assertThat(second).as("%s / %s", pair.get(0), pair.get(1)).isNotEqualTo(first);
+            }
+            cache.invalidateAll();
+        }
+    }
+
+    private static double similarity(List<String> pair) {
+        return MovieVectorIndex.dot(embed(pair.get(0)), embed(pair.get(1)));
+    }
+
+    private static float[] embed(String preferences) {
+        return MovieVectorIndex.normalize(embeddingModel.embed(TextNormalizer.normalize(preferences)).content().vector());
+    }
+}
@@ -0,0 +1,155 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.TmdbImportSource;
+import com.platzi.play.domain.dto.BulkImportFailureDto;
+import com.platzi.play.domain.dto.BulkImportRequestDto;
+import com.platzi.play.domain.dto.BulkImportStatusDto;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.TmdbMovieDetailsDto;
+import com.platzi.play.domain.dto.TmdbMovieDto;
+import com.platzi.play.domain.dto.TmdbSearchResponseDto;
+import com.platzi.play.domain.exception.InvalidBulkImportException;
+import com.platzi.play.domain.repository.MovieRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TmdbBulkImportServiceTest {
+
+    private MovieRepository movieRepository;
+    private MovieService movieService;
+    private TmdbService tmdbService;
+    private TmdbBulkImportService bulkImportService;
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        movieRepository = mock(MovieRepository.class);
+        movieService = mock(MovieService.class);
+        tmdbService = mock(TmdbService.class);
+        when(movieService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<MovieDto> movies = invocation.getArgument(0);
+            synchronized (batchSizes) {
+                batchSizes.add(movies.size());
+            }
+            return movies;
+        });
+        when(tmdbService.getMovieDetailsUncached(anyLong())).thenAnswer(invocation -> details(invocation.getArgument(0)));
+        bulkImportService = new TmdbBulkImportService(movieRepository, movieService, tmdbService, 4, 1000, 10, 100, 5, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkImportService.shutdown();
+    }
+
+    @Test
+    void importsNewIdsInBatchesAndReportsSkippedAndFailed() throws Exception {
+        List<Long> tmdbIds = LongStream.rangeClosed(1, 25).boxed().toList();
+        when(movieRepository.findExistingTmdbIds(anyCollection())).thenReturn(Set.of(1L, 2L));
+        when(tmdbService.getMovieDetailsUncached(7L))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        BulkImportStatusDto status = awaitCompletion(bulkImportService.start(new BulkImportRequestDto(tmdbIds, null, null)));
+
+        assertThat(status.state()).isEqualTo(BulkImportStatusDto.State.COMPLETED);
+        assertThat(status.total()).isEqualTo(25);
+        assertThat(status.skipped()).isEqualTo(2);
+        assertThat(status.imported()).isEqualTo(22);
+        assertThat(status.failed()).isEqualTo(1);
+        assertThat(status.processed()).isEqualTo(25);
+        assertThat(status.failures()).containsExactly(new BulkImportFailureDto(7L, "La película no existe en TMDB"));
+        // Una sola consulta de deduplicación y lotes de a lo sumo batch-size películas
+        verify(movieRepository, times(1)).findExistingTmdbIds(anyCollection());
+        assertThat(batchSizes).containsExactly(10, 10, 2);
+        verify(tmdbService, times(0)).getMovieDetailsUncached(1L);
+    }
+
+    @Test
+    void moviesRejectedByTheRepositoryAreReportedAsFailures() throws Exception {
+        when(movieRepository.findExistingTmdbIds(anyCollection())).thenReturn(Set.of());
+        when(movieService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<MovieDto> movies = invocation.getArgument(0);
+            return movies.stream().filter(movie -> movie.tmdbId() != 3L).toList();
+        });
+
+        BulkImportStatusDto status = awaitCompletion(
+                bulkImportService.start(new BulkImportRequestDto(List.of(1L, 2L, 3L), null, null)));
+
+        assertThat(status.imported()).isEqualTo(2);
+        assertThat(status.failures()).extracting(BulkImportFailureDto::tmdbId).containsExactly(3L);
+    }
+
+    @Test
+    void listSourceIsResolvedPageByPage() throws Exception {
+        when(movieRepository.findExistingTmdbIds(anyCollection())).thenReturn(Set.of());
+        when(tmdbService.getPopularMovies(1)).thenReturn(listPage(1, 2, 1L, 2L, 3L));
+        when(tmdbService.getPopularMovies(2)).thenReturn(listPage(2, 2, 3L, 4L));
+
+        BulkImportStatusDto status = awaitCompletion(
+                bulkImportService.start(new BulkImportRequestDto(null, TmdbImportSource.POPULAR, 5)));
+
+        assertThat(status.total()).isEqualTo(4);
+        assertThat(status.imported()).isEqualTo(4);
+        verify(tmdbService, times(0)).getPopularMovies(3);
+    }
+
+    @Test
+    void requestMustNameIdsOrSource() {
+        assertThatThrownBy(() -> bulkImportService.start(new BulkImportRequestDto(null, null, null)))
+                .isInstanceOf(InvalidBulkImportException.class);
+        assertThatThrownBy(() -> bulkImportService.start(new BulkImportRequestDto(List.of(1L), TmdbImportSource.POPULAR, 1)))
+                .isInstanceOf(InvalidBulkImportException.class);
+        assertThatThrownBy(() -> bulkImportService.start(new BulkImportRequestDto(null, TmdbImportSource.POPULAR, 6)))
+                .isInstanceOf(InvalidBulkImportException.class);
+    }
+
+    private BulkImportStatusDto awaitCompletion(BulkImportStatusDto started) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        BulkImportStatusDto status = started;
+        while (status.state() == BulkImportStatusDto.State.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = bulkImportService.getStatus(started.jobId());
+        }
+        return status;
+    }
+
+    private static TmdbMovieDetailsDto details(Long tmdbId) {
+        TmdbMovieDetailsDto details = new TmdbMovieDetailsDto();
+        details.setId(tmdbId);
+        details.setTitle("Movie " + tmdbId);
+        details.setRuntime(100);
+        return details;
+    }
+
+    private static TmdbSearchResponseDto listPage(int page, int totalPages, Long... tmdbIds) {
+        TmdbSearchResponseDto response = new TmdbSearchResponseDto();
+        response.setPage(page);
+        response.setTotalPages(totalPages);
+        List<TmdbMovieDto> results = new ArrayList<>();
+        for (Long tmdbId : tmdbIds) {
+            TmdbMovieDto movie = new TmdbMovieDto();
+            movie.setId(tmdbId);
+            results.add(movie);
+        }
+        response.setResults(results);
+        return response;
+    }
+}
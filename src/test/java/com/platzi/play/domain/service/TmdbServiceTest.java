@@ -0,0 +1,173 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.dto.TmdbCacheStatsDto;
+import com.platzi.play.domain.dto.TmdbMovieDetailsDto;
+import com.platzi.play.domain.dto.TmdbSearchResponseDto;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TmdbServiceTest {
+
+    private HttpServer server;
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicInteger detailCalls = new AtomicInteger();
+    private volatile long upstreamDelayMillis;
+    private TmdbCache tmdbCache;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/movie/popular", exchange -> {
+            int call = upstreamCalls.incrementAndGet();
+            sleep(upstreamDelayMillis);
+            byte[] body = ("{\"page\":1,\"total_results\":1,\"total_pages\":1,\"results\":"
+                    + "[{\"id\":603,\"title\":\"Matrix " + call + "\",\"poster_path\":\"/matrix.jpg\"}]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/movie/", exchange -> {
+            detailCalls.incrementAndGet();
+            byte[] body = "{\"id\":603,\"title\":\"Matrix\",\"poster_path\":\"/matrix.jpg\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+        tmdbCache.shutdown();
+    }
+
+    @Test
+    void repeatedRequestsAreServedFromCache() {
+        TmdbService tmdbService = newTmdbService(Duration.ofMinutes(30));
+
+        TmdbSearchResponseDto first = tmdbService.getPopularMovies(1);
+        TmdbSearchResponseDto second = tmdbService.getPopularMovies(1);
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(first.getResults().get(0).getPosterUrl()).isEqualTo("https://image.tmdb.org/t/p/w500/matrix.jpg");
+        TmdbCacheStatsDto stats = tmdbService.getCacheStats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.entries()).isEqualTo(1);
+        assertThat(stats.estimatedBytes()).isPositive();
+
+        // La frescura restante no cuenta como acceso a la caché
+        assertThat(tmdbService.getRemainingFreshness(TmdbCache.Endpoint.POPULAR, null, 1))
+                .isPositive().isLessThanOrEqualTo(Duration.ofMinutes(30));
+        assertThat(tmdbService.getRemainingFreshness(TmdbCache.Endpoint.POPULAR, null, 2)).isZero();
+        assertThat(tmdbService.getCacheStats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentMissesShareOneUpstreamCall() throws Exception {
+        TmdbService tmdbService = newTmdbService(Duration.ofMinutes(30));
+        upstreamDelayMillis = 200;
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<TmdbSearchResponseDto>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(clients.submit(() -> {
+                start.await();
+                return tmdbService.getPopularMovies(1);
+            }));
+        }
+
+        start.countDown();
+        for (Future<TmdbSearchResponseDto> response : responses) {
+            assertThat(response.get().getResults()).hasSize(1);
+        }
+        clients.shutdown();
+
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void staleEntryIsServedWhileOneRefreshRuns() throws Exception {
+        TmdbService tmdbService = newTmdbService(Duration.ofMillis(50));
+        assertThat(tmdbService.getPopularMovies(1).getResults().get(0).getTitle()).isEqualTo("Matrix 1");
+        Thread.sleep(100);
+        upstreamDelayMillis = 200;
+
+        // Mientras el refresco está en curso se sigue sirviendo la respuesta vencida
+        for (int i = 0; i < 5; i++) {
+            assertThat(tmdbService.getPopularMovies(1).getResults().get(0).getTitle()).isEqualTo("Matrix 1");
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (tmdbService.getCacheStats().refreshes() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(tmdbService.getCacheStats().staleHits()).isGreaterThanOrEqualTo(5);
+        assertThat(tmdbService.getPopularMovies(1).getResults().get(0).getTitle()).isEqualTo("Matrix 2");
+    }
+
+    @Test
+    void uncachedDetailsNeverTouchTheCache() {
+        TmdbService tmdbService = newTmdbService(Duration.ofMinutes(30));
+
+        TmdbMovieDetailsDto details = tmdbService.getMovieDetailsUncached(603L);
+        tmdbService.getMovieDetailsUncached(603L);
+
+        assertThat(detailCalls).hasValue(2);
+        assertThat(details.getPosterUrl()).isEqualTo("https://image.tmdb.org/t/p/w500/matrix.jpg");
+        TmdbCacheStatsDto stats = tmdbService.getCacheStats();
+        assertThat(stats.entries()).isZero();
+        assertThat(stats.hits() + stats.misses()).isZero();
+
+        // La ruta cacheada no reutiliza nada de la importación
+        tmdbService.getMovieDetails(603L);
+        assertThat(detailCalls).hasValue(3);
+    }
+
+    private TmdbService newTmdbService(Duration popularTtl) {
+        Duration ttl = Duration.ofMinutes(10);
+        tmdbCache = new TmdbCache(ttl, ttl, popularTtl, ttl, ttl, ttl, Duration.ofHours(1), DataSize.ofMegabytes(1));
+        TmdbService tmdbService = new TmdbService(new RestTemplate(), tmdbCache);
+        ReflectionTestUtils.setField(tmdbService, "apiKey", "test-key");
+        ReflectionTestUtils.setField(tmdbService, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(tmdbService, "imageBaseUrl", "https://image.tmdb.org/t/p");
+        return tmdbService;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
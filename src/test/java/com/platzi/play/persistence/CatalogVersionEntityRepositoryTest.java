@@ -0,0 +1,135 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.dto.CatalogVersionDto;
+import com.platzi.play.persistence.crud.CrudCatalogChangeEntity;
+import com.platzi.play.persistence.crud.CrudCatalogVersionEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(CatalogVersionEntityRepository.class)
+class CatalogVersionEntityRepositoryTest {
+
+    @Autowired
+    private CatalogVersionEntityRepository catalogVersionEntityRepository;
+
+    @Autowired
+    private CrudCatalogVersionEntity crudCatalogVersionEntity;
+
+    @Autowired
+    private CrudCatalogChangeEntity crudCatalogChangeEntity;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void createMissingKeepsExistingVersions() {
+        catalogVersionEntityRepository.createMissing(List.of("movies"));
+        catalogVersionEntityRepository.recordChange("movies");
+        long movies = versions().get("movies").version();
+
+        catalogVersionEntityRepository.createMissing(List.of("movies", "reviews"));
+
+        assertThat(versions()).containsOnlyKeys("movies", "reviews");
+        assertThat(versions().get("movies").version()).isEqualTo(movies);
+    }
+
+    @Test
+    void recordedChangesBumpOnlyTheirCatalog() {
+        catalogVersionEntityRepository.createMissing(List.of("movies", "reviews"));
+        Map<String, CatalogVersionDto> before = versions();
+
+        catalogVersionEntityRepository.recordChange("reviews");
+        catalogVersionEntityRepository.recordChange("reviews");
+
+        Map<String, CatalogVersionDto> after = versions();
+        assertThat(after.get("reviews").version()).isEqualTo(before.get("reviews").version() + 2);
+        assertThat(after.get("reviews").updatedAt()).isAfterOrEqualTo(before.get("reviews").updatedAt());
+        assertThat(after.get("movies")).isEqualTo(before.get("movies"));
+    }
+
+    @Test
+    void compactionKeepsTheVersionAndItsLastChange() {
+        catalogVersionEntityRepository.createMissing(List.of("movies", "reviews"));
+        catalogVersionEntityRepository.recordChange("movies");
+        catalogVersionEntityRepository.recordChange("movies");
+        catalogVersionEntityRepository.recordChange("reviews");
+        Map<String, CatalogVersionDto> before = versions();
+
+        int compacted = catalogVersionEntityRepository.compact(Instant.now().plusSeconds(1));
+
+        assertThat(compacted).isEqualTo(3);
+        assertThat(crudCatalogChangeEntity.count()).isZero();
+        assertThat(versions()).isEqualTo(before);
+        catalogVersionEntityRepository.recordChange("movies");
+        assertThat(versions().get("movies").version()).isEqualTo(before.get("movies").version() + 1);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentWritesDoNotWaitForEachOther() throws Exception {
+        catalogVersionEntityRepository.createMissing(List.of("reviews"));
+        long initial = catalogVersionEntityRepository.getAll().get(0).version();
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Void> open = CompletableFuture.runAsync(() -> transactions.executeWithoutResult(status -> {
+                catalogVersionEntityRepository.recordChange("reviews");
+                crudCatalogChangeEntity.flush();
+                recorded.countDown();
+                await(release);
+            }));
+            assertThat(recorded.await(5, TimeUnit.SECONDS)).isTrue();
+
+            CompletableFuture.runAsync(() -> transactions.executeWithoutResult(status ->
+                    catalogVersionEntityRepository.recordChange("reviews"))).get(5, TimeUnit.SECONDS);
+
+            assertThat(catalogVersionEntityRepository.getAll().get(0).version()).isEqualTo(initial + 1);
+            release.countDown();
+            open.get(5, TimeUnit.SECONDS);
+            assertThat(catalogVersionEntityRepository.getAll().get(0).version()).isEqualTo(initial + 2);
+        } finally {
+            release.countDown();
+            crudCatalogChangeEntity.deleteAllInBatch();
+            crudCatalogVersionEntity.deleteAllInBatch();
+        }
+    }
+
+    // Las sentencias masivas no pasan por el contexto de persistencia: se limpia para leer las filas actuales
+    private Map<String, CatalogVersionDto> versions() {
+        entityManager.flush();
+        entityManager.clear();
+        return catalogVersionEntityRepository.getAll().stream()
+                .collect(Collectors.toMap(CatalogVersionDto::catalog, Function.identity()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
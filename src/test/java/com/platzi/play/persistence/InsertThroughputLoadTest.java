@@ -0,0 +1,118 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.persistence.crud.CrudMovieEntity;
+import com.platzi.play.persistence.crud.CrudReviewEntity;
+import com.platzi.play.persistence.crud.CrudUserEntity;
+import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.entity.ReviewEntity;
+import com.platzi.play.persistence.entity.UserEntity;
+import com.platzi.play.persistence.mapper.MovieMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide el rendimiento de las inserciones masivas (importación de películas y carga de reviews).
+ * Se ejecuta con {@code ./gradlew loadTest}.
+ */
+@Tag("load")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({MovieEntityRepository.class, CatalogVersionEntityRepository.class, MovieMapperImpl.class, SimpleMeterRegistry.class})
+class InsertThroughputLoadTest {
+
+    private static final int MOVIES = 5000;
+    private static final int USERS = 50;
+    private static final int REVIEWS_PER_USER = 100;
+    private static final int CHUNK = 100;
+
+    @Autowired
+    private MovieEntityRepository movieEntityRepository;
+
+    @Autowired
+    private CrudMovieEntity crudMovieEntity;
+
+    @Autowired
+    private CrudUserEntity crudUserEntity;
+
+    @Autowired
+    private CrudReviewEntity crudReviewEntity;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkMovieImportAndReviewSeeding() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int offset = 0; offset < MOVIES; offset += CHUNK) {
+            List<MovieDto> chunk = new ArrayList<>();
+            for (int i = offset; i < offset + CHUNK; i++) {
+                chunk.add(new MovieDto(null, "Movie " + i, 120, Genre.DRAMA, null, 7.5, true, null, 0L,
+                        (long) i + 1, null, null, "Sinopsis " + i, "Movie " + i, 7.5, 100, 10.0 + i, "en"));
+            }
+            assertThat(movieEntityRepository.saveAll(chunk)).hasSize(CHUNK);
+            entityManager.clear();
+        }
+        report("bulk movie import", MOVIES, System.nanoTime() - start, statistics);
+
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            UserEntity user = new UserEntity();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("secret");
+            users.add(user);
+        }
+        statistics.clear();
+        start = System.nanoTime();
+        users = crudUserEntity.saveAll(users);
+        crudUserEntity.flush();
+        report("user seeding", USERS, System.nanoTime() - start, statistics);
+
+        List<Long> movieIds = crudMovieEntity.findAll().stream().map(MovieEntity::getId).toList();
+        entityManager.clear();
+        statistics.clear();
+        start = System.nanoTime();
+        for (UserEntity user : users) {
+            List<ReviewEntity> reviews = new ArrayList<>();
+            for (int i = 0; i < REVIEWS_PER_USER; i++) {
+                ReviewEntity review = new ReviewEntity();
+                review.setUser(entityManager.getReference(UserEntity.class, user.getId()));
+                review.setMovie(entityManager.getReference(MovieEntity.class, movieIds.get(i)));
+                review.setRating(1 + i % 5);
+                review.setComment("Comentario " + i);
+                reviews.add(review);
+            }
+            crudReviewEntity.saveAll(reviews);
+            crudReviewEntity.flush();
+            entityManager.clear();
+        }
+        report("review seeding", USERS * REVIEWS_PER_USER, System.nanoTime() - start, statistics);
+
+        assertThat(crudReviewEntity.count()).isEqualTo((long) USERS * REVIEWS_PER_USER);
+    }
+
+    private static void report(String scenario, int rows, long elapsedNanos, Statistics statistics) {
+        System.out.printf("%-18s %6d rows  %8.0f rows/s  %6d prepared statements%n",
+                scenario, rows, rows / (elapsedNanos / 1e9), statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,273 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.MovieSort;
+import com.platzi.play.domain.dto.CursorPageDto;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MovieFilterDto;
+import com.platzi.play.domain.dto.UpdateMovieDto;
+import com.platzi.play.domain.repository.CatalogVersionRepository;
+import com.platzi.play.persistence.crud.CrudCatalogChangeEntity;
+import com.platzi.play.persistence.crud.CrudMovieRatingStatsEntity;
+import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.entity.ReviewEntity;
+import com.platzi.play.persistence.entity.UserEntity;
+import com.platzi.play.persistence.mapper.MovieMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true", "movies.export.chunk-size=7"})
+@Import({MovieEntityRepository.class, CatalogVersionEntityRepository.class, MovieMapperImpl.class, SimpleMeterRegistry.class})
+class MovieEntityRepositoryTest {
+
+    @Autowired
+    private MovieEntityRepository movieEntityRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CrudMovieRatingStatsEntity crudMovieRatingStatsEntity;
+
+    @Autowired
+    private CrudCatalogChangeEntity crudCatalogChangeEntity;
+
+    private UserEntity firstReviewer;
+    private UserEntity secondReviewer;
+
+    @BeforeEach
+    void setUp() {
+        firstReviewer = persistUser("first");
+        secondReviewer = persistUser("second");
+    }
+
+    @Test
+    void getAllRunsSameNumberOfStatementsRegardlessOfCatalogSize() {
+        persistReviewedMovies(3);
+        long smallCatalogStatements = countStatements(() -> assertThat(movieEntityRepository.getAll()).hasSize(3));
+
+        persistReviewedMovies(40);
+        long largeCatalogStatements = countStatements(() -> assertThat(movieEntityRepository.getAll()).hasSize(43));
+
+        assertThat(largeCatalogStatements).isEqualTo(smallCatalogStatements);
+    }
+
+    @Test
+    void exportChunksWalkTheCatalogByIdWithoutGrowingThePersistenceContext() {
+        List<MovieEntity> movies = persistMovies(30);
+        persistReview(firstReviewer, movies.get(5), 4);
+        persistReview(secondReviewer, movies.get(5), 2);
+        rebuildRatingStats();
+        entityManager.clear();
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+
+        List<MovieDto> exported = new ArrayList<>();
+        List<Integer> chunkSizes = new ArrayList<>();
+        List<MovieDto> chunk = movieEntityRepository.getExportChunk(null);
+        while (!chunk.isEmpty()) {
+            assertThat(session.getStatistics().getEntityCount()).isZero();
+            chunkSizes.add(chunk.size());
+            exported.addAll(chunk);
+            chunk = movieEntityRepository.getExportChunk(chunk.get(chunk.size() - 1).id());
+        }
+
+        assertThat(chunkSizes).containsExactly(7, 7, 7, 7, 2);
+        assertThat(exported).extracting(MovieDto::id)
+                .containsExactlyElementsOf(movies.stream().map(MovieEntity::getId).toList());
+        assertThat(exported.get(5).averageUserRating()).isEqualTo(3.0);
+        assertThat(exported.get(5).reviewCount()).isEqualTo(2L);
+        assertThat(exported.get(0).reviewCount()).isZero();
+    }
+
+    @Test
+    void getAllEnrichesMoviesWithAverageAndCount() {
+        List<MovieEntity> movies = persistMovies(2);
+        persistReview(firstReviewer, movies.get(0), 4);
+        persistReview(secondReviewer, movies.get(0), 2);
+        rebuildRatingStats();
+
+        List<MovieDto> result = movieEntityRepository.getAll();
+
+        MovieDto reviewed = result.stream().filter(m -> m.id().equals(movies.get(0).getId())).findFirst().orElseThrow();
+        MovieDto notReviewed = result.stream().filter(m -> m.id().equals(movies.get(1).getId())).findFirst().orElseThrow();
+        assertThat(reviewed.averageUserRating()).isEqualTo(3.0);
+        assertThat(reviewed.reviewCount()).isEqualTo(2L);
+        assertThat(notReviewed.averageUserRating()).isNull();
+        assertThat(notReviewed.reviewCount()).isZero();
+    }
+
+    @Test
+    void getPageWalksWholeCatalogByPopularityWithNullsLast() {
+        List<MovieEntity> movies = persistMovies(7);
+        Double[] popularity = {10.0, null, 30.0, 10.0, null, 50.0, 20.0};
+        for (int i = 0; i < movies.size(); i++) {
+            MovieEntity movie = entityManager.find(MovieEntity.class, movies.get(i).getId());
+            movie.setPopularity(popularity[i]);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Double> walked = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDto<MovieDto> page = movieEntityRepository.getPage(null, MovieSort.POPULARITY, cursor, 2);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+            page.items().forEach(movie -> {
+                walked.add(movie.popularity());
+                ids.add(movie.id());
+            });
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).containsExactly(50.0, 30.0, 20.0, 10.0, 10.0, null, null);
+        assertThat(ids).doesNotHaveDuplicates().hasSize(7);
+    }
+
+    @Test
+    void getPageAppliesFilters() {
+        List<MovieEntity> movies = persistMovies(3);
+        MovieEntity comedy = entityManager.find(MovieEntity.class, movies.get(1).getId());
+        comedy.setGenre("COMEDIA");
+        entityManager.flush();
+        entityManager.clear();
+
+        CursorPageDto<MovieDto> page = movieEntityRepository.getPage(
+                new MovieFilterDto(Genre.COMEDY, true, null, null), MovieSort.ID, null, 10);
+
+        assertThat(page.items()).extracting(MovieDto::id).containsExactly(comedy.getId());
+        assertThat(page.hasMore()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void saveAllInsertsNewMoviesAndSkipsTakenTitlesAndTmdbIds() {
+        MovieEntity existing = persistMovies(1).get(0);
+        MovieEntity imported = entityManager.find(MovieEntity.class, existing.getId());
+        imported.setTmdbId(603L);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<MovieDto> saved = movieEntityRepository.saveAll(List.of(
+                tmdbMovie(603L, "Matrix"),
+                tmdbMovie(550L, existing.getTitle()),
+                tmdbMovie(238L, "El Padrino"),
+                tmdbMovie(238L, "El Padrino (duplicado)"),
+                tmdbMovie(680L, "Pulp Fiction")));
+        entityManager.clear();
+
+        assertThat(saved).extracting(MovieDto::tmdbId).containsExactly(238L, 680L);
+        assertThat(saved).extracting(MovieDto::id).doesNotContainNull();
+        assertThat(movieEntityRepository.findExistingTmdbIds(List.of(603L, 550L, 238L, 680L)))
+                .containsExactlyInAnyOrder(603L, 238L, 680L);
+        MovieDto thriller = movieEntityRepository.findByTmdbId(680L).orElseThrow();
+        assertThat(thriller.genre()).isEqualTo(Genre.THRILLER);
+        assertThat(thriller.available()).isTrue();
+        assertThat(crudMovieRatingStatsEntity.findById(thriller.id())).isPresent();
+    }
+
+    @Test
+    void bulkInsertedIdsComeFromTheSameGeneratorAsEntityInserts() {
+        List<MovieDto> imported = movieEntityRepository.saveAll(List.of(tmdbMovie(1L, "Alien"), tmdbMovie(2L, "Aliens")));
+        MovieDto created = movieEntityRepository.save(tmdbMovie(3L, "Alien 3"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(imported).extracting(MovieDto::id).doesNotContain(created.id());
+        assertThat(movieEntityRepository.getById(imported.get(1).id()).title()).isEqualTo("Aliens");
+        assertThat(movieEntityRepository.getById(created.id()).title()).isEqualTo("Alien 3");
+    }
+
+    @Test
+    void everyWriteRecordsAMoviesChangeInItsTransaction() {
+        long before = crudCatalogChangeEntity.count();
+
+        MovieDto created = movieEntityRepository.save(tmdbMovie(1L, "Alien"));
+        movieEntityRepository.saveAll(List.of(tmdbMovie(2L, "Aliens"), tmdbMovie(3L, "Alien 3")));
+        movieEntityRepository.update(created.id(), new UpdateMovieDto("Alien, el octavo pasajero", null, null));
+        movieEntityRepository.delete(created.id());
+
+        assertThat(crudCatalogChangeEntity.findAll()).hasSize((int) before + 4)
+                .allMatch(change -> change.getCatalog().equals(CatalogVersionRepository.MOVIES));
+    }
+
+    private MovieDto tmdbMovie(Long tmdbId, String title) {
+        return new MovieDto(null, title, 120, Genre.THRILLER, null, 8.5, true, null, 0L,
+                tmdbId, null, null, null, title, 8.5, 1000, 50.0, "en");
+    }
+
+    private void persistReviewedMovies(int count) {
+        List<MovieEntity> movies = persistMovies(count);
+        for (int i = 0; i < movies.size(); i++) {
+            persistReview(firstReviewer, movies.get(i), 1 + i % 5);
+        }
+        rebuildRatingStats();
+    }
+
+    // Las reviews se insertan directamente, sin pasar por ReviewEntityRepository
+    private void rebuildRatingStats() {
+        entityManager.flush();
+        crudMovieRatingStatsEntity.deleteAllInBatch();
+        crudMovieRatingStatsEntity.rebuildAll();
+        entityManager.clear();
+    }
+
+    private List<MovieEntity> persistMovies(int count) {
+        long offset = entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(m) FROM MovieEntity m", Long.class)
+                .getSingleResult();
+        List<MovieEntity> movies = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MovieEntity movie = new MovieEntity();
+            movie.setTitle("Movie " + (offset + i));
+            movie.setDuration(120);
+            movie.setGenre("DRAMA");
+            movie.setStatus("D");
+            movies.add(entityManager.persist(movie));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return movies;
+    }
+
+    private UserEntity persistUser(String username) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setEmailVerificado(true);
+        return entityManager.persist(user);
+    }
+
+    private void persistReview(UserEntity user, MovieEntity movie, int rating) {
+        ReviewEntity review = new ReviewEntity();
+        review.setUser(entityManager.getEntityManager().getReference(UserEntity.class, user.getId()));
+        review.setMovie(entityManager.getEntityManager().getReference(MovieEntity.class, movie.getId()));
+        review.setRating(rating);
+        entityManager.persist(review);
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
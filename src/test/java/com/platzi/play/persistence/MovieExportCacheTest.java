@@ -0,0 +1,83 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.persistence.crud.CrudMovieEntity;
+import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.mapper.MovieMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sin transacción de prueba: la caché de segundo nivel solo se llena desde sesiones confirmadas
+@DataJpaTest(properties = "movies.export.chunk-size=4")
+@Import({MovieEntityRepository.class, CatalogVersionEntityRepository.class, MovieMapperImpl.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MovieExportCacheTest {
+
+    @Autowired
+    private MovieEntityRepository movieEntityRepository;
+
+    @Autowired
+    private CrudMovieEntity crudMovieEntity;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<MovieEntity> movies;
+
+    @BeforeEach
+    void setUp() {
+        movies = crudMovieEntity.saveAll(IntStream.range(0, 10).mapToObj(i -> {
+            MovieEntity movie = new MovieEntity();
+            movie.setTitle("Exported " + i);
+            movie.setDuration(100);
+            movie.setGenre("DRAMA");
+            movie.setStatus("D");
+            return movie;
+        }).toList());
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        crudMovieEntity.deleteAllInBatch(movies);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void exportDoesNotFillTheSecondLevelCache() {
+        List<Long> exported = new ArrayList<>();
+        List<Long> chunk = exportChunk(null);
+        while (!chunk.isEmpty()) {
+            exported.addAll(chunk);
+            chunk = exportChunk(chunk.get(chunk.size() - 1));
+        }
+
+        assertThat(exported).containsExactlyElementsOf(movies.stream().map(MovieEntity::getId).toList());
+        assertThat(movies).noneMatch(this::isCached);
+
+        crudMovieEntity.findById(movies.get(0).getId());
+        assertThat(isCached(movies.get(0))).isTrue();
+    }
+
+    private List<Long> exportChunk(Long afterId) {
+        return movieEntityRepository.getExportChunk(afterId).stream().map(MovieDto::id).toList();
+    }
+
+    private boolean isCached(MovieEntity movie) {
+        return entityManagerFactory.getCache().contains(MovieEntity.class, movie.getId());
+    }
+}
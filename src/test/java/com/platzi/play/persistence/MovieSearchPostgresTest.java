@@ -0,0 +1,161 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.SearchMode;
+import com.platzi.play.domain.dto.CursorPageDto;
+import com.platzi.play.domain.dto.MovieSearchHitDto;
+import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.entity.ReviewEntity;
+import com.platzi.play.persistence.entity.UserEntity;
+import com.platzi.play.persistence.mapper.MovieMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Búsqueda local del catálogo sobre PostgreSQL real (tsvector, unaccent y pg_trgm no existen en H2).
+ * Levanta un servidor embebido; se ejecuta con {@code ./gradlew postgresTest}. El esquema se crea
+ * con {@code create} y no {@code create-drop}: el servidor se detiene con su propio hook de apagado,
+ * que puede correr antes que el de Spring.
+ */
+@Tag("postgres")
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MovieEntityRepository.class, CatalogVersionEntityRepository.class, MovieMapperImpl.class, SimpleMeterRegistry.class,
+        MovieSearchPostgresTest.EmbeddedPostgresConfig.class})
+@Sql("classpath:migration-full-text-search.sql")
+class MovieSearchPostgresTest {
+
+    @Autowired
+    private MovieEntityRepository movieEntityRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void titleMatchesRankAboveMatchesOnlyInReviews() {
+        MovieEntity godfather = persistMovie("El Padrino", "The Godfather", "Don Vito Corleone dirige una familia de la mafia.");
+        MovieEntity goodfellas = persistMovie("Buenos muchachos", "Goodfellas", "Henry Hill crece dentro de la mafia de Nueva York.");
+        persistMovie("Amélie", null, "Una joven camarera de París decide cambiar la vida de los demás.");
+        persistReview(persistUser("ana"), goodfellas, "Casi tan buena como El Padrino.");
+
+        CursorPageDto<MovieSearchHitDto> page = movieEntityRepository.search("padrino", SearchMode.FULL_TEXT, null, 10);
+
+        assertThat(page.items()).extracting(MovieSearchHitDto::id)
+                .containsExactly(godfather.getId(), goodfellas.getId());
+        assertThat(page.items().get(0).score()).isGreaterThan(page.items().get(1).score());
+        assertThat(page.items().get(1).matchingReviews()).isEqualTo(1);
+        assertThat(page.hasMore()).isFalse();
+    }
+
+    @Test
+    void accentsAreIgnoredInTheQueryAndTheText() {
+        MovieEntity amelie = persistMovie("Amélie", null, "Una joven camarera de París decide cambiar la vida de los demás.");
+
+        CursorPageDto<MovieSearchHitDto> page = movieEntityRepository.search("amelie paris", SearchMode.FULL_TEXT, null, 10);
+
+        assertThat(page.items()).extracting(MovieSearchHitDto::id).containsExactly(amelie.getId());
+        assertThat(page.items().get(0).snippet()).contains("<b>París</b>");
+    }
+
+    @Test
+    void cursorWalksEveryHitOnceInRelevanceOrder() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(persistMovie("Mafia " + i, null, "Una historia de la mafia número " + i + ".").getId());
+        }
+        persistMovie("Comedia romántica", null, "Sin relación con la búsqueda.");
+
+        List<MovieSearchHitDto> walked = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            CursorPageDto<MovieSearchHitDto> page = movieEntityRepository.search("mafia", SearchMode.FULL_TEXT, cursor, 2);
+            walked.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(walked).extracting(MovieSearchHitDto::id).containsExactlyInAnyOrderElementsOf(expected);
+        // Mismo orden que la consulta: relevancia descendente y, a igual relevancia, id descendente
+        for (int i = 1; i < walked.size(); i++) {
+            MovieSearchHitDto previous = walked.get(i - 1);
+            MovieSearchHitDto current = walked.get(i);
+            assertThat(previous.score() > current.score()
+                    || previous.score() == current.score() && previous.id() > current.id()).isTrue();
+        }
+    }
+
+    @Test
+    void typoTolerantModeFindsMisspelledTitles() {
+        MovieEntity godfather = persistMovie("El Padrino", "The Godfather", null);
+        persistMovie("Amélie", null, null);
+
+        CursorPageDto<MovieSearchHitDto> page = movieEntityRepository.search("godfater", SearchMode.TYPO_TOLERANT, null, 10);
+
+        assertThat(page.items()).extracting(MovieSearchHitDto::id).containsExactly(godfather.getId());
+        assertThat(movieEntityRepository.search("godfater", SearchMode.FULL_TEXT, null, 10).items()).isEmpty();
+    }
+
+    private MovieEntity persistMovie(String title, String originalTitle, String overview) {
+        MovieEntity movie = new MovieEntity();
+        movie.setTitle(title);
+        movie.setOriginalTitle(originalTitle);
+        movie.setOverview(overview);
+        movie.setDuration(120);
+        movie.setGenre("DRAMA");
+        movie.setStatus("D");
+        entityManager.persist(movie);
+        entityManager.flush();
+        return movie;
+    }
+
+    private UserEntity persistUser(String username) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setEmailVerificado(true);
+        return entityManager.persist(user);
+    }
+
+    private void persistReview(UserEntity user, MovieEntity movie, String comment) {
+        ReviewEntity review = new ReviewEntity();
+        review.setUser(user);
+        review.setMovie(movie);
+        review.setRating(5);
+        review.setComment(comment);
+        entityManager.persist(review);
+        entityManager.flush();
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class EmbeddedPostgresConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
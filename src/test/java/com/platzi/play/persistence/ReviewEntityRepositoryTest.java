@@ -0,0 +1,188 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.ReviewSort;
+import com.platzi.play.domain.dto.CreateReviewDto;
+import com.platzi.play.domain.dto.CursorPageDto;
+import com.platzi.play.domain.dto.MovieRatingStatsDto;
+import com.platzi.play.domain.dto.ReviewDto;
+import com.platzi.play.domain.dto.UpdateReviewDto;
+import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.entity.ReviewEntity;
+import com.platzi.play.persistence.entity.UserEntity;
+import com.platzi.play.persistence.mapper.ReviewMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ReviewEntityRepository.class, CatalogVersionEntityRepository.class, ReviewMapperImpl.class})
+class ReviewEntityRepositoryTest {
+
+    @Autowired
+    private ReviewEntityRepository reviewEntityRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MovieEntity movie;
+    private UserEntity firstUser;
+    private UserEntity secondUser;
+
+    @BeforeEach
+    void setUp() {
+        movie = new MovieEntity();
+        movie.setTitle("El Padrino");
+        movie.setDuration(175);
+        movie.setGenre("DRAMA");
+        movie.setStatus("D");
+        entityManager.persist(movie);
+        firstUser = persistUser("first");
+        secondUser = persistUser("second");
+        entityManager.flush();
+    }
+
+    @Test
+    void ratingStatsFollowReviewWrites() {
+        ReviewDto first = reviewEntityRepository.save(new CreateReviewDto(movie.getId(), 5, "Obra maestra"), firstUser.getId());
+        reviewEntityRepository.save(new CreateReviewDto(movie.getId(), 3, null), secondUser.getId());
+        assertStats(2, 4.0, Map.of(1, 0L, 2, 0L, 3, 1L, 4, 0L, 5, 1L));
+
+        reviewEntityRepository.update(first.id(), new UpdateReviewDto(1, null), firstUser.getId());
+        assertStats(2, 2.0, Map.of(1, 1L, 2, 0L, 3, 1L, 4, 0L, 5, 0L));
+
+        reviewEntityRepository.delete(first.id(), firstUser.getId());
+        assertStats(1, 3.0, Map.of(1, 0L, 2, 0L, 3, 1L, 4, 0L, 5, 0L));
+    }
+
+    @Test
+    void missingStatsAreComputedOnFirstWrite() {
+        // Review anterior a la tabla de estadísticas
+        ReviewEntity legacy = new ReviewEntity();
+        legacy.setUser(firstUser);
+        legacy.setMovie(movie);
+        legacy.setRating(2);
+        entityManager.persistAndFlush(legacy);
+
+        reviewEntityRepository.save(new CreateReviewDto(movie.getId(), 4, null), secondUser.getId());
+
+        assertStats(2, 3.0, Map.of(1, 0L, 2, 1L, 3, 0L, 4, 1L, 5, 0L));
+    }
+
+    @Test
+    void rebuildRecomputesStatsFromReviews() {
+        reviewEntityRepository.save(new CreateReviewDto(movie.getId(), 4, null), firstUser.getId());
+        entityManager.getEntityManager()
+                .createQuery("UPDATE MovieRatingStatsEntity s SET s.reviewCount = 99")
+                .executeUpdate();
+
+        reviewEntityRepository.rebuildRatingStats();
+
+        assertStats(1, 4.0, Map.of(1, 0L, 2, 0L, 3, 0L, 4, 1L, 5, 0L));
+    }
+
+    @Test
+    void reviewListingsLoadUserAndMovieInOneStatement() {
+        MovieEntity otherMovie = new MovieEntity();
+        otherMovie.setTitle("Matrix");
+        otherMovie.setDuration(136);
+        otherMovie.setGenre("CIENCIA_FICCION");
+        otherMovie.setStatus("D");
+        entityManager.persist(otherMovie);
+        reviewEntityRepository.save(new CreateReviewDto(movie.getId(), 5, "Obra maestra"), firstUser.getId());
+        reviewEntityRepository.save(new CreateReviewDto(movie.getId(), 3, null), secondUser.getId());
+        reviewEntityRepository.save(new CreateReviewDto(otherMovie.getId(), 4, null), firstUser.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ReviewDto> movieReviews = countingStatements(() -> reviewEntityRepository.getByMovieId(movie.getId()));
+        assertThat(movieReviews).extracting(ReviewDto::username).containsExactlyInAnyOrder("first", "second");
+        assertThat(movieReviews).extracting(ReviewDto::movieTitle).containsOnly("El Padrino");
+
+        List<ReviewDto> userReviews = countingStatements(() -> reviewEntityRepository.getByUserId(firstUser.getId()));
+        assertThat(userReviews).extracting(ReviewDto::movieTitle).containsExactlyInAnyOrder("El Padrino", "Matrix");
+        assertThat(userReviews).extracting(ReviewDto::userId).containsOnly(firstUser.getId());
+    }
+
+    @Test
+    void reviewPagesWalkEverySortOrderWithoutGapsOrDuplicates() {
+        int[] ratings = {4, 2, 5, 4, 1, 4, 3};
+        for (int i = 0; i < ratings.length; i++) {
+            reviewEntityRepository.save(new CreateReviewDto(movie.getId(), ratings[i], null), persistUser("reviewer" + i).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        List<ReviewDto> all = reviewEntityRepository.getByMovieId(movie.getId());
+
+        Comparator<ReviewDto> byCreation = Comparator.comparing(ReviewDto::createdAt).thenComparing(ReviewDto::id);
+        Comparator<ReviewDto> byRating = Comparator.comparing(ReviewDto::rating).thenComparing(ReviewDto::id);
+        assertThat(walkMoviePages(ReviewSort.NEWEST)).isEqualTo(all.stream().sorted(byCreation.reversed()).toList());
+        assertThat(walkMoviePages(ReviewSort.OLDEST)).isEqualTo(all.stream().sorted(byCreation).toList());
+        assertThat(walkMoviePages(ReviewSort.HIGHEST_RATING)).isEqualTo(all.stream().sorted(byRating.reversed()).toList());
+        assertThat(walkMoviePages(ReviewSort.LOWEST_RATING)).isEqualTo(all.stream().sorted(byRating).toList());
+
+        CursorPageDto<ReviewDto> userPage = reviewEntityRepository.getPageByUserId(firstUser.getId(), ReviewSort.NEWEST, null, 5);
+        assertThat(userPage.items()).isEmpty();
+        assertThat(userPage.hasMore()).isFalse();
+    }
+
+    // Recorre todas las páginas de tamaño 2; cada página debe resolverse con una sola consulta
+    private List<ReviewDto> walkMoviePages(ReviewSort sort) {
+        List<ReviewDto> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            String current = cursor;
+            CursorPageDto<ReviewDto> page = countingStatements(
+                    () -> reviewEntityRepository.getPageByMovieId(movie.getId(), sort, current, 2));
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+            walked.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return walked;
+    }
+
+    // Ejecuta la consulta y verifica que no dispare cargas perezosas adicionales
+    private <T> T countingStatements(Supplier<T> query) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        T result = query.get();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        return result;
+    }
+
+    private void assertStats(long count, Double average, Map<Integer, Long> distribution) {
+        entityManager.flush();
+        entityManager.clear();
+        MovieRatingStatsDto stats = reviewEntityRepository.getRatingStatsByMovieId(movie.getId());
+        assertThat(stats.reviewCount()).isEqualTo(count);
+        assertThat(stats.averageRating()).isEqualTo(average);
+        assertThat(stats.distribution()).isEqualTo(distribution);
+        assertThat(reviewEntityRepository.countByMovieId(movie.getId())).isEqualTo(count);
+        assertThat(reviewEntityRepository.getAverageRatingByMovieId(movie.getId())).isEqualTo(average);
+    }
+
+    private UserEntity persistUser(String username) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setEmailVerificado(true);
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,120 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.dto.CreateReviewDto;
+import com.platzi.play.persistence.crud.CrudMovieEntity;
+import com.platzi.play.persistence.crud.CrudMovieRatingStatsEntity;
+import com.platzi.play.persistence.crud.CrudReviewEntity;
+import com.platzi.play.persistence.crud.CrudUserEntity;
+import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.entity.MovieRatingStatsEntity;
+import com.platzi.play.persistence.entity.UserEntity;
+import com.platzi.play.persistence.mapper.ReviewMapperImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sin transacción de prueba: cada escritura confirma en su propio hilo
+@DataJpaTest
+@Import({ReviewEntityRepository.class, CatalogVersionEntityRepository.class, ReviewMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReviewRatingStatsConcurrencyTest {
+
+    @Autowired
+    private ReviewEntityRepository reviewEntityRepository;
+
+    @Autowired
+    private CrudMovieEntity crudMovieEntity;
+
+    @Autowired
+    private CrudUserEntity crudUserEntity;
+
+    @Autowired
+    private CrudReviewEntity crudReviewEntity;
+
+    @Autowired
+    private CrudMovieRatingStatsEntity crudMovieRatingStatsEntity;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MovieEntity movie;
+    private UserEntity firstUser;
+    private UserEntity secondUser;
+
+    @BeforeEach
+    void setUp() {
+        // Película anterior a la tabla de estadísticas: no tiene fila en movie_rating_stats
+        movie = new MovieEntity();
+        movie.setTitle("Casablanca");
+        movie.setDuration(102);
+        movie.setGenre("DRAMA");
+        movie.setStatus("D");
+        movie = crudMovieEntity.save(movie);
+        firstUser = saveUser("first");
+        secondUser = saveUser("second");
+    }
+
+    @AfterEach
+    void tearDown() {
+        crudReviewEntity.deleteAll();
+        crudMovieRatingStatsEntity.deleteAll();
+        crudMovieEntity.deleteAll();
+        crudUserEntity.deleteAll();
+    }
+
+    @Test
+    void concurrentFirstReviewsOfAMovieWithoutStatsBothSucceed() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstWrote = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            reviewEntityRepository.save(new CreateReviewDto(movie.getId(), 5, null), firstUser.getId());
+            firstWrote.countDown();
+            await(releaseFirst);
+        }));
+        assertThat(firstWrote.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // La segunda escritura no ve la fila sin confirmar de la primera y queda esperando el bloqueo
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status ->
+                reviewEntityRepository.save(new CreateReviewDto(movie.getId(), 3, null), secondUser.getId())));
+        Thread.sleep(200);
+        assertThat(second).isNotDone();
+        releaseFirst.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        MovieRatingStatsEntity stats = crudMovieRatingStatsEntity.findById(movie.getId()).orElseThrow();
+        assertThat(stats.getReviewCount()).isEqualTo(2);
+        assertThat(stats.getAverageRating()).isEqualTo(4.0);
+    }
+
+    private UserEntity saveUser(String username) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        return crudUserEntity.save(user);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
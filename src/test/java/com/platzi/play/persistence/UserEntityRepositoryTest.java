@@ -0,0 +1,138 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.dto.EntityCacheRegionStatsDto;
+import com.platzi.play.domain.dto.UserDto;
+import com.platzi.play.persistence.crud.CrudUserEntity;
+import com.platzi.play.persistence.entity.UserEntity;
+import com.platzi.play.persistence.mapper.UserMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Sin transacción de prueba: la caché de segundo nivel solo se comparte entre sesiones confirmadas
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({UserEntityRepository.class, UserMapperImpl.class, HibernateEntityCacheRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserEntityRepositoryTest {
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Autowired
+    private HibernateEntityCacheRepository entityCacheRepository;
+
+    @Autowired
+    private CrudUserEntity crudUserEntity;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        user = new UserEntity();
+        user.setUsername("cached");
+        user.setEmail("cached@example.com");
+        user.setPassword("secret");
+        user = crudUserEntity.save(user);
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        crudUserEntity.deleteById(user.getId());
+    }
+
+    @Test
+    void repeatedLookupsByUsernameEmailAndIdAreServedFromTheCache() {
+        assertThat(userEntityRepository.getEntityByUsernameOrEmail("cached").getId()).isEqualTo(user.getId());
+        assertThat(userEntityRepository.getEntityByUsernameOrEmail("cached@example.com").getId()).isEqualTo(user.getId());
+        long firstRoundStatements = statistics.getPrepareStatementCount();
+
+        assertThat(userEntityRepository.getEntityByUsernameOrEmail("cached").getId()).isEqualTo(user.getId());
+        assertThat(userEntityRepository.getEntityByUsernameOrEmail("cached@example.com").getId()).isEqualTo(user.getId());
+        assertThat(userEntityRepository.getByUsername("cached").email()).isEqualTo("cached@example.com");
+        assertThat(userEntityRepository.getById(user.getId()).username()).isEqualTo("cached");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(firstRoundStatements);
+        assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(entityCacheRepository.getRegionStats())
+                .filteredOn(region -> region.region().equals("users"))
+                .singleElement()
+                .satisfies(region -> assertThat(region.hitRatio()).isGreaterThan(0.5));
+    }
+
+    @Test
+    void updatesThroughHibernateReplaceTheCachedUser() {
+        userEntityRepository.getEntityByUsernameOrEmail("cached@example.com");
+
+        UserEntity changed = crudUserEntity.findById(user.getId()).orElseThrow();
+        changed.setEmail("renamed@example.com");
+        crudUserEntity.save(changed);
+
+        assertThat(userEntityRepository.getEntityByUsernameOrEmail("cached@example.com")).isNull();
+        assertThat(userEntityRepository.getEntityByUsernameOrEmail("renamed@example.com").getId()).isEqualTo(user.getId());
+        assertThat(userEntityRepository.getByUsername("cached").email()).isEqualTo("renamed@example.com");
+        assertThat(entityCacheRepository.getRegionStats())
+                .extracting(EntityCacheRegionStatsDto::region)
+                .contains("users", "users-by-username", "movies");
+    }
+
+    @Test
+    void profileUpdatesKeepTheUsernameAndRenamesAreRejected() {
+        UserDto cached = userEntityRepository.getByUsername("cached");
+
+        userEntityRepository.update(new UserDto(cached.id(), cached.username(), "updated@example.com", "Cached User",
+                cached.role(), cached.fechaCreacion(), cached.ultimoAcceso(), cached.activo(), cached.emailVerificado()));
+        assertThat(userEntityRepository.getByUsername("cached").email()).isEqualTo("updated@example.com");
+
+        UserDto renamed = new UserDto(cached.id(), "renamed", cached.email(), cached.nombreCompleto(), cached.role(),
+                cached.fechaCreacion(), cached.ultimoAcceso(), cached.activo(), cached.emailVerificado());
+        assertThatThrownBy(() -> userEntityRepository.update(renamed)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(userEntityRepository.getByUsername("renamed")).isNull();
+        assertThat(userEntityRepository.getByUsername("cached").id()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void lastAccessBatchNeverMovesBackAndEvictsTheCachedUser() {
+        LocalDateTime accessedAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        userEntityRepository.getByUsername("cached");
+
+        userEntityRepository.updateLastAccess(Map.of(user.getId(), accessedAt));
+        assertThat(userEntityRepository.getByUsername("cached").ultimoAcceso()).isEqualTo(accessedAt);
+
+        userEntityRepository.updateLastAccess(Map.of(user.getId(), accessedAt.minusHours(1)));
+        assertThat(userEntityRepository.getByUsername("cached").ultimoAcceso()).isEqualTo(accessedAt);
+
+        // Un UPDATE de la entidad completa no pisa el último acceso registrado en lote
+        UserEntity changed = crudUserEntity.findById(user.getId()).orElseThrow();
+        changed.setUltimoAcceso(null);
+        changed.setNombreCompleto("Cached User");
+        crudUserEntity.save(changed);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_access FROM users WHERE id = ?",
+                LocalDateTime.class, user.getId())).isEqualTo(accessedAt);
+    }
+}
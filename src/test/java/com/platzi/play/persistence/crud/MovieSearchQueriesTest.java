@@ -0,0 +1,66 @@
+package com.platzi.play.persistence.crud;
+
+import com.platzi.play.domain.SearchMode;
+import com.platzi.play.domain.dto.MovieSearchHitDto;
+import com.platzi.play.domain.exception.InvalidCursorException;
+import com.platzi.play.persistence.pagination.PageCursor;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class MovieSearchQueriesTest {
+
+    @Test
+    void cursorOfTheLastHitBindsItsScoreAndId() {
+        MovieSearchHitDto hit = new MovieSearchHitDto(42L, "El Padrino", null, 1972, null, null, 0, 0.0607927f);
+        String encoded = MovieSearchQueries.cursorOf(SearchMode.FULL_TEXT, hit).encode();
+        Query query = mock(Query.class);
+
+        MovieSearchQueries.bindCursor(query, PageCursor.decode(encoded, SearchMode.FULL_TEXT.name()));
+
+        verify(query).setParameter("score", 0.0607927f);
+        verify(query).setParameter("lastId", 42L);
+    }
+
+    @Test
+    void cursorWithoutScoreIsRejected() {
+        Query query = mock(Query.class);
+
+        assertThatThrownBy(() -> MovieSearchQueries.bindCursor(query, new PageCursor("FULL_TEXT", 42L, null)))
+                .isInstanceOf(InvalidCursorException.class);
+        verify(query, never()).setParameter(anyString(), any());
+    }
+
+    @Test
+    void cursorWithNonNumericScoreIsRejected() {
+        Query query = mock(Query.class);
+
+        assertThatThrownBy(() -> MovieSearchQueries.bindCursor(query, new PageCursor("FULL_TEXT", 42L, "relevante")))
+                .isInstanceOf(InvalidCursorException.class);
+        verify(query, never()).setParameter(anyString(), any());
+    }
+
+    @Test
+    void cursorFromTheOtherModeIsRejected() {
+        MovieSearchHitDto hit = new MovieSearchHitDto(42L, "El Padrino", null, 1972, null, null, 0, 0.8f);
+        String encoded = MovieSearchQueries.cursorOf(SearchMode.TYPO_TOLERANT, hit).encode();
+
+        assertThatThrownBy(() -> PageCursor.decode(encoded, SearchMode.FULL_TEXT.name()))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void onlyFollowingPagesFilterByTheCursorPosition() {
+        for (SearchMode mode : SearchMode.values()) {
+            assertThat(MovieSearchQueries.sql(mode, false)).doesNotContain(":score", ":lastId");
+            assertThat(MovieSearchQueries.sql(mode, true)).contains("(h.score, h.id) < (:score, :lastId)");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.platzi.play.web.config;
+
+import com.platzi.play.domain.service.PlatziPlayAiService;
+import dev.langchain4j.service.TokenStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsConfigTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void modelCallsAreTimedButStreamsAreLeftToTheSseBridge() {
+        PlatziPlayAiService aiService = mock(PlatziPlayAiService.class);
+        TokenStream tokenStream = mock(TokenStream.class);
+        when(aiService.generateMovieSuggestion("terror")).thenReturn("El Exorcista");
+        when(aiService.streamMovieSuggestion("terror")).thenReturn(tokenStream);
+        when(aiService.streamMovieSuggestion("falla")).thenThrow(new IllegalStateException("sin modelo"));
+        PlatziPlayAiService instrumented = instrument(aiService);
+
+        assertThat(instrumented.generateMovieSuggestion("terror")).isEqualTo("El Exorcista");
+        assertThat(instrumented.streamMovieSuggestion("terror")).isSameAs(tokenStream);
+        assertThatThrownBy(() -> instrumented.streamMovieSuggestion("falla")).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.find("ai.service.invocations").timers())
+                .singleElement()
+                .satisfies(timer -> {
+                    assertThat(timer.getId().getTag("method")).isEqualTo("generateMovieSuggestion");
+                    assertThat(timer.count()).isEqualTo(1);
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private PlatziPlayAiService instrument(PlatziPlayAiService aiService) {
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(meterRegistry);
+        return (PlatziPlayAiService) MetricsConfig.aiServiceMetricsPostProcessor(provider)
+                .postProcessAfterInitialization(aiService, "platziPlayAiService");
+    }
+}
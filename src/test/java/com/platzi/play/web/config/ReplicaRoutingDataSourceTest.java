@@ -0,0 +1,144 @@
+package com.platzi.play.web.config;
+
+import com.platzi.play.domain.service.ReviewService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String ROUTED_READ = ReviewService.class.getName() + ".getReviewsByMovieId";
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private HikariDataSource primary;
+    private ReadYourWritesTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1", "primary");
+        tracker = new ReadYourWritesTracker(Duration.ofMillis(300));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void readOnlyServiceTransactionsGoToTheReplicaAndEverythingElseToThePrimary() {
+        DataSourceTransactionManager transactions =
+                transactionManager(database("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "replica"));
+
+        assertThat(read(transactions, ROUTED_READ, true)).isEqualTo("replica");
+        assertThat(read(transactions, "com.platzi.play.domain.service.AuthService.login", true)).isEqualTo("primary");
+        assertThat(read(transactions, ROUTED_READ, false)).isEqualTo("primary");
+    }
+
+    @Test
+    void primaryReadsScopeKeepsRoutedReadsOnThePrimary() {
+        DataSourceTransactionManager transactions =
+                transactionManager(database("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "replica"));
+
+        String inside = PrimaryReads.call(() -> PrimaryReads.call(() -> read(transactions, ROUTED_READ, true)));
+
+        assertThat(inside).isEqualTo("primary");
+        assertThat(PrimaryReads.isActive()).isFalse();
+        assertThat(read(transactions, ROUTED_READ, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void userReadsTheirOwnWritesFromThePrimaryDuringTheStickyWindow() throws InterruptedException {
+        DataSourceTransactionManager transactions =
+                transactionManager(database("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "replica"));
+
+        authenticate("ana");
+        read(transactions, ReviewService.class.getName() + ".createReview", false);
+        assertThat(read(transactions, ROUTED_READ, true)).isEqualTo("primary");
+
+        authenticate("bruno");
+        assertThat(read(transactions, ROUTED_READ, true)).isEqualTo("replica");
+
+        Thread.sleep(400);
+        authenticate("ana");
+        assertThat(read(transactions, ROUTED_READ, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void unavailableReplicaFallsBackToThePrimary() {
+        HikariDataSource down = new HikariDataSource();
+        down.setJdbcUrl("jdbc:h2:tcp://localhost:1/mem:down");
+        down.setConnectionTimeout(250);
+        down.setInitializationFailTimeout(-1);
+        pools.add(down);
+        DataSourceTransactionManager transactions = transactionManager(down);
+
+        assertThat(read(transactions, ROUTED_READ, true)).isEqualTo("primary");
+        assertThat(read(transactions, ROUTED_READ, true)).isEqualTo("primary");
+    }
+
+    @Test
+    void explicitCredentialsAreDelegatedToThePrimary() throws SQLException {
+        HikariDataSource credentialsPrimary = mock(HikariDataSource.class);
+        Connection connection = mock(Connection.class);
+        when(credentialsPrimary.getConnection("reporting", "secret")).thenReturn(connection);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(credentialsPrimary,
+                List.of(database("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "replica")),
+                Set.of(ReviewService.class.getName()), tracker, Duration.ofSeconds(30));
+
+        assertThat(routing.getConnection("reporting", "secret")).isSameAs(connection);
+    }
+
+    private DataSourceTransactionManager transactionManager(HikariDataSource replica) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica),
+                Set.of(ReviewService.class.getName()), tracker, Duration.ofSeconds(30));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionManager.addListener(tracker);
+        return transactionManager;
+    }
+
+    // Simula un método @Transactional: el nombre de la transacción es "<clase>.<método>"
+    private static String read(DataSourceTransactionManager transactionManager, String name, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setName(name);
+        template.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(transactionManager.getDataSource());
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM source", String.class));
+    }
+
+    private HikariDataSource database(String url, String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        pools.add(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS source (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM source");
+        jdbcTemplate.update("INSERT INTO source (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
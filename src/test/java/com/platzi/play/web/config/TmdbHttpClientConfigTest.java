@@ -0,0 +1,212 @@
+package com.platzi.play.web.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TmdbHttpClientConfigTest {
+
+    private static final byte[] BODY = ("{\"page\":1,\"total_results\":1,\"total_pages\":1,\"results\":"
+            + "[{\"id\":603,\"title\":\"Matrix\",\"poster_path\":\"/matrix.jpg\"}]}").getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private final Set<String> clientAddresses = ConcurrentHashMap.newKeySet();
+    private volatile long upstreamDelayMillis;
+    private CloseableHttpClient httpClient;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/movie/popular", exchange -> {
+            // Cada conexión nueva llega desde un puerto local distinto
+            clientAddresses.add(exchange.getRemoteAddress().toString());
+            sleep(upstreamDelayMillis);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubServer() throws IOException {
+        server.stop(0);
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+
+    @Test
+    void slowUpstreamFailsWithinReadTimeout() {
+        RestTemplate restTemplate = pooledRestTemplate(Duration.ofMillis(200));
+        upstreamDelayMillis = 2000;
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> restTemplate.getForObject(url("/movie/popular"), String.class))
+                .isInstanceOf(ResourceAccessException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void sequentialRequestsReuseOneConnection() {
+        RestTemplate restTemplate = pooledRestTemplate(Duration.ofSeconds(5));
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(restTemplate.getForObject(url("/movie/popular"), String.class)).contains("Matrix");
+        }
+
+        assertThat(clientAddresses).hasSize(1);
+    }
+
+    @Test
+    void callsAreRecordedPerNormalizedEndpointAndStatus() {
+        RestTemplate restTemplate = pooledRestTemplate(Duration.ofSeconds(5));
+
+        for (int i = 0; i < 3; i++) {
+            restTemplate.getForObject(url("/movie/popular?api_key=secret&page=" + i), String.class);
+        }
+        assertThatThrownBy(() -> restTemplate.getForObject(url("/movie/550?api_key=secret"), String.class))
+                .isInstanceOf(HttpClientErrorException.NotFound.class);
+
+        assertThat(meterRegistry.get(TmdbMetricsInterceptor.REQUESTS)
+                .tags("endpoint", "/movie/popular", "status", "200", "outcome", "SUCCESS").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(TmdbMetricsInterceptor.REQUESTS)
+                .tags("endpoint", "/movie/{id}", "status", "404", "outcome", "CLIENT_ERROR").timer().count()).isEqualTo(1);
+        DistributionSummary size = meterRegistry.get(TmdbMetricsInterceptor.RESPONSE_SIZE)
+                .tag("endpoint", "/movie/popular").summary();
+        assertThat(size.totalAmount()).isEqualTo(3.0 * BODY.length);
+    }
+
+    /**
+     * Compara el cliente anterior ({@code new RestTemplate()}) con el cliente con pool contra un
+     * servidor local con 20 ms de latencia. Se ejecuta con {@code ./gradlew loadTest}.
+     */
+    @Test
+    @Tag("load")
+    void pooledClientLoadComparison() throws Exception {
+        upstreamDelayMillis = 20;
+        int threads = 32;
+        int requestsPerThread = 100;
+
+        LoadResult baseline = runLoad(new RestTemplate(), threads, requestsPerThread);
+        LoadResult pooled = runLoad(pooledRestTemplate(Duration.ofSeconds(5)), threads, requestsPerThread);
+
+        System.out.printf("TMDB client load (%d threads x %d requests, %d ms upstream latency)%n",
+                threads, requestsPerThread, upstreamDelayMillis);
+        System.out.printf("  default RestTemplate: %8.1f req/s  p50=%6.1f ms  p99=%6.1f ms  errors=%d%n",
+                baseline.throughput(), baseline.p50Millis(), baseline.p99Millis(), baseline.errors());
+        System.out.printf("  pooled RestTemplate:  %8.1f req/s  p50=%6.1f ms  p99=%6.1f ms  errors=%d%n",
+                pooled.throughput(), pooled.p50Millis(), pooled.p99Millis(), pooled.errors());
+
+        assertThat(baseline.errors()).isZero();
+        assertThat(pooled.errors()).isZero();
+    }
+
+    private LoadResult runLoad(RestTemplate restTemplate, int threads, int requestsPerThread) throws Exception {
+        // Calentamiento para no medir el arranque de conexiones ni la compilación JIT
+        for (int i = 0; i < 50; i++) {
+            restTemplate.getForObject(url("/movie/popular"), String.class);
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> futures = new ArrayList<>();
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            futures.add(clients.submit(() -> {
+                long[] latencies = new long[requestsPerThread];
+                for (int i = 0; i < requestsPerThread; i++) {
+                    long requestStart = System.nanoTime();
+                    try {
+                        restTemplate.getForObject(url("/movie/popular"), String.class);
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - requestStart;
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[threads * requestsPerThread];
+        int offset = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+        clients.awaitTermination(10, TimeUnit.SECONDS);
+
+        Arrays.sort(all);
+        return new LoadResult(all.length / (elapsed / 1e9),
+                all[(int) (all.length * 0.50)] / 1e6,
+                all[(int) (all.length * 0.99)] / 1e6,
+                errors.get());
+    }
+
+    private RestTemplate pooledRestTemplate(Duration readTimeout) {
+        TmdbHttpClientConfig config = new TmdbHttpClientConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", 50);
+        ReflectionTestUtils.setField(config, "maxConnectionsPerHost", 50);
+        ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(config, "readTimeout", readTimeout);
+        ReflectionTestUtils.setField(config, "poolAcquireTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(config, "keepAlive", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(config, "gzip", true);
+        httpClient = config.tmdbHttpClient();
+        return config.tmdbRestTemplate(httpClient, meterRegistry);
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record LoadResult(double throughput, double p50Millis, double p99Millis, int errors) {
+    }
+}
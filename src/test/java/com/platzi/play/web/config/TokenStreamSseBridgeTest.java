@@ -0,0 +1,151 @@
+package com.platzi.play.web.config;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.service.TokenStream;
+import dev.langchain4j.service.tool.ToolExecution;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TokenStreamSseBridgeTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenStreamSseBridge bridge = new TokenStreamSseBridge(Duration.ofSeconds(5), meterRegistry);
+
+    @Test
+    void tokensAreForwardedAsEventsFollowedByDone() throws Exception {
+        String body = stream(new FakeTokenStream(List.of("Te recomiendo", " Matrix\n", "y Alien"), null));
+
+        assertThat(body).containsSubsequence(
+                "event:token", "data:{\"text\":\"Te recomiendo\"}",
+                "event:token", "data:{\"text\":\" Matrix\\n\"}",
+                "event:token", "data:{\"text\":\"y Alien\"}",
+                "event:done");
+        assertThat(meterRegistry.counter("ai.stream.completions", "outcome", "completed").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("ai.stream.first.token").count()).isEqualTo(1);
+    }
+
+    @Test
+    void modelFailureEndsTheStreamWithAnErrorEvent() throws Exception {
+        String body = stream(new FakeTokenStream(List.of("Te"), new IllegalStateException("quota exceeded")));
+
+        assertThat(body).containsSubsequence("event:token", "event:error", "No se pudo generar la respuesta");
+        assertThat(body).doesNotContain("quota exceeded").doesNotContain("event:done");
+        assertThat(meterRegistry.counter("ai.stream.completions", "outcome", "error").count()).isEqualTo(1);
+    }
+
+    private String stream(TokenStream tokenStream) throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(bridge, tokenStream)).build();
+        MvcResult result = mockMvc.perform(get("/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        return result.getResponse().getContentAsString();
+    }
+
+    @RestController
+    static class StreamController {
+        private final TokenStreamSseBridge bridge;
+        private final TokenStream tokenStream;
+
+        StreamController(TokenStreamSseBridge bridge, TokenStream tokenStream) {
+            this.bridge = bridge;
+            this.tokenStream = tokenStream;
+        }
+
+        @GetMapping("/stream")
+        SseEmitter stream() {
+            return bridge.stream(tokenStream);
+        }
+    }
+
+    /**
+     * Emite los fragmentos en un hilo aparte, como lo hace el cliente HTTP del modelo
+     */
+    private static final class FakeTokenStream implements TokenStream {
+        private final List<String> tokens;
+        private final Throwable failure;
+        private Consumer<String> partial = token -> { };
+        private Consumer<ChatResponse> complete = response -> { };
+        private Consumer<Throwable> error = throwable -> { };
+
+        private FakeTokenStream(List<String> tokens, Throwable failure) {
+            this.tokens = tokens;
+            this.failure = failure;
+        }
+
+        @Override
+        public TokenStream onPartialResponse(Consumer<String> handler) {
+            this.partial = handler;
+            return this;
+        }
+
+        @Override
+        public TokenStream onRetrieved(Consumer<List<Content>> handler) {
+            return this;
+        }
+
+        @Override
+        public TokenStream onToolExecuted(Consumer<ToolExecution> handler) {
+            return this;
+        }
+
+        @Override
+        public TokenStream onCompleteResponse(Consumer<ChatResponse> handler) {
+            this.complete = handler;
+            return this;
+        }
+
+        @Override
+        public TokenStream onError(Consumer<Throwable> handler) {
+            this.error = handler;
+            return this;
+        }
+
+        @Override
+        public TokenStream ignoreErrors() {
+            return this;
+        }
+
+        @Override
+        public void start() {
+            Thread thread = new Thread(() -> {
+                sleep();
+                tokens.forEach(partial);
+                if (failure != null) {
+                    error.accept(failure);
+                } else {
+                    complete.accept(ChatResponse.builder().aiMessage(AiMessage.from(String.join("", tokens))).build());
+                }
+            });
+            thread.start();
+        }
+
+        // Da tiempo a que la petición pase a modo asíncrono antes del primer fragmento
+        private static void sleep() {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
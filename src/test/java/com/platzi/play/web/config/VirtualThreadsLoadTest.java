@@ -0,0 +1,241 @@
+package com.platzi.play.web.config;
+
+import com.platzi.play.domain.service.TmdbCache;
+import com.platzi.play.domain.service.TmdbService;
+import com.platzi.play.web.controller.TmdbController;
+import com.platzi.play.web.exception.RestExceptionHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara el máximo de peticiones por segundo que sostiene la aplicación con el pool de hilos
+ * de plataforma de Tomcat (200 hilos) y con hilos virtuales, sobre el endpoint real
+ * {@code GET /tmdb/movie/{tmdbId}}: controlador, caché y cliente HTTP de TMDB tal como se
+ * configuran en producción, contra un TMDB simulado que tarda 50 ms en responder. Cada petición
+ * pide un ID distinto, así que ninguna se resuelve desde la caché. El pool de conexiones hacia
+ * TMDB se agranda para que el límite sea el modelo de hilos y no {@code tmdb.http.max-connections}.
+ * Se considera sostenida una carga sin errores y con p99 por debajo de 250 ms; también se informa
+ * el máximo alcanzado sin ese límite.
+ * <p>
+ * La comparación se mide con el monitor de pinning apagado, como corre en producción: su stream
+ * de JFR compite por la CPU y, con un solo núcleo, bajaba la carga sostenida con hilos virtuales
+ * de 147 a 43 req/s. El pinning se verifica aparte, en una corrida con el monitor encendido.
+ * La prueba falla si los hilos virtuales sostienen menos carga que el pool de plataforma o si
+ * algún hilo virtual queda fijado a su carrier. Se ejecuta con {@code ./gradlew loadTest} sobre Java 21.
+ */
+@Tag("load")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadsLoadTest {
+
+    private static final long UPSTREAM_DELAY_MILLIS = 50;
+    private static final int[] CONCURRENCY = {10, 25, 50, 100, 200, 400, 800, 1600};
+    private static final int[] PINNING_CONCURRENCY = {50, 200};
+    private static final Duration WINDOW = Duration.ofSeconds(3);
+    private static final Duration P99_LIMIT = Duration.ofMillis(250);
+    private static final byte[] DETAILS = ("{\"id\":603,\"title\":\"Matrix\",\"release_date\":\"1999-03-30\","
+            + "\"runtime\":136,\"genres\":[{\"id\":28,\"name\":\"Acción\"}],\"poster_path\":\"/matrix.jpg\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong nextTmdbId = new AtomicLong();
+    private final ExecutorService tmdbExecutor = Executors.newCachedThreadPool();
+    private HttpServer tmdb;
+
+    @BeforeEach
+    void startTmdbStub() throws IOException {
+        // Sin esto el servidor del JDK espera el ACK retardado entre cabeceras y cuerpo (~40 ms por respuesta)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        tmdb = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        tmdb.createContext("/movie/", exchange -> {
+            try {
+                Thread.sleep(UPSTREAM_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, DETAILS.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(DETAILS);
+            }
+        });
+        tmdb.setExecutor(tmdbExecutor);
+        tmdb.start();
+    }
+
+    @AfterEach
+    void stopTmdbStub() {
+        tmdb.stop(0);
+        tmdbExecutor.shutdownNow();
+    }
+
+    @Test
+    void virtualThreadsSustainAtLeastThePlatformPoolWithoutPinning() throws Exception {
+        ModeResult platform = run("platform", false, false, CONCURRENCY);
+        ModeResult virtual = run("virtual", true, false, CONCURRENCY);
+        ModeResult monitored = run("monitor", true, true, PINNING_CONCURRENCY);
+
+        System.out.printf("platform: max sustained=%.0f req/s  peak=%.0f req/s%n", platform.sustainedRps(), platform.peakRps());
+        System.out.printf("virtual:  max sustained=%.0f req/s  peak=%.0f req/s%n", virtual.sustainedRps(), virtual.peakRps());
+        System.out.printf("virtual con monitor de pinning: pinned events=%d%n", monitored.pinnedEvents());
+
+        assertThat(virtual.sustainedRps()).isGreaterThanOrEqualTo(platform.sustainedRps());
+        assertThat(monitored.pinnedEvents()).isZero();
+    }
+
+    private ModeResult run(String mode, boolean virtualThreads, boolean pinningMonitor, int[] concurrencySteps)
+            throws Exception {
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(TmdbEndpointApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--virtual-threads.pinning.monitor.enabled=" + pinningMonitor,
+                        "--tmdb.api.key=load-test",
+                        "--tmdb.api.base-url=http://127.0.0.1:" + tmdb.getAddress().getPort(),
+                        "--tmdb.http.max-connections=4000",
+                        "--tmdb.http.max-connections-per-host=4000")) {
+            int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+            String baseUrl = "http://127.0.0.1:" + port + app.getEnvironment().getProperty("server.servlet.context-path", "")
+                    + "/tmdb/movie/";
+            // Calentamiento: conexiones, JIT y creación de hilos del pool
+            runStep(baseUrl, 10, Duration.ofSeconds(2));
+
+            double sustainedRps = 0;
+            double peakRps = 0;
+            for (int concurrency : concurrencySteps) {
+                StepResult step = runStep(baseUrl, concurrency, WINDOW);
+                boolean sustained = step.errors() == 0 && step.p99Millis() <= P99_LIMIT.toMillis();
+                System.out.printf("%-8s concurrency=%5d  %8.0f req/s  p50=%6.1f ms  p99=%7.1f ms  errors=%d%s%n",
+                        mode, concurrency, step.throughput(), step.p50Millis(), step.p99Millis(), step.errors(),
+                        sustained ? "" : "  (no sostenida)");
+                if (sustained) {
+                    sustainedRps = Math.max(sustainedRps, step.throughput());
+                }
+                peakRps = Math.max(peakRps, step.throughput());
+            }
+
+            long pinned = 0;
+            for (Timer timer : app.getBean(MeterRegistry.class).find(VirtualThreadPinningMonitor.METRIC).timers()) {
+                System.out.printf("  pinned at %s: %d%n", timer.getId().getTag("frame"), timer.count());
+                pinned += timer.count();
+            }
+            return new ModeResult(sustainedRps, peakRps, pinned);
+        }
+    }
+
+    // Carga en lazo cerrado: cada cliente envía la siguiente petición al recibir la respuesta
+    private StepResult runStep(String baseUrl, int concurrency, Duration window) throws InterruptedException {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(concurrency);
+        long start = System.nanoTime();
+        long deadline = start + window.toNanos();
+        for (int i = 0; i < concurrency; i++) {
+            send(baseUrl, latencies, errors, finished, deadline);
+        }
+        finished.await(window.toSeconds() + 30, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) {
+            return new StepResult(0, 0, 0, errors.get());
+        }
+        return new StepResult(sorted.length / (elapsed / 1e9),
+                sorted[(int) (sorted.length * 0.50)] / 1e6,
+                sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.99))] / 1e6,
+                errors.get());
+    }
+
+    private void send(String baseUrl, ConcurrentLinkedQueue<Long> latencies, AtomicInteger errors,
+                      CountDownLatch finished, long deadline) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + nextTmdbId.incrementAndGet()))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        long requestStart = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            if (failure != null || response.statusCode() != 200) {
+                errors.incrementAndGet();
+            } else {
+                latencies.add(System.nanoTime() - requestStart);
+            }
+            if (System.nanoTime() < deadline) {
+                send(baseUrl, latencies, errors, finished, deadline);
+            } else {
+                finished.countDown();
+            }
+        });
+    }
+
+    /**
+     * Solo la parte de la aplicación que atiende {@code /tmdb/**}: servidor web, Spring MVC,
+     * el controlador, el servicio y la caché de TMDB, su cliente HTTP y el monitor de pinning (si está encendido)
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+            PropertyPlaceholderAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class
+    })
+    @Import({TmdbController.class, TmdbService.class, TmdbCache.class, TmdbHttpClientConfig.class,
+            RestExceptionHandler.class, VirtualThreadPinningMonitor.class})
+    static class TmdbEndpointApplication {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private record ModeResult(double sustainedRps, double peakRps, long pinnedEvents) {
+    }
+
+    private record StepResult(double throughput, double p50Millis, double p99Millis, int errors) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.platzi.play.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platzi.play.domain.exception.InvalidCursorException;
+import com.platzi.play.domain.exception.InvalidSearchQueryException;
+import com.platzi.play.domain.service.CatalogVersions;
+import com.platzi.play.domain.service.MovieService;
+import com.platzi.play.domain.service.MovieSuggestionCache;
+import com.platzi.play.domain.service.PlatziPlayAiService;
+import com.platzi.play.web.config.TokenStreamSseBridge;
+import com.platzi.play.web.exception.RestExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MovieControllerTest {
+
+    private MovieService movieService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        movieService = mock(MovieService.class);
+        MovieController controller = new MovieController(movieService, mock(PlatziPlayAiService.class),
+                mock(TokenStreamSseBridge.class), mock(MovieSuggestionCache.class), mock(CatalogVersions.class),
+                new ObjectMapper());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new RestExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void unknownSortIsABadRequest() throws Exception {
+        mockMvc.perform(get("/movies/page").param("sort", "foo"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("invalid-parameter"))
+                .andExpect(jsonPath("$.message").value(containsString("'sort'")))
+                .andExpect(jsonPath("$.message").value(containsString("POPULARITY")));
+
+        verify(movieService, never()).getPage(any(), any(), any(), any());
+    }
+
+    @Test
+    void nonNumericReleaseYearIsABadRequest() throws Exception {
+        mockMvc.perform(get("/movies/page").param("releaseYear", "noventa"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("invalid-parameter"))
+                .andExpect(jsonPath("$.message").value(containsString("'releaseYear'")));
+    }
+
+    @Test
+    void tooShortSearchIsABadRequest() throws Exception {
+        when(movieService.search(any(), any(), any(), any()))
+                .thenThrow(new InvalidSearchQueryException(2, 200));
+
+        mockMvc.perform(get("/movies/search").param("q", "a"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("invalid-search-query"));
+    }
+
+    @Test
+    void invalidSearchCursorIsABadRequest() throws Exception {
+        when(movieService.search(any(), any(), any(), any())).thenThrow(new InvalidCursorException());
+
+        mockMvc.perform(get("/movies/search").param("q", "padrino").param("cursor", "xyz"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("invalid-cursor"));
+    }
+
+    @Test
+    void unknownSearchModeIsABadRequest() throws Exception {
+        mockMvc.perform(get("/movies/search").param("q", "padrino").param("mode", "FUZZY"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("invalid-parameter"))
+                .andExpect(jsonPath("$.message").value(containsString("TYPO_TOLERANT")));
+
+        verify(movieService, never()).search(any(), any(), any(), any());
+    }
+
+    @Test
+    void missingSearchTextIsABadRequest() throws Exception {
+        mockMvc.perform(get("/movies/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("invalid-parameter"))
+                .andExpect(jsonPath("$.message").value(containsString("'q'")));
+
+        verify(movieService, never()).search(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,77 @@
+package com.platzi.play.web.controller;
+
+import com.platzi.play.domain.dto.ReviewDto;
+import com.platzi.play.domain.repository.CatalogVersionRepository;
+import com.platzi.play.domain.service.CatalogVersions;
+import com.platzi.play.domain.service.InMemoryCatalogVersionRepository;
+import com.platzi.play.domain.service.ReviewService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ReviewControllerConditionalGetTest {
+
+    private ReviewService reviewService;
+    private InMemoryCatalogVersionRepository catalogVersionRepository;
+    private CatalogVersions catalogVersions;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        reviewService = mock(ReviewService.class);
+        catalogVersionRepository = new InMemoryCatalogVersionRepository();
+        catalogVersions = new CatalogVersions(catalogVersionRepository, Duration.ofHours(1), Duration.ofHours(1));
+        when(reviewService.getReviewsByMovieId(1L)).thenReturn(List.of(new ReviewDto(
+                10L, 2L, "ana", 1L, "Matrix", 5, "Excelente", LocalDateTime.of(2026, 1, 1, 12, 0), null)));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReviewController(reviewService, catalogVersions)).build();
+    }
+
+    @Test
+    void unchangedVersionIsAnsweredWithoutQueryingTheService() throws Exception {
+        MvcResult first = mockMvc.perform(get("/reviews/movie/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(first.getResponse().getHeaders(HttpHeaders.ETAG)).hasSize(1);
+        assertThat(etag).startsWith("\"").endsWith("\"");
+
+        mockMvc.perform(get("/reviews/movie/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(reviewService, times(1)).getReviewsByMovieId(1L);
+    }
+
+    @Test
+    void writesChangeTheEtag() throws Exception {
+        String etag = mockMvc.perform(get("/reviews/movie/1")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        catalogVersionRepository.recordChange(CatalogVersionRepository.REVIEWS);
+        catalogVersions.changed();
+
+        mockMvc.perform(get("/reviews/movie/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Excelente")));
+        verify(reviewService, times(2)).getReviewsByMovieId(1L);
+    }
+}